@@ -0,0 +1,131 @@
+package com.cc.library.bench;
+
+import com.cc.library.CursorLibraryApplication;
+import com.cc.library.entity.Book;
+import com.cc.library.entity.BorrowRecord;
+import com.cc.library.entity.Category;
+import com.cc.library.entity.User;
+import com.cc.library.security.TokenVersionRegistry;
+import com.cc.library.util.JwtUtil;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 各基准共用的对象构造，数据形状与线上接口返回的一致。
+ */
+final class BenchmarkFixtures {
+
+    // 与 application.yml 中的 app.security.jwt.secret 相同
+    static final String JWT_SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * 在 H2 内存库上启动完整的 Spring 上下文（不启动 Web 服务器），后台定时任务不参与计时。
+     */
+    static ConfigurableApplicationContext startContext(String databaseName) throws IOException {
+        // 以命令行参数传入，优先级高于 application.yml 中的 MySQL 配置
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:" + databaseName + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("app.search.index-dir", Files.createTempDirectory("bench-index").toString());
+        properties.put("app.outbox.dispatch-interval-ms", 3_600_000);
+        properties.put("app.borrow.overdue-sweep-interval-ms", 3_600_000);
+        properties.put("logging.level.root", "WARN");
+        return new SpringApplicationBuilder(CursorLibraryApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run(properties.entrySet().stream()
+                        .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                        .toArray(String[]::new));
+    }
+
+    /**
+     * 令牌版本表只在内存中判断，基准中不需要仓库。
+     */
+    static TokenVersionRegistry tokenVersionRegistry() {
+        return new TokenVersionRegistry(null);
+    }
+
+    static JwtUtil jwtUtil(TokenVersionRegistry tokenVersionRegistry) {
+        JwtUtil jwtUtil = new JwtUtil(tokenVersionRegistry);
+        ReflectionTestUtils.setField(jwtUtil, "secret", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", 10_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return jwtUtil;
+    }
+
+    static User reader(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("reader" + id);
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuuRZb6z3lPZ1vLd2ZsP9sJq8x0p3b6vQe");
+        user.setName("Reader " + id);
+        user.setEmail("reader" + id + "@example.com");
+        user.setPhone("13800000000");
+        user.setRole(User.UserRole.READER);
+        user.setStatus(User.UserStatus.ACTIVE);
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+        return user;
+    }
+
+    static List<Book> books(int count) {
+        Category category = new Category();
+        category.setId(1L);
+        category.setName("Computer Science");
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            books.add(book(i + 1L, category));
+        }
+        return books;
+    }
+
+    static Book book(long id, Category category) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle("Designing Data-Intensive Applications, volume " + id);
+        book.setAuthor("Martin Kleppmann");
+        book.setIsbn("978-1-4493-7332-" + id);
+        book.setCategory(category);
+        book.setDescription("Data systems, replication, partitioning, transactions and stream processing.");
+        book.setTotalCopies(5);
+        book.setAvailableCopies(3);
+        book.setStatus(Book.BookStatus.AVAILABLE);
+        book.setCreatedAt(LocalDateTime.now());
+        book.setUpdatedAt(LocalDateTime.now());
+        return book;
+    }
+
+    static BorrowRecord borrowRecord() {
+        BorrowRecord record = new BorrowRecord();
+        record.setId(1L);
+        record.setUser(reader(1));
+        record.setBook(books(1).get(0));
+        record.setBorrowDate(LocalDateTime.now().minusDays(3));
+        record.setDueDate(LocalDateTime.now().plusDays(11));
+        record.setStatus(BorrowRecord.BorrowStatus.BORROWED);
+        record.setRemarks("Semester reading list");
+        record.setCreatedAt(LocalDateTime.now());
+        record.setUpdatedAt(LocalDateTime.now());
+        return record;
+    }
+}
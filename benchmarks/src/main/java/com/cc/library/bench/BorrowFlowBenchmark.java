@@ -0,0 +1,80 @@
+package com.cc.library.bench;
+
+import com.cc.library.entity.Book;
+import com.cc.library.entity.BorrowRecord;
+import com.cc.library.entity.Category;
+import com.cc.library.entity.User;
+import com.cc.library.repository.BookRepository;
+import com.cc.library.repository.CategoryRepository;
+import com.cc.library.repository.UserRepository;
+import com.cc.library.service.BorrowRecordService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 借阅申请 → 审批 → 归还的完整服务调用，跑在 H2 内存库上的真实 Spring 上下文中（事务、二级缓存、outbox 都生效）。
+ * 结果反映服务层与 ORM 的开销，不代表 MySQL 上的绝对耗时。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BorrowFlowBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private BorrowRecordService borrowRecordService;
+    private Long userId;
+    private Long bookId;
+
+    @Setup(Level.Trial)
+    public void startContext() throws IOException {
+        context = BenchmarkFixtures.startContext("bench");
+        borrowRecordService = context.getBean(BorrowRecordService.class);
+        seed();
+    }
+
+    private void seed() {
+        User reader = BenchmarkFixtures.reader(1);
+        reader.setId(null);
+        userId = context.getBean(UserRepository.class).save(reader).getId();
+
+        Category category = new Category();
+        category.setName("Computer Science");
+        category = context.getBean(CategoryRepository.class).save(category);
+        Book book = BenchmarkFixtures.book(1, category);
+        book.setId(null);
+        book.setTotalCopies(10);
+        book.setAvailableCopies(10);
+        bookId = context.getBean(BookRepository.class).save(book).getId();
+    }
+
+    @Benchmark
+    public BorrowRecord borrowApproveReturn() {
+        BorrowRecord record = borrowRecordService.createBorrowRequest(userId, bookId,
+                LocalDateTime.now().plusDays(14), null);
+        borrowRecordService.approveBorrowRequest(record.getId());
+        return borrowRecordService.returnBook(record.getId());
+    }
+
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        context.close();
+    }
+}
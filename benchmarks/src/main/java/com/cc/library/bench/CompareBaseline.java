@@ -0,0 +1,94 @@
+package com.cc.library.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 对比两份 JMH JSON 结果（-rf json 输出），逐项打印相对基线的变化。
+ * 任一基准比基线差超过阈值、且两次结果的置信区间（score ± scoreError）不重叠时以退出码 1 结束，便于在 CI 中使用。
+ * 误差大于差值的结果（如 H2 上的 Spring 基准）只标记为 within error，不算退化。
+ * <p>
+ * 用法：CompareBaseline &lt;baseline.json&gt; &lt;result.json&gt; [threshold]，threshold 默认 0.10（10%）。
+ */
+public final class CompareBaseline {
+
+    private CompareBaseline() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("用法: CompareBaseline <baseline.json> <result.json> [threshold]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf(Locale.ROOT, "%-62s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue();
+            JsonNode before = baseline.get(entry.getKey());
+            String unit = now.path("primaryMetric").path("scoreUnit").asText();
+            double score = now.path("primaryMetric").path("score").asDouble();
+            double error = error(now);
+            if (before == null) {
+                System.out.printf(Locale.ROOT, "%-62s %14s %14.3f %9s  (%s)%n", entry.getKey(), "-", score, "new", unit);
+                continue;
+            }
+            double baseScore = before.path("primaryMetric").path("score").asDouble();
+            double baseError = error(before);
+            double change = (score - baseScore) / baseScore;
+            // 吞吐量模式越大越好，其余模式（平均时间、采样时间等）越小越好
+            boolean higherIsBetter = "thrpt".equals(now.path("mode").asText());
+            double worse = higherIsBetter ? -change : change;
+            // 区间重叠时差异可能只是噪声
+            boolean separated = higherIsBetter
+                    ? score + error < baseScore - baseError
+                    : score - error > baseScore + baseError;
+            boolean regressed = worse > threshold && separated;
+            if (regressed) {
+                regressions++;
+            }
+            String verdict = regressed ? "  REGRESSION" : worse > threshold ? "  within error" : "";
+            System.out.printf(Locale.ROOT, "%-62s %14.3f %14.3f %+8.1f%%  (%s)%s%n", entry.getKey(), baseScore, score,
+                    change * 100, unit, verdict);
+        }
+        for (String missing : baseline.keySet()) {
+            if (!current.containsKey(missing)) {
+                System.out.printf(Locale.ROOT, "%-62s %14s %14s %9s%n", missing, "", "-", "missing");
+            }
+        }
+
+        if (regressions > 0) {
+            System.out.printf(Locale.ROOT, "%d 项基准比基线慢超过 %.0f%% 且超出误差范围%n", regressions, threshold * 100);
+            System.exit(1);
+        }
+        System.out.printf(Locale.ROOT, "全部基准在基线的 %.0f%% 或误差范围内%n", threshold * 100);
+    }
+
+    // 单轮测量时 JMH 把 scoreError 写成 "NaN"，按 0 处理
+    private static double error(JsonNode result) {
+        double error = result.path("primaryMetric").path("scoreError").asDouble();
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    // 以 “基准名 + 参数” 为键，同一基准不同 @Param 取值分别比较
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode node : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(node.path("benchmark").asText()
+                    .replace("com.cc.library.bench.", ""));
+            node.path("params").fields().forEachRemaining(param ->
+                    key.append(':').append(param.getKey()).append('=').append(param.getValue().asText()));
+            results.put(key.toString(), node);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,119 @@
+package com.cc.library.bench;
+
+import com.cc.library.entity.Book;
+import com.cc.library.entity.BorrowRecord;
+import com.cc.library.entity.Category;
+import com.cc.library.entity.User;
+import com.cc.library.repository.BookRepository;
+import com.cc.library.repository.CategoryRepository;
+import com.cc.library.repository.UserRepository;
+import com.cc.library.service.BorrowRecordService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 64 个调用方同时审批同一本书的借阅申请，结果为每秒审批数。
+ * <p>
+ * 每次审批都以条件 UPDATE 扣减同一行库存，测的是热点行上的锁竞争。每个调用方是一个读者，
+ * 审批前（不计时）归还上一次借出的书并提交新申请，册数等于调用方数，库存不会耗尽。
+ * 与 {@link BorrowFlowBenchmark} 一样跑在 H2 内存库上，只用于比较改动前后的相对变化。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(HotBookApprovalBenchmark.CALLERS)
+@Fork(1)
+public class HotBookApprovalBenchmark {
+
+    static final int CALLERS = 64;
+
+    private ConfigurableApplicationContext context;
+    private BorrowRecordService borrowRecordService;
+    private Long bookId;
+    private final List<Long> userIds = new ArrayList<>(CALLERS);
+    private final AtomicInteger nextCaller = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void startContext() throws IOException {
+        context = BenchmarkFixtures.startContext("hotbook");
+        borrowRecordService = context.getBean(BorrowRecordService.class);
+        seed();
+    }
+
+    private void seed() {
+        List<User> readers = new ArrayList<>(CALLERS);
+        for (int i = 1; i <= CALLERS; i++) {
+            User reader = BenchmarkFixtures.reader(i);
+            reader.setId(null);
+            readers.add(reader);
+        }
+        context.getBean(UserRepository.class).saveAll(readers).forEach(reader -> userIds.add(reader.getId()));
+
+        Category category = new Category();
+        category.setName("Computer Science");
+        category = context.getBean(CategoryRepository.class).save(category);
+        Book book = BenchmarkFixtures.book(1, category);
+        book.setId(null);
+        book.setTotalCopies(CALLERS);
+        book.setAvailableCopies(CALLERS);
+        bookId = context.getBean(BookRepository.class).save(book).getId();
+    }
+
+    /**
+     * 一个调用方：固定的读者，以及等待审批和已借出的申请。
+     */
+    @State(Scope.Thread)
+    public static class Caller {
+        private Long userId;
+        private Long pending;
+        private Long borrowed;
+
+        @Setup(Level.Trial)
+        public void assignReader(HotBookApprovalBenchmark benchmark) {
+            userId = benchmark.userIds.get(benchmark.nextCaller.getAndIncrement() % CALLERS);
+        }
+
+        @Setup(Level.Invocation)
+        public void submitRequest(HotBookApprovalBenchmark benchmark) {
+            if (borrowed != null) {
+                benchmark.borrowRecordService.returnBook(borrowed);
+                borrowed = null;
+            }
+            pending = benchmark.borrowRecordService.createBorrowRequest(userId, benchmark.bookId,
+                    LocalDateTime.now().plusDays(14), null).getId();
+        }
+    }
+
+    @Benchmark
+    public BorrowRecord approve(Caller caller) {
+        BorrowRecord record = borrowRecordService.approveBorrowRequest(caller.pending);
+        caller.borrowed = caller.pending;
+        return record;
+    }
+
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        context.close();
+    }
+}
@@ -0,0 +1,55 @@
+package com.cc.library.bench;
+
+import com.cc.library.entity.User;
+import com.cc.library.security.UserPrincipal;
+import com.cc.library.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil 的签发与解析。parseToken 命中已验签缓存，extractUsername 每次都做完整的 HMAC 验签。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = BenchmarkFixtures.jwtUtil(BenchmarkFixtures.tokenVersionRegistry());
+        user = BenchmarkFixtures.reader(1);
+        token = jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public UserPrincipal parseTokenCached() {
+        return jwtUtil.parseToken(token);
+    }
+
+    @Benchmark
+    public String parseTokenUncached() {
+        return jwtUtil.extractUsername(token);
+    }
+}
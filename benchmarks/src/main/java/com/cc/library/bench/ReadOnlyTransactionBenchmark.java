@@ -0,0 +1,110 @@
+package com.cc.library.bench;
+
+import com.cc.library.entity.Book;
+import com.cc.library.entity.BorrowRecord;
+import com.cc.library.entity.Category;
+import com.cc.library.entity.User;
+import com.cc.library.repository.BookRepository;
+import com.cc.library.repository.BorrowRecordRepository;
+import com.cc.library.repository.CategoryRepository;
+import com.cc.library.repository.UserRepository;
+import com.cc.library.service.BorrowRecordService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一页借阅记录实体（50 条，连同读者、图书、分类）在只读事务和普通读写事务中加载的开销对比。
+ * <p>
+ * 外层事务决定模式，服务方法上的 @Transactional(readOnly = true) 加入外层事务。
+ * 读写事务在提交时要逐个脏检查加载的实体，并为每个实体保留一份快照；用 {@code -prof gc} 运行时
+ * {@code gc.alloc.rate.norm} 即每次请求分配的堆内存。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReadOnlyTransactionBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"true", "false"})
+    public boolean readOnly;
+
+    private ConfigurableApplicationContext context;
+    private BorrowRecordService borrowRecordService;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void startContext() throws IOException {
+        context = BenchmarkFixtures.startContext("readonly");
+        borrowRecordService = context.getBean(BorrowRecordService.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(readOnly);
+        seed();
+    }
+
+    private void seed() {
+        List<User> users = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            User reader = BenchmarkFixtures.reader(i);
+            reader.setId(null);
+            users.add(reader);
+        }
+        users = context.getBean(UserRepository.class).saveAll(users);
+
+        Category category = new Category();
+        category.setName("Computer Science");
+        category = context.getBean(CategoryRepository.class).save(category);
+        List<Book> books = new ArrayList<>();
+        for (int i = 1; i <= 25; i++) {
+            Book book = BenchmarkFixtures.book(i, category);
+            book.setId(null);
+            books.add(book);
+        }
+        books = context.getBean(BookRepository.class).saveAll(books);
+
+        List<BorrowRecord> records = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            BorrowRecord record = BenchmarkFixtures.borrowRecord();
+            record.setId(null);
+            record.setUser(users.get(i % users.size()));
+            record.setBook(books.get(i % books.size()));
+            record.setDueDate(LocalDateTime.now().plusDays(i % 14 + 1));
+            records.add(record);
+        }
+        context.getBean(BorrowRecordRepository.class).saveAll(records);
+    }
+
+    @Benchmark
+    public List<BorrowRecord> borrowedRecordsPage() {
+        return transactionTemplate.execute(status ->
+                borrowRecordService.getRecordsByStatus(BorrowRecord.BorrowStatus.BORROWED));
+    }
+
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        context.close();
+    }
+}
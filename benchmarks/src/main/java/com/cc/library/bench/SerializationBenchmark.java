@@ -0,0 +1,59 @@
+package com.cc.library.bench;
+
+import com.cc.library.common.Result;
+import com.cc.library.entity.Book;
+import com.cc.library.entity.BorrowRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 两个最常见响应体的 JSON 序列化：一页 20 本图书的 Result&lt;Page&lt;Book&gt;&gt; 和带读者、图书的借阅记录。
+ * ObjectMapper 按 Spring Boot 的默认方式构建（模块自动发现、日期不写成时间戳）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Result<Page<Book>> bookPage;
+    private BorrowRecord borrowRecord;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        bookPage = Result.success(new PageImpl<>(BenchmarkFixtures.books(20), PageRequest.of(0, 20), 1000));
+        borrowRecord = BenchmarkFixtures.borrowRecord();
+    }
+
+    @Benchmark
+    public byte[] bookPage() throws Exception {
+        return objectMapper.writeValueAsBytes(bookPage);
+    }
+
+    @Benchmark
+    public byte[] borrowRecord() throws Exception {
+        return objectMapper.writeValueAsBytes(borrowRecord);
+    }
+}
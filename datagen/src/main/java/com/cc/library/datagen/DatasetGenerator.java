@@ -0,0 +1,313 @@
+package com.cc.library.datagen;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * 生成用于性能测试的图书馆数据：分类、读者、图书、借阅记录、预约和评论。
+ * <p>
+ * 数据按真实分布倾斜：图书借阅热度、读者活跃度服从 Zipf 分布（少数热门图书和活跃读者占据大部分借阅），
+ * 作者产量同样长尾，热门图书馆藏册数更多。借阅、预约、评论的 id 与时间同序递增，与线上自增主键一致。
+ * 在借图书数不超过馆藏，available_copies 与未归还的借阅记录对得上，全部借出的图书为 UNAVAILABLE，
+ * 只有这些图书上有待处理的预约。同一个 seed 总是生成完全相同的数据。
+ * <p>
+ * 生成顺序满足外键依赖。写入目标为 JDBC 多行 INSERT（{@link JdbcRowSink}）或 LOAD DATA 文件（{@link LoadFileRowSink}）。
+ */
+public final class DatasetGenerator {
+
+    // 所有读者共用 db/init.sql 中的密码哈希（明文 admin123）；逐个计算 BCrypt 会让生成耗时以小时计
+    static final String PASSWORD_HASH = "$2a$10$GRLdNijSQMUvl/au9ofL.eDwmoohzzS7.rmNSJZ.0FxO/BTk76klW";
+
+    private static final long DAY_SECONDS = 86_400;
+
+    // 各表使用独立的随机数流，调整某张表的数量不影响其他表的内容
+    private static final int STREAM_RANKING = 1;
+    private static final int STREAM_USERS = 2;
+    private static final int STREAM_BOOKS = 3;
+    private static final int STREAM_BORROWS = 4;
+    private static final int STREAM_RESERVATIONS = 5;
+    private static final int STREAM_REVIEWS = 6;
+    private static final int STREAM_CATEGORIES = 7;
+
+    private final GeneratorOptions options;
+    private final RowSink sink;
+    private final LocalDateTime now;
+    private final long historySeconds;
+
+    private final ZipfSampler bookPopularity;
+    private final ZipfSampler userActivity;
+    // 热度排名 -> 图书/读者下标，打乱后热门图书不会集中在 id 最小的一段
+    private final int[] bookByRank;
+    private final int[] userByRank;
+    private final int[] totalCopies;
+    private final int[] activeLoans;
+
+    // 在已有数据之后续接的 id 起点
+    private long categoryBase;
+    private long userBase;
+    private long bookBase;
+    private long borrowRecordBase;
+    private long reservationBase;
+    private long reviewBase;
+
+    DatasetGenerator(GeneratorOptions options, RowSink sink, LocalDateTime now) {
+        this.options = options;
+        this.sink = sink;
+        this.now = now.withNano(0);
+        this.historySeconds = options.historyDays * DAY_SECONDS;
+        this.bookPopularity = new ZipfSampler(options.books, options.bookSkew);
+        this.userActivity = new ZipfSampler(options.users, options.userSkew);
+
+        SplittableRandom random = random(STREAM_RANKING);
+        this.bookByRank = shuffledIndexes(options.books, random);
+        this.userByRank = shuffledIndexes(options.users, random);
+        this.totalCopies = new int[options.books];
+        this.activeLoans = new int[options.books];
+        for (int rank = 0; rank < options.books; rank++) {
+            int copies;
+            if (rank < options.books / 100) {
+                copies = 5 + random.nextInt(8);
+            } else if (rank < options.books / 10) {
+                copies = 2 + random.nextInt(4);
+            } else {
+                copies = 1 + random.nextInt(2);
+            }
+            totalCopies[bookByRank[rank]] = copies;
+        }
+    }
+
+    public static void main(String[] args) throws SQLException {
+        GeneratorOptions options = GeneratorOptions.parse(args);
+        long started = System.nanoTime();
+        Connection connection = options.url == null
+                ? null : DriverManager.getConnection(options.url, options.user, options.password);
+        try (connection; RowSink sink = options.out != null
+                ? new LoadFileRowSink(options.out) : new JdbcRowSink(connection, options.batchSize)) {
+            DatasetGenerator generator = new DatasetGenerator(options, sink, LocalDateTime.now());
+            if (connection != null) {
+                generator.continueIdsFrom(connection);
+            }
+            generator.generate();
+        }
+        System.out.printf("完成，耗时 %.1f 秒%n", (System.nanoTime() - started) / 1e9);
+    }
+
+    /**
+     * 读取各表当前最大 id，生成的数据接在已有数据（如 db/init.sql 的种子数据）之后。
+     */
+    void continueIdsFrom(Connection connection) throws SQLException {
+        categoryBase = maxId(connection, "categories");
+        userBase = maxId(connection, "users");
+        bookBase = maxId(connection, "books");
+        borrowRecordBase = maxId(connection, "borrow_records");
+        reservationBase = maxId(connection, "reservations");
+        reviewBase = maxId(connection, "reviews");
+    }
+
+    void generate() {
+        categories();
+        users();
+        // 先空跑一遍借阅记录，得到每本书的在借册数，图书行才能写出正确的 available_copies 和状态；
+        // 第二遍用同一随机数流重放并写出
+        borrowRecords(false);
+        books();
+        borrowRecords(true);
+        reservations();
+        reviews();
+    }
+
+    private void categories() {
+        SplittableRandom random = random(STREAM_CATEGORIES);
+        sink.begin("categories", "id", "name", "description", "created_at", "updated_at");
+        for (int i = 0; i < options.categories; i++) {
+            String name = Vocabulary.categoryName((int) categoryBase + i);
+            LocalDateTime createdAt = beforeHistory(random);
+            sink.row(categoryBase + i + 1, name, name + "类书籍", createdAt, createdAt);
+        }
+        sink.end();
+    }
+
+    private void users() {
+        SplittableRandom random = random(STREAM_USERS);
+        sink.begin("users", "id", "username", "password", "name", "email", "phone", "role", "status",
+                "created_at", "updated_at");
+        for (int i = 0; i < options.users; i++) {
+            long id = userBase + i + 1;
+            String phone = random.nextInt(5) == 0 ? null
+                    : "1" + (30 + random.nextInt(60)) + String.format("%08d", random.nextInt(100_000_000));
+            String status = random.nextInt(100) < 3 ? "INACTIVE" : "ACTIVE";
+            LocalDateTime createdAt = beforeHistory(random);
+            sink.row(id, "reader" + id, PASSWORD_HASH, Vocabulary.personName(random), "reader" + id + "@example.com",
+                    phone, "READER", status, createdAt, createdAt);
+        }
+        sink.end();
+    }
+
+    private void books() {
+        SplittableRandom random = random(STREAM_BOOKS);
+        ZipfSampler authorOutput = new ZipfSampler(options.authors, options.authorSkew);
+        ZipfSampler categorySize = new ZipfSampler(options.categories, options.categorySkew);
+        sink.begin("books", "id", "title", "author", "isbn", "category_id", "description", "total_copies",
+                "available_copies", "status", "created_at", "updated_at");
+        for (int i = 0; i < options.books; i++) {
+            long id = bookBase + i + 1;
+            int category = categorySize.sample(random) - 1;
+            int available = totalCopies[i] - activeLoans[i];
+            String status;
+            if (available == 0) {
+                status = "UNAVAILABLE";
+            } else {
+                status = random.nextInt(100) == 0 ? "MAINTENANCE" : "AVAILABLE";
+            }
+            LocalDateTime createdAt = beforeHistory(random);
+            sink.row(id, Vocabulary.title(random, category), Vocabulary.authorName(authorOutput.sample(random) - 1),
+                    isbn(id), categoryBase + category + 1, Vocabulary.description(random, category),
+                    totalCopies[i], available, status, createdAt, createdAt);
+        }
+        sink.end();
+    }
+
+    private void borrowRecords(boolean write) {
+        SplittableRandom random = random(STREAM_BORROWS);
+        Arrays.fill(activeLoans, 0);
+        if (write) {
+            sink.begin("borrow_records", "id", "book_id", "user_id", "borrow_date", "due_date", "return_date",
+                    "status", "created_at", "updated_at");
+        }
+        long count = options.borrowRecords;
+        for (long i = 0; i < count; i++) {
+            long secondsAgo = historySeconds - historySeconds * i / count;
+            LocalDateTime borrowDate = now.minusSeconds(secondsAgo);
+            LocalDateTime dueDate = borrowDate.plusDays(options.loanDays);
+            int book = bookByRank[bookPopularity.sample(random) - 1];
+            int user = userByRank[userActivity.sample(random) - 1];
+
+            String status;
+            LocalDateTime returnDate = null;
+            int roll = random.nextInt(100);
+            if (roll < 3) {
+                status = "REJECTED";
+            } else if (secondsAgo < 2 * DAY_SECONDS && roll < 25) {
+                status = "PENDING";
+            } else if (secondsAgo < (options.loanDays + 15) * DAY_SECONDS && roll < 60
+                    && activeLoans[book] < totalCopies[book]) {
+                activeLoans[book]++;
+                status = dueDate.isBefore(now) ? "OVERDUE" : "BORROWED";
+            } else {
+                // 大多在借期内归还，约一成逾期后归还
+                long keptSeconds = random.nextInt(10) == 0
+                        ? (options.loanDays + 1 + random.nextInt(30)) * DAY_SECONDS
+                        : DAY_SECONDS + random.nextLong(options.loanDays * DAY_SECONDS);
+                returnDate = borrowDate.plusSeconds(Math.min(keptSeconds, secondsAgo));
+                status = "RETURNED";
+            }
+            if (write) {
+                sink.row(borrowRecordBase + i + 1, bookBase + book + 1, userBase + user + 1, borrowDate, dueDate,
+                        returnDate, status, borrowDate, returnDate != null ? returnDate : borrowDate);
+            }
+        }
+        if (write) {
+            sink.end();
+        }
+    }
+
+    private void reservations() {
+        SplittableRandom random = random(STREAM_RESERVATIONS);
+        sink.begin("reservations", "id", "book_id", "user_id", "reservation_date", "fulfillment_date",
+                "expiration_date", "offered_at", "status");
+        long count = options.reservations;
+        for (long i = 0; i < count; i++) {
+            long secondsAgo = historySeconds - historySeconds * i / count;
+            LocalDateTime reservationDate = now.minusSeconds(secondsAgo);
+            int book = bookByRank[bookPopularity.sample(random) - 1];
+            int user = userByRank[userActivity.sample(random) - 1];
+
+            // 与 ReservationService 一致：只有全部借出的图书可以预约，待处理预约 7 天后过期
+            String status;
+            LocalDateTime fulfillmentDate = null;
+            LocalDateTime expirationDate = reservationDate.plusDays(7);
+            if (secondsAgo < 7 * DAY_SECONDS && activeLoans[book] == totalCopies[book]) {
+                status = "PENDING";
+            } else if (random.nextInt(100) < 65) {
+                status = "FULFILLED";
+                fulfillmentDate = reservationDate.plusSeconds(
+                        Math.min(DAY_SECONDS + random.nextLong(9 * DAY_SECONDS), secondsAgo));
+            } else {
+                status = "CANCELLED";
+            }
+            sink.row(reservationBase + i + 1, bookBase + book + 1, userBase + user + 1, reservationDate,
+                    fulfillmentDate, expirationDate, null, status);
+        }
+        sink.end();
+    }
+
+    private void reviews() {
+        SplittableRandom random = random(STREAM_REVIEWS);
+        sink.begin("reviews", "id", "book_id", "user_id", "rating", "comment", "created_at", "status");
+        long count = options.reviews;
+        for (long i = 0; i < count; i++) {
+            long secondsAgo = historySeconds - historySeconds * i / count;
+            int book = bookByRank[bookPopularity.sample(random) - 1];
+            int user = userByRank[userActivity.sample(random) - 1];
+            int roll = random.nextInt(100);
+            String status = roll < 85 ? "APPROVED" : roll < 95 ? "PENDING" : "REJECTED";
+            sink.row(reviewBase + i + 1, bookBase + book + 1, userBase + user + 1, rating(random),
+                    Vocabulary.comment(random), now.minusSeconds(secondsAgo), status);
+        }
+        sink.end();
+    }
+
+    // 评分偏向好评，约一成五带半星
+    private static double rating(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        int stars = roll < 35 ? 5 : roll < 65 ? 4 : roll < 83 ? 3 : roll < 92 ? 2 : 1;
+        return stars > 1 && random.nextInt(100) < 15 ? stars - 0.5 : stars;
+    }
+
+    // 979 前缀的 ISBN-13，由 id 决定、互不重复，不会与 978 开头的真实种子数据冲突
+    static String isbn(long id) {
+        String digits = "979" + String.format("%09d", id % 1_000_000_000L);
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return digits + (10 - sum % 10) % 10;
+    }
+
+    // 分类、读者、图书在借阅历史开始之前的五年内创建
+    private LocalDateTime beforeHistory(SplittableRandom random) {
+        return now.minusSeconds(historySeconds + random.nextLong(5 * 365 * DAY_SECONDS));
+    }
+
+    private SplittableRandom random(int stream) {
+        return new SplittableRandom(options.seed * 1_000_003L + stream);
+    }
+
+    private static int[] shuffledIndexes(int size, SplittableRandom random) {
+        int[] indexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            indexes[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = swap;
+        }
+        return indexes;
+    }
+
+    private static long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.cc.library.datagen;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * 命令行参数，格式为 --name=value。未给出的参数使用下面的默认值（约一个中型图书馆的规模）。
+ */
+final class GeneratorOptions {
+
+    int categories = 40;
+    int books = 100_000;
+    int users = 50_000;
+    long borrowRecords = 1_000_000;
+    long reservations = 50_000;
+    long reviews = 200_000;
+
+    // 作者数默认为图书数的 1/6，少数高产作者占据大量图书
+    int authors;
+
+    // Zipf 指数：图书借阅热度、读者活跃度、作者产量、分类大小
+    double bookSkew = 1.0;
+    double userSkew = 0.8;
+    double authorSkew = 1.1;
+    double categorySkew = 0.7;
+
+    // 借阅、预约、评论在最近多少天内分布
+    int historyDays = 730;
+    int loanDays = 30;
+
+    long seed = 42;
+    int batchSize = 1000;
+
+    // 给出 out 时写 LOAD DATA 文件，否则通过 url 用 JDBC 直接写入
+    Path out;
+    String url;
+    String user = "root";
+    String password = "root";
+
+    static GeneratorOptions parse(String[] args) {
+        GeneratorOptions options = new GeneratorOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("参数格式应为 --name=value: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name.toLowerCase(Locale.ROOT)) {
+                case "categories" -> options.categories = Integer.parseInt(value);
+                case "books" -> options.books = Integer.parseInt(value);
+                case "users" -> options.users = Integer.parseInt(value);
+                case "borrow-records" -> options.borrowRecords = Long.parseLong(value);
+                case "reservations" -> options.reservations = Long.parseLong(value);
+                case "reviews" -> options.reviews = Long.parseLong(value);
+                case "authors" -> options.authors = Integer.parseInt(value);
+                case "book-skew" -> options.bookSkew = Double.parseDouble(value);
+                case "user-skew" -> options.userSkew = Double.parseDouble(value);
+                case "author-skew" -> options.authorSkew = Double.parseDouble(value);
+                case "category-skew" -> options.categorySkew = Double.parseDouble(value);
+                case "history-days" -> options.historyDays = Integer.parseInt(value);
+                case "loan-days" -> options.loanDays = Integer.parseInt(value);
+                case "seed" -> options.seed = Long.parseLong(value);
+                case "batch-size" -> options.batchSize = Integer.parseInt(value);
+                case "out" -> options.out = Path.of(value);
+                case "url" -> options.url = value;
+                case "user" -> options.user = value;
+                case "password" -> options.password = value;
+                default -> throw new IllegalArgumentException("未知参数: " + name);
+            }
+        }
+        if (options.authors <= 0) {
+            options.authors = Math.max(1, options.books / 6);
+        }
+        if (options.out == null && options.url == null) {
+            throw new IllegalArgumentException("需要 --url=jdbc:mysql://...（直接写入）或 --out=目录（生成 LOAD DATA 文件）");
+        }
+        if (options.categories < 1 || options.books < 1 || options.users < 1) {
+            throw new IllegalArgumentException("categories、books、users 至少为 1");
+        }
+        return options;
+    }
+}
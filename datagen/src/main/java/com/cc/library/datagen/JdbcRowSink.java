@@ -0,0 +1,128 @@
+package com.cc.library.datagen;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.StringJoiner;
+
+/**
+ * 通过 JDBC 以多行 INSERT（INSERT ... VALUES (...), (...), ...）写入，每条语句提交一次。
+ * 多行语句省去了逐行往返和逐行解析，不依赖驱动的 rewriteBatchedStatements。
+ */
+final class JdbcRowSink implements RowSink {
+
+    // MySQL 单条预编译语句最多 65535 个占位符
+    private static final int MAX_PLACEHOLDERS = 65_535;
+
+    private final Connection connection;
+    private final int batchSize;
+
+    private String table;
+    private String[] columns;
+    private int rowsPerStatement;
+    private Object[][] buffer;
+    private int buffered;
+    private PreparedStatement fullStatement;
+    private long written;
+
+    JdbcRowSink(Connection connection, int batchSize) {
+        this.connection = connection;
+        this.batchSize = batchSize;
+        try {
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            throw new IllegalStateException("无法关闭自动提交", e);
+        }
+    }
+
+    @Override
+    public void begin(String table, String... columns) {
+        this.table = table;
+        this.columns = columns;
+        this.rowsPerStatement = Math.max(1, Math.min(batchSize, MAX_PLACEHOLDERS / columns.length));
+        this.buffer = new Object[rowsPerStatement][];
+        this.buffered = 0;
+        this.written = 0;
+    }
+
+    @Override
+    public void row(Object... values) {
+        buffer[buffered++] = values;
+        if (buffered == rowsPerStatement) {
+            flush();
+        }
+    }
+
+    @Override
+    public void end() {
+        flush();
+        closeFullStatement();
+        System.out.printf("%-16s %,d 行%n", table, written);
+    }
+
+    private void flush() {
+        if (buffered == 0) {
+            return;
+        }
+        try {
+            // 满批的语句复用同一个 PreparedStatement，只有表末尾不足一批时单独准备
+            PreparedStatement statement;
+            if (buffered == rowsPerStatement) {
+                if (fullStatement == null) {
+                    fullStatement = connection.prepareStatement(insertSql(rowsPerStatement));
+                }
+                statement = fullStatement;
+            } else {
+                statement = connection.prepareStatement(insertSql(buffered));
+            }
+            int index = 1;
+            for (int i = 0; i < buffered; i++) {
+                for (Object value : buffer[i]) {
+                    statement.setObject(index++, value instanceof Enum<?> e ? e.name() : value);
+                }
+            }
+            statement.executeUpdate();
+            if (statement != fullStatement) {
+                statement.close();
+            }
+            connection.commit();
+            written += buffered;
+            buffered = 0;
+        } catch (SQLException e) {
+            throw new IllegalStateException("写入 " + table + " 失败", e);
+        }
+    }
+
+    private String insertSql(int rows) {
+        StringJoiner placeholders = new StringJoiner(", ", "(", ")");
+        for (int i = 0; i < columns.length; i++) {
+            placeholders.add("?");
+        }
+        String group = placeholders.toString();
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table)
+                .append(" (").append(String.join(", ", columns)).append(") VALUES ");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(group);
+        }
+        return sql.toString();
+    }
+
+    private void closeFullStatement() {
+        if (fullStatement != null) {
+            try {
+                fullStatement.close();
+            } catch (SQLException ignored) {
+                // 语句已执行完毕，关闭失败不影响数据
+            }
+            fullStatement = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        closeFullStatement();
+    }
+}
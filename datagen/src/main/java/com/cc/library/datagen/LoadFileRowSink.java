@@ -0,0 +1,118 @@
+package com.cc.library.datagen;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 每张表写成一个 MySQL LOAD DATA 默认格式的文件（制表符分隔、\N 表示 NULL、反斜杠转义），
+ * 并生成按外键顺序导入的 load.sql。导入时关闭外键和唯一性检查，比任何形式的 INSERT 都快。
+ */
+final class LoadFileRowSink implements RowSink {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Path directory;
+    private final StringBuilder script = new StringBuilder();
+
+    private String table;
+    private String[] columns;
+    private Path file;
+    private Writer writer;
+    private long written;
+
+    LoadFileRowSink(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        script.append("-- 由 DatasetGenerator 生成：mysql --local-infile=1 library < load.sql\n")
+                .append("SET foreign_key_checks = 0;\n")
+                .append("SET unique_checks = 0;\n");
+    }
+
+    @Override
+    public void begin(String table, String... columns) {
+        this.table = table;
+        this.columns = columns;
+        this.file = directory.resolve(table + ".tsv");
+        this.written = 0;
+        try {
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void row(Object... values) {
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write('\t');
+                }
+                writeValue(values[i]);
+            }
+            writer.write('\n');
+            written++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            writer.write("\\N");
+        } else if (value instanceof LocalDateTime dateTime) {
+            writer.write(DATE_TIME.format(dateTime));
+        } else if (value instanceof Enum<?> e) {
+            writer.write(e.name());
+        } else if (value instanceof Number) {
+            writer.write(value.toString());
+        } else {
+            String text = value.toString();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '\\' -> writer.write("\\\\");
+                    case '\t' -> writer.write("\\t");
+                    case '\n' -> writer.write("\\n");
+                    case '\r' -> writer.write("\\r");
+                    default -> writer.write(c);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void end() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        script.append("LOAD DATA LOCAL INFILE '")
+                .append(file.toAbsolutePath().toString().replace("\\", "/").replace("'", "\\'"))
+                .append("' INTO TABLE ").append(table)
+                .append(" CHARACTER SET utf8mb4 (").append(String.join(", ", columns)).append(");\n");
+        System.out.printf("%-16s %,d 行 -> %s%n", table, written, file);
+    }
+
+    @Override
+    public void close() {
+        script.append("SET unique_checks = 1;\n")
+                .append("SET foreign_key_checks = 1;\n");
+        try {
+            Files.writeString(directory.resolve("load.sql"), script, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.cc.library.datagen;
+
+/**
+ * 生成结果的写入目标。每张表依次调用 begin、若干次 row、end；各表按外键依赖顺序写入。
+ */
+interface RowSink extends AutoCloseable {
+
+    void begin(String table, String... columns);
+
+    /**
+     * 按 begin 时的列顺序给出一行，值可以是 null、Number、String、Enum 或 LocalDateTime。
+     */
+    void row(Object... values);
+
+    void end();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,88 @@
+package com.cc.library.datagen;
+
+import java.util.SplittableRandom;
+
+/**
+ * 生成书名、作者名、评论等文本用的词表。文本只需长度和字符分布接近真实数据，内容本身无意义。
+ */
+final class Vocabulary {
+
+    private static final String[] SUBJECTS = {
+            "计算机", "文学", "历史", "艺术", "科学", "哲学", "经济", "法律", "医学", "教育",
+            "心理学", "社会学", "数学", "物理", "化学", "生物", "地理", "政治", "军事", "音乐",
+            "建筑", "设计", "摄影", "旅行", "烹饪", "体育", "农业", "环境", "语言", "宗教"
+    };
+    private static final String[] ADJECTIVES = {
+            "Practical", "Modern", "Hidden", "Complete", "Silent", "Distributed", "Ancient", "Essential",
+            "Effective", "Lost", "Quiet", "Brief", "Invisible", "Open", "Deep", "Elegant",
+            "现代", "简明", "深入", "经典", "实用", "失落的", "无声的", "漫长的"
+    };
+    private static final String[] NOUNS = {
+            "Systems", "History", "Garden", "Algorithms", "River", "Empire", "Patterns", "Machines",
+            "Ocean", "Theory", "City", "Language", "Networks", "Mountain", "Letters", "Memory",
+            "算法", "帝国", "城市", "花园", "河流", "语言", "网络", "记忆", "星空", "故乡"
+    };
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+            "伟", "芳", "娜", "敏", "静", "丽", "强", "磊", "军", "洋", "勇", "艳", "杰", "娟", "涛", "明"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Wilson", "Anderson", "Taylor", "Moore", "Jackson", "Martin", "Lee", "Thompson",
+            "王", "李", "张", "刘", "陈", "杨", "黄", "赵", "吴", "周", "徐", "孙", "马", "朱", "胡", "郭"
+    };
+    private static final String[] COMMENTS = {
+            "Highly recommended.", "Not what I expected.", "A classic for a reason.", "Too long in the middle.",
+            "Clear and well organised.", "Could not put it down.", "Dense but rewarding.", "Skip the first chapter.",
+            "值得一读。", "翻译一般，内容不错。", "讲得很清楚，适合入门。", "结尾有些仓促。", "重读了好几遍。", "配图很精美。"
+    };
+
+    private Vocabulary() {
+    }
+
+    static String categoryName(int index) {
+        String subject = SUBJECTS[index % SUBJECTS.length];
+        int round = index / SUBJECTS.length;
+        return round == 0 ? subject : subject + " " + (round + 1);
+    }
+
+    // 作者编号到姓名一一对应；组合用完后追加序号保证唯一
+    static String authorName(int index) {
+        int combinations = FIRST_NAMES.length * LAST_NAMES.length;
+        String name = FIRST_NAMES[index % FIRST_NAMES.length] + " "
+                + LAST_NAMES[(index / FIRST_NAMES.length) % LAST_NAMES.length];
+        return index < combinations ? name : name + " " + (index / combinations + 1);
+    }
+
+    static String personName(SplittableRandom random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    static String title(SplittableRandom random, int subject) {
+        String title = pick(random, ADJECTIVES) + " " + pick(random, NOUNS);
+        return switch (random.nextInt(4)) {
+            case 0 -> title + ": " + categoryName(subject);
+            case 1 -> "The " + title + " of " + pick(random, NOUNS);
+            default -> title;
+        };
+    }
+
+    static String description(SplittableRandom random, int subject) {
+        StringBuilder text = new StringBuilder("关于").append(categoryName(subject)).append("的");
+        int words = 4 + random.nextInt(20);
+        for (int i = 0; i < words; i++) {
+            text.append(' ').append(pick(random, NOUNS).toLowerCase());
+        }
+        return text.append('.').toString();
+    }
+
+    static String comment(SplittableRandom random) {
+        String comment = pick(random, COMMENTS);
+        return random.nextInt(3) == 0 ? comment + " " + pick(random, COMMENTS) : comment;
+    }
+
+    private static String pick(SplittableRandom random, String[] words) {
+        return words[random.nextInt(words.length)];
+    }
+}
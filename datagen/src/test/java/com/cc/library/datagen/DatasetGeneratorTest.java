@@ -0,0 +1,155 @@
+package com.cc.library.datagen;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在 H2 上生成一份小规模数据，校验数量、库存一致性和热度倾斜。
+ */
+class DatasetGeneratorTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private Connection connection;
+
+    @BeforeEach
+    void createSchema() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:datagen;MODE=MySQL;DATABASE_TO_LOWER=TRUE", "sa", "");
+        try (InputStream in = getClass().getResourceAsStream("/schema.sql");
+             Statement statement = connection.createStatement()) {
+            statement.execute(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @AfterEach
+    void dropDatabase() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    void generatesConsistentSkewedData() throws Exception {
+        GeneratorOptions options = options("--url=jdbc:h2:mem:datagen");
+        try (RowSink sink = new JdbcRowSink(connection, 300)) {
+            new DatasetGenerator(options, sink, NOW).generate();
+        }
+
+        assertEquals(10, count("SELECT COUNT(*) FROM categories"));
+        assertEquals(500, count("SELECT COUNT(*) FROM users"));
+        assertEquals(2000, count("SELECT COUNT(*) FROM books"));
+        assertEquals(20_000, count("SELECT COUNT(*) FROM borrow_records"));
+        assertEquals(3000, count("SELECT COUNT(*) FROM reservations"));
+        assertEquals(4000, count("SELECT COUNT(*) FROM reviews"));
+
+        // 可借册数 = 馆藏 - 未归还的借阅；全部借出的图书为 UNAVAILABLE
+        assertEquals(0, count("""
+                SELECT COUNT(*) FROM books b
+                WHERE b.available_copies <> b.total_copies - (SELECT COUNT(*) FROM borrow_records r
+                      WHERE r.book_id = b.id AND r.status IN ('BORROWED', 'OVERDUE'))
+                """));
+        assertEquals(0, count("SELECT COUNT(*) FROM books WHERE available_copies < 0"));
+        assertEquals(0, count("""
+                SELECT COUNT(*) FROM books
+                WHERE (available_copies = 0) <> (status = 'UNAVAILABLE')
+                """));
+        assertTrue(count("SELECT COUNT(*) FROM borrow_records WHERE status IN ('BORROWED', 'OVERDUE')") > 0);
+        assertEquals(0, count("""
+                SELECT COUNT(*) FROM reservations r JOIN books b ON b.id = r.book_id
+                WHERE r.status = 'PENDING' AND b.status <> 'UNAVAILABLE'
+                """));
+        assertEquals(0, count("SELECT COUNT(*) FROM borrow_records WHERE return_date > TIMESTAMP '2024-06-01 12:00:00'"));
+
+        // 借阅量前 1% 的图书占全部借阅的两成以上
+        long topBorrows = count("""
+                SELECT COALESCE(SUM(c), 0) FROM (SELECT COUNT(*) c FROM borrow_records
+                GROUP BY book_id ORDER BY c DESC LIMIT 20)
+                """);
+        assertTrue(topBorrows > 4000, "前 1% 图书的借阅数: " + topBorrows);
+    }
+
+    @Test
+    void continuesAfterExistingRows() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO users (username, password, name, email, role, status)
+                    VALUES ('admin', 'x', '系统管理员', 'admin@example.com', 'ADMIN', 'ACTIVE')
+                    """);
+        }
+        GeneratorOptions options = options("--url=jdbc:h2:mem:datagen");
+        try (RowSink sink = new JdbcRowSink(connection, 1000)) {
+            DatasetGenerator generator = new DatasetGenerator(options, sink, NOW);
+            generator.continueIdsFrom(connection);
+            generator.generate();
+        }
+
+        assertEquals(2, count("SELECT MIN(id) FROM users WHERE role = 'READER'"));
+        assertEquals(0, count("SELECT COUNT(*) FROM borrow_records WHERE user_id = 1"));
+    }
+
+    @Test
+    void writesLoadDataFilesAndScript(@TempDir Path out) throws Exception {
+        GeneratorOptions options = options("--out=" + out);
+        try (RowSink sink = new LoadFileRowSink(out)) {
+            new DatasetGenerator(options, sink, NOW).generate();
+        }
+
+        try (var lines = Files.lines(out.resolve("borrow_records.tsv"))) {
+            assertEquals(20_000, lines.count());
+        }
+        List<String> users = Files.readAllLines(out.resolve("users.tsv"));
+        assertEquals(500, users.size());
+        assertEquals(10, users.get(0).split("\t", -1).length);
+        String script = Files.readString(out.resolve("load.sql"));
+        assertTrue(script.contains("SET foreign_key_checks = 0;"));
+        assertTrue(script.indexOf("INTO TABLE books") < script.indexOf("INTO TABLE borrow_records"));
+    }
+
+    @Test
+    void sameSeedProducesSameData(@TempDir Path out) throws Exception {
+        for (String run : new String[]{"a", "b"}) {
+            try (RowSink sink = new LoadFileRowSink(out.resolve(run))) {
+                new DatasetGenerator(options("--out=" + out.resolve(run)), sink, NOW).generate();
+            }
+        }
+        for (String table : new String[]{"books", "borrow_records", "reviews"}) {
+            assertEquals(-1L, Files.mismatch(out.resolve("a/" + table + ".tsv"), out.resolve("b/" + table + ".tsv")),
+                    table);
+        }
+    }
+
+    @Test
+    void isbnsAreValidAndDistinct() {
+        assertEquals("9790000000018", DatasetGenerator.isbn(1));
+        assertNotEquals(DatasetGenerator.isbn(1), DatasetGenerator.isbn(2));
+    }
+
+    private static GeneratorOptions options(String target) {
+        return GeneratorOptions.parse(new String[]{target, "--categories=10", "--users=500", "--books=2000",
+                "--borrow-records=20000", "--reservations=3000", "--reviews=4000", "--history-days=365"});
+    }
+
+    private long count(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.cc.library.datagen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZipfSamplerTest {
+
+    @Test
+    void frequenciesFollowThePowerLaw() {
+        int n = 1000;
+        double exponent = 1.0;
+        ZipfSampler sampler = new ZipfSampler(n, exponent);
+        SplittableRandom random = new SplittableRandom(7);
+        int samples = 1_000_000;
+        int[] counts = new int[n + 1];
+        for (int i = 0; i < samples; i++) {
+            int k = sampler.sample(random);
+            assertTrue(k >= 1 && k <= n, "排名越界: " + k);
+            counts[k]++;
+        }
+
+        double normalization = 0;
+        for (int k = 1; k <= n; k++) {
+            normalization += 1 / Math.pow(k, exponent);
+        }
+        for (int k : new int[]{1, 2, 10, 100}) {
+            double expected = samples / Math.pow(k, exponent) / normalization;
+            assertEquals(expected, counts[k], expected * 0.05, "排名 " + k);
+        }
+    }
+
+    @Test
+    void singleElementAlwaysReturnsOne() {
+        ZipfSampler sampler = new ZipfSampler(1, 1.2);
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(1, sampler.sample(random));
+        }
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new ZipfSampler(0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new ZipfSampler(10, 0));
+    }
+}
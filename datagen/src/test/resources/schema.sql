@@ -0,0 +1,64 @@
+-- 与应用（Hibernate）建出的表结构一致，仅保留生成器写入的列和约束
+CREATE TABLE categories (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(50) NOT NULL UNIQUE,
+    description VARCHAR(500),
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP
+);
+CREATE TABLE users (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    password VARCHAR(100) NOT NULL,
+    name VARCHAR(50) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    phone VARCHAR(20),
+    role VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP
+);
+CREATE TABLE books (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    author VARCHAR(255) NOT NULL,
+    isbn VARCHAR(20) NOT NULL UNIQUE,
+    category_id BIGINT NOT NULL REFERENCES categories(id),
+    description VARCHAR(1000),
+    total_copies INT NOT NULL,
+    available_copies INT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP
+);
+CREATE TABLE borrow_records (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    book_id BIGINT NOT NULL REFERENCES books(id),
+    user_id BIGINT NOT NULL REFERENCES users(id),
+    borrow_date TIMESTAMP NOT NULL,
+    due_date TIMESTAMP NOT NULL,
+    return_date TIMESTAMP,
+    status VARCHAR(20) NOT NULL,
+    remarks VARCHAR(255),
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP
+);
+CREATE TABLE reservations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    book_id BIGINT NOT NULL REFERENCES books(id),
+    user_id BIGINT NOT NULL REFERENCES users(id),
+    reservation_date TIMESTAMP NOT NULL,
+    fulfillment_date TIMESTAMP,
+    expiration_date TIMESTAMP,
+    offered_at TIMESTAMP,
+    status VARCHAR(20) NOT NULL
+);
+CREATE TABLE reviews (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    book_id BIGINT NOT NULL REFERENCES books(id),
+    user_id BIGINT NOT NULL REFERENCES users(id),
+    rating DOUBLE NOT NULL,
+    comment CLOB,
+    created_at TIMESTAMP NOT NULL,
+    status VARCHAR(20) NOT NULL
+);
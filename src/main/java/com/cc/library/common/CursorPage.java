@@ -0,0 +1,110 @@
+package com.cc.library.common;
+
+import com.cc.library.exception.BusinessException;
+import lombok.Getter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * 游标（keyset）分页结果。
+ * <p>
+ * 与 offset 分页不同，下一页通过 {@code after} 游标从上一页最后一行的排序键 + ID 处继续，
+ * 不做 COUNT 查询，也不需要跳过前面的行，深翻页的代价与第一页相同。
+ * 游标对客户端是不透明的字符串，原样回传即可。
+ */
+@Getter
+public class CursorPage<T> {
+    private static final char SEPARATOR = '|';
+
+    /** 每页条数上限 */
+    public static final int MAX_SIZE = 100;
+
+    private final List<T> content;
+    private final int size;
+    private final boolean hasNext;
+    private final String nextCursor;
+
+    private CursorPage(List<T> content, int size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * 校验每页条数，返回多取一行的查询范围（多出的一行用于判断是否还有下一页）。
+     * @throws BusinessException 每页条数不在 1 到 {@link #MAX_SIZE} 之间
+     */
+    public static Pageable limit(int size) {
+        checkSize(size);
+        return PageRequest.of(0, size + 1);
+    }
+
+    /**
+     * 由多取一行的查询结果构造分页：多出的那一行只用来判断是否还有下一页。
+     * @param rows 按 (排序键, ID) 有序、最多 size + 1 行的查询结果
+     * @param size 每页条数
+     * @param sortKey 取行的排序键
+     * @param id 取行的 ID
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, String> sortKey, Function<T, Long> id) {
+        checkSize(size);
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            T last = content.get(content.size() - 1);
+            nextCursor = encode(sortKey.apply(last), id.apply(last));
+        }
+        return new CursorPage<>(content, size, hasNext, nextCursor);
+    }
+
+    private static void checkSize(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new BusinessException("INVALID_PAGE_SIZE", "每页条数必须在 1 到 " + MAX_SIZE + " 之间");
+        }
+    }
+
+    public static String encode(String sortKey, Long id) {
+        String raw = sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(UTF_8));
+    }
+
+    /**
+     * 解析游标；空游标表示第一页，返回 null。
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new Cursor(raw.substring(0, separator), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BusinessException("INVALID_CURSOR", "分页游标无效");
+        }
+    }
+
+    /**
+     * 解码后的游标：上一页最后一行的排序键与 ID。
+     */
+    public record Cursor(String sortKey, Long id) {
+
+        public LocalDateTime sortKeyAsDateTime() {
+            try {
+                return LocalDateTime.parse(sortKey);
+            } catch (DateTimeParseException e) {
+                throw new BusinessException("INVALID_CURSOR", "分页游标无效");
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.cc.library.common;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 大结果集的流式读取。
+ * <p>
+ * 仓库中返回 {@link Stream} 的查询统一带上 {@link #FETCH_SIZE}、只读和忽略二级缓存三个提示：
+ * JDBC 每次只向数据库取一批行（MySQL 需在连接串上开启 useCursorFetch），实体不保存脏检查快照，也不挤占缓存。
+ * {@link #forEach} 每处理一批就清空持久化上下文，已处理的实体随即可被回收，导出几百万行时内存占用不随行数增长。
+ * 调用方须处在（只读）事务中，并在事务结束前把流消费完。
+ */
+public final class EntityStreams {
+
+    public static final String FETCH_SIZE = "1000";
+
+    private static final int CLEAR_INTERVAL = Integer.parseInt(FETCH_SIZE);
+
+    private EntityStreams() {
+    }
+
+    /**
+     * 逐个处理流中的实体并在结束后关闭流（释放游标）。
+     * @return 处理的实体数
+     */
+    public static <T> long forEach(Stream<T> stream, EntityManager entityManager, Consumer<? super T> action) {
+        long count = 0;
+        try (stream) {
+            Iterator<T> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                if (++count % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+}
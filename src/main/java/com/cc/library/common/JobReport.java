@@ -0,0 +1,11 @@
+package com.cc.library.common;
+
+/**
+ * 批处理任务的执行报告。
+ * @param job 任务名称
+ * @param rowsProcessed 处理的行数
+ * @param chunks 提交的批次数
+ * @param durationMs 耗时（毫秒）
+ */
+public record JobReport(String job, long rowsProcessed, int chunks, long durationMs) {
+}
@@ -0,0 +1,31 @@
+package com.cc.library.common;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务结束后的回调。
+ * <p>
+ * 内存状态（检索索引、预约队列、令牌版本表等）要在数据库提交之后才能更新，否则回滚的数据会留在内存里。
+ */
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    /**
+     * 当前事务提交后执行；回滚则不执行。不在事务中时立即执行。
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
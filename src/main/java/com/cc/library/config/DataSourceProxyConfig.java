@@ -0,0 +1,34 @@
+package com.cc.library.config;
+
+import com.cc.library.monitoring.RequestTimingListener;
+import com.cc.library.monitoring.SlowQueryListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// 用 datasource-proxy 包装数据源：超过阈值的语句交给慢 SQL 记录（取代 show-sql 逐条打印），
+// 每条语句的耗时计入当前请求的 Server-Timing
+@Configuration(proxyBeanMethods = false)
+public class DataSourceProxyConfig {
+
+    @Bean
+    static BeanPostProcessor monitoringDataSourcePostProcessor(ObjectProvider<SlowQueryListener> slowQueryListener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name("monitoring")
+                            .listener(new RequestTimingListener())
+                            .listener(slowQueryListener.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
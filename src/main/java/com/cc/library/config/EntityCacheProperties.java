@@ -0,0 +1,26 @@
+package com.cc.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 二级缓存区域配置：每个实体一个区域，分别设置容量上限和写入后过期时间。
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class EntityCacheProperties {
+
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+        // 最多缓存的实体数
+        private long maxSize = 1000;
+        // 写入后多久过期，兜底绕过 Hibernate 直接改库的情况
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,10 @@
+package com.cc.library.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// 启用 @Scheduled 定时任务（预约过期处理等）
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
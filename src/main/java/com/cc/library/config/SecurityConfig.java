@@ -1,10 +1,14 @@
 package com.cc.library.config;
 
 import com.cc.library.filter.JwtAuthenticationFilter;
+import com.cc.library.security.BoundedPasswordEncoder;
+import com.cc.library.security.PasswordHashingExecutor;
 import com.cc.library.service.impl.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -33,12 +37,20 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final UserDetailsServiceImpl userDetailsService;
 
-    // 配置密码编码器
+    // BCrypt 编码器本身，仅供批量导入等自行控制并发的后台任务直接使用
     @Bean
-    public PasswordEncoder passwordEncoder() {
+    public BCryptPasswordEncoder bcryptPasswordEncoder() {
         return new BCryptPasswordEncoder();
     }
 
+    // 配置密码编码器：BCrypt 运算在独立的有界线程池中执行
+    @Bean
+    @Primary
+    public PasswordEncoder passwordEncoder(BCryptPasswordEncoder bcryptPasswordEncoder,
+                                           PasswordHashingExecutor passwordHashingExecutor) {
+        return new BoundedPasswordEncoder(bcryptPasswordEncoder, passwordHashingExecutor);
+    }
+
     // 配置认证管理器
     @Bean
     public AuthenticationManager authenticationManager(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder) {
@@ -55,6 +67,8 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(AbstractHttpConfigurer::disable) // 禁用 CSRF (适用于无状态的 RESTful API)
             .authorizeHttpRequests(authorize -> authorize
+                // 流式导出完成时的异步分派：原请求已通过鉴权，无状态令牌不会在分派时重新解析
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll() // 允许公开访问认证相关接口 (登录、注册等)
                 .requestMatchers("/api/users/register").permitAll() // 允许公开访问注册接口
                 .requestMatchers("/", "/index.html", "/static/**", "/login", "/register").permitAll()
@@ -78,6 +92,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:5173")); // Vue 开发服务器默认端口
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList("Server-Timing"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,31 @@
+package com.cc.library.config;
+
+import com.cc.library.monitoring.RequestOrigin;
+import com.cc.library.security.CurrentUser;
+import com.cc.library.security.CurrentUserArgumentResolver;
+import org.springdoc.core.utils.SpringDocUtils;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+// 注册 @CurrentUser 参数解析器（接口文档忽略该参数）和慢 SQL 来源拦截器
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    static {
+        SpringDocUtils.getConfig().addAnnotationsToIgnore(CurrentUser.class);
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentUserArgumentResolver());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestOrigin());
+    }
+}
@@ -13,7 +13,6 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
@@ -37,10 +36,10 @@ public class AuthController {
                     )
             );
 
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            User user = userService.getUserByUsername(userDetails.getUsername());
+            // 认证管理器通过 UserDetailsServiceImpl 加载的就是用户实体，无需再查一次
+            User user = (User) authentication.getPrincipal();
 
-            String token = jwtUtil.generateToken(userDetails);
+            String token = jwtUtil.generateToken(user);
 
             LoginResponse loginResponse = new LoginResponse(user, token);
 
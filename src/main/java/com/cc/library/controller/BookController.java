@@ -1,25 +1,42 @@
 package com.cc.library.controller;
 
+import com.cc.library.common.CursorPage;
 import com.cc.library.common.Result;
+import com.cc.library.dto.BookCard;
+import com.cc.library.dto.BookImportReport;
+import com.cc.library.dto.MarcImportProgress;
 import com.cc.library.entity.Book;
 import com.cc.library.entity.Category;
+import com.cc.library.export.ExportColumns;
+import com.cc.library.export.ExportFormat;
+import com.cc.library.export.StreamingExporter;
+import com.cc.library.service.BookImportService;
 import com.cc.library.service.BookService;
 import com.cc.library.service.CategoryService;
+import com.cc.library.service.MarcImportService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/books")
 @RequiredArgsConstructor
 public class BookController {
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final MarcImportService marcImportService;
     private final CategoryService categoryService;
+    private final StreamingExporter streamingExporter;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -27,6 +44,42 @@ public class BookController {
         return Result.success(bookService.createBook(book));
     }
 
+    /**
+     * 批量导入图书：请求体为 CSV（首行为表头：isbn,title,author,category,description,totalCopies）
+     * 或 JSON（对象数组或 NDJSON），流式读取，不存在的分类自动创建。
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "text/plain", "application/json", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<BookImportReport> importBooks(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                InputStream body) {
+        return Result.success(bookImportService.importBooks(body, contentType));
+    }
+
+    /**
+     * 在后台导入服务器导入目录（app.marc-import.directory）中的 MARC21 文件（ISO 2709 或 MARCXML），
+     * 返回任务 ID，进度与失败记录通过 GET /api/books/import/marc/{jobId} 查询。
+     * ISO 2709 记录支持 UTF-8 和 MARC-8 的 ASCII / ANSEL 扩展拉丁字符；切换到东亚（EACC）、西里尔等其他
+     * MARC-8 字符集的记录记为失败并跳过，需先转换为 UTF-8。
+     */
+    @PostMapping("/import/marc")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<MarcImportProgress> startMarcImport(@RequestParam String file,
+                                                      @RequestParam(required = false) String format) {
+        return Result.success(marcImportService.startImport(file, format));
+    }
+
+    @GetMapping("/import/marc/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<MarcImportProgress> getMarcImportProgress(@PathVariable String jobId) {
+        return Result.success(marcImportService.getProgress(jobId));
+    }
+
+    @DeleteMapping("/import/marc/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<MarcImportProgress> cancelMarcImport(@PathVariable String jobId) {
+        return Result.success(marcImportService.cancelImport(jobId));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public Result<Book> updateBook(@PathVariable Long id, @RequestBody Book book) {
@@ -46,14 +99,23 @@ public class BookController {
     }
 
     @GetMapping
-    public Result<Page<Book>> getAllBooks(@RequestParam(defaultValue = "0") int page,
+    public Result<Page<BookCard>> getAllBooks(@RequestParam(defaultValue = "0") int page,
                                           @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size);
         return Result.success(bookService.getAllBooks(pageable));
     }
 
+    /**
+     * 游标分页：按书名排序，传入上一页返回的 nextCursor 作为 after（首页传空串）。
+     */
+    @GetMapping(params = "after")
+    public Result<CursorPage<BookCard>> getBooksAfter(@RequestParam String after,
+                                                  @RequestParam(defaultValue = "10") int size) {
+        return Result.success(bookService.getBooksAfter(after, size));
+    }
+
     @GetMapping("/category/{categoryId}")
-    public Result<Page<Book>> getBooksByCategory(@PathVariable Long categoryId,
+    public Result<Page<BookCard>> getBooksByCategory(@PathVariable Long categoryId,
                                                  @RequestParam(defaultValue = "0") int page,
                                                  @RequestParam(defaultValue = "10") int size) {
         Category category = categoryService.getCategoryById(categoryId);
@@ -62,18 +124,43 @@ public class BookController {
     }
 
     @GetMapping("/search")
-    public Result<Page<Book>> searchBooks(@RequestParam String keyword,
+    public Result<Page<BookCard>> searchBooks(@RequestParam String keyword,
                                           @RequestParam(defaultValue = "0") int page,
                                           @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size);
         return Result.success(bookService.searchBooks(keyword, pageable));
     }
 
+    @PostMapping("/search/reindex")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<Boolean> rebuildSearchIndex() {
+        return Result.success(bookService.rebuildSearchIndex());
+    }
+
     @GetMapping("/status/{status}")
     public Result<List<Book>> getBooksByStatus(@PathVariable Book.BookStatus status) {
         return Result.success(bookService.getBooksByStatus(status));
     }
 
+    /**
+     * getBooksByStatus 的流式版本：逐行输出 NDJSON 或 CSV，内存占用与结果行数无关。
+     */
+    @GetMapping("/status/{status}/stream")
+    public ResponseEntity<StreamingResponseBody> streamBooksByStatus(@PathVariable Book.BookStatus status,
+                                                                     @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return streamingExporter.export(format, "books-" + status.name().toLowerCase(Locale.ROOT), ExportColumns.BOOK,
+                action -> bookService.streamBooksByStatus(status, action));
+    }
+
+    /**
+     * 全部馆藏按 ID 顺序导出。
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportCatalog(@RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return streamingExporter.export(format, "catalog", ExportColumns.BOOK, bookService::streamAllBooks);
+    }
+
     @PutMapping("/{id}/status")
     @PreAuthorize("hasRole('ADMIN')")
     public Result<Void> updateBookStatus(@PathVariable Long id, @RequestParam Book.BookStatus status) {
@@ -1,23 +1,30 @@
 package com.cc.library.controller;
 
+import com.cc.library.common.CursorPage;
 import com.cc.library.common.Result;
 import com.cc.library.entity.BorrowRecord;
 import com.cc.library.entity.User;
+import com.cc.library.export.ExportColumns;
+import com.cc.library.export.ExportFormat;
+import com.cc.library.export.StreamingExporter;
+import com.cc.library.security.CurrentUser;
 import com.cc.library.service.BorrowRecordService;
 import com.cc.library.service.UserService;
 import com.cc.library.dto.BorrowRequestDto;
+import com.cc.library.dto.LoanRow;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/borrow-records")
@@ -25,23 +32,12 @@ import java.util.List;
 public class BorrowRecordController {
     private final BorrowRecordService borrowRecordService;
     private final UserService userService;
+    private final StreamingExporter streamingExporter;
 
     @PostMapping
     @PreAuthorize("isAuthenticated()")
-    public Result<BorrowRecord> createBorrowRequest(@RequestBody BorrowRequestDto borrowRequestDto) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Long userId = null;
-        if (authentication != null && authentication.getPrincipal() instanceof User) {
-            userId = ((User) authentication.getPrincipal()).getId();
-        } else {
-             // Handle case where user is not authenticated or principal is not User object
-             return Result.error("用户未认证或认证信息无效");
-        }
-
-        if (userId == null) {
-             return Result.error("无法获取当前用户信息");
-        }
-
+    public Result<BorrowRecord> createBorrowRequest(@RequestBody BorrowRequestDto borrowRequestDto,
+                                                    @CurrentUser Long userId) {
         LocalDateTime dueDate = LocalDateTime.now().plus(borrowRequestDto.getDays(), ChronoUnit.DAYS);
 
         BorrowRecord createdRecord = borrowRecordService.createBorrowRequest(
@@ -87,7 +83,7 @@ public class BorrowRecordController {
 
     @GetMapping("/user/{userId}")
     @PreAuthorize("isAuthenticated() and (#userId == authentication.principal.id or hasRole('ADMIN'))")
-    public Result<Page<BorrowRecord>> getBorrowRecordsByUser(@PathVariable Long userId,
+    public Result<Page<LoanRow>> getBorrowRecordsByUser(@PathVariable Long userId,
                                                              @RequestParam(defaultValue = "0") int page,
                                                              @RequestParam(defaultValue = "10") int size) {
         User user = userService.getUserById(userId);
@@ -97,16 +93,28 @@ public class BorrowRecordController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public Result<Page<BorrowRecord>> getAllBorrowRecords(@RequestParam(defaultValue = "0") int page,
+    public Result<Page<LoanRow>> getAllBorrowRecords(@RequestParam(defaultValue = "0") int page,
                                                           @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size);
         return Result.success(borrowRecordService.getAllBorrowRecords(pageable));
     }
 
+    /**
+     * 游标分页：按借阅时间倒序，传入上一页返回的 nextCursor 作为 after（首页传空串）。
+     */
+    @GetMapping(params = "after")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<CursorPage<LoanRow>> getBorrowRecordsAfter(@RequestParam String after,
+                                                                  @RequestParam(defaultValue = "10") int size) {
+        return Result.success(borrowRecordService.getBorrowRecordsAfter(after, size));
+    }
+
     @GetMapping("/overdue")
     @PreAuthorize("hasRole('ADMIN')")
-    public Result<List<BorrowRecord>> getOverdueRecords() {
-        return Result.success(borrowRecordService.getOverdueRecords(LocalDateTime.now()));
+    public Result<Page<LoanRow>> getOverdueRecords(@RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(defaultValue = "10") int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        return Result.success(borrowRecordService.getOverdueRecords(pageable));
     }
 
     @GetMapping("/status/{status}")
@@ -114,4 +122,25 @@ public class BorrowRecordController {
     public Result<List<BorrowRecord>> getRecordsByStatus(@PathVariable BorrowRecord.BorrowStatus status) {
         return Result.success(borrowRecordService.getRecordsByStatus(status));
     }
-} 
\ No newline at end of file
+
+    /**
+     * 全部逾期记录按到期时间顺序流式输出（NDJSON 或 CSV），不分页，每行与列表接口相同是一个 LoanRow。
+     */
+    @GetMapping("/overdue/stream")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamOverdueRecords(@RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return streamingExporter.export(format, "borrow-records-overdue", ExportColumns.LOAN_ROW,
+                borrowRecordService::streamOverdueRecords);
+    }
+
+    /**
+     * getRecordsByStatus 的流式版本，按 ID 顺序逐行输出。
+     */
+    @GetMapping("/status/{status}/stream")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamRecordsByStatus(@PathVariable BorrowRecord.BorrowStatus status,
+                                                                       @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return streamingExporter.export(format, "borrow-records-" + status.name().toLowerCase(Locale.ROOT),
+                ExportColumns.LOAN_ROW, action -> borrowRecordService.streamRecordsByStatus(status, action));
+    }
+}
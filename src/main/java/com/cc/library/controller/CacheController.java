@@ -0,0 +1,30 @@
+package com.cc.library.controller;
+
+import com.cc.library.common.Result;
+import com.cc.library.dto.CacheRegionStats;
+import com.cc.library.service.CacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+@RequiredArgsConstructor
+public class CacheController {
+    private final CacheService cacheService;
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<List<CacheRegionStats>> getRegionStats() {
+        return Result.success(cacheService.getRegionStats());
+    }
+
+    @DeleteMapping("/{region}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<Void> evictRegion(@PathVariable String region) {
+        cacheService.evictRegion(region);
+        return Result.success();
+    }
+}
@@ -0,0 +1,21 @@
+package com.cc.library.controller;
+
+import com.cc.library.common.Result;
+import com.cc.library.dto.PasswordHashingStats;
+import com.cc.library.security.PasswordHashingExecutor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/password-hashing")
+@RequiredArgsConstructor
+public class PasswordHashingController {
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<PasswordHashingStats> getStats() {
+        return Result.success(passwordHashingExecutor.stats());
+    }
+}
@@ -0,0 +1,31 @@
+package com.cc.library.controller;
+
+import com.cc.library.common.Result;
+import com.cc.library.monitoring.SlowQuery;
+import com.cc.library.monitoring.SlowQueryLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/slow-queries")
+@RequiredArgsConstructor
+public class SlowQueryController {
+    private final SlowQueryLog slowQueryLog;
+
+    // 最近的慢 SQL，按时间倒序
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<List<SlowQuery>> getSlowQueries() {
+        return Result.success(slowQueryLog.recent());
+    }
+
+    @DeleteMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<Void> clearSlowQueries() {
+        slowQueryLog.clear();
+        return Result.success();
+    }
+}
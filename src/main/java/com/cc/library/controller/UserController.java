@@ -3,25 +3,30 @@ package com.cc.library.controller;
 import com.cc.library.common.Result;
 import com.cc.library.dto.UserRegistrationRequest;
 import com.cc.library.entity.User;
+import com.cc.library.security.CurrentUser;
 import com.cc.library.exception.BusinessException;
 import com.cc.library.service.UserService;
 import com.cc.library.dto.UserDto;
+import com.cc.library.dto.UserImportReport;
+import com.cc.library.service.UserImportService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
 public class UserController {
     private final UserService userService;
+    private final UserImportService userImportService;
 
     @Value("${app.security.admin-register-code}")
     private String adminRegisterCode;
@@ -58,6 +63,16 @@ public class UserController {
         return Result.success(userService.createUser(user));
     }
 
+    /**
+     * 批量导入读者：请求体为 CSV（text/csv，首行表头）或 JSON（对象数组或 NDJSON），边读边导入。
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "text/plain", "application/json", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<UserImportReport> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                InputStream body) {
+        return Result.success(userImportService.importUsers(body, contentType));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public Result<User> updateUser(@PathVariable Long id, @Valid @RequestBody User user) {
@@ -93,14 +108,7 @@ public class UserController {
 
     @GetMapping("/profile")
     @PreAuthorize("isAuthenticated()")
-    public Result<UserDto> getUserProfile() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.getPrincipal() instanceof User) {
-            User currentUser = (User) authentication.getPrincipal();
-            // Call the new service method that returns DTO
-            return Result.success(userService.getUserProfileDto(currentUser.getId()));
-        } else {
-            return Result.error("无法获取当前用户信息");
-        }
+    public Result<UserDto> getUserProfile(@CurrentUser Long userId) {
+        return Result.success(userService.getUserProfileDto(userId));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.cc.library.dto;
+
+import com.cc.library.entity.Book;
+
+/**
+ * 图书列表的一行：由 JPQL 构造表达式直接查询，只取列表展示需要的列（不含简介），
+ * 不加载实体，也就没有持久化上下文快照和脏检查。
+ */
+public record BookCard(Long id,
+                       String title,
+                       String author,
+                       String isbn,
+                       Long categoryId,
+                       String categoryName,
+                       Book.BookStatus status,
+                       Integer availableCopies,
+                       Integer totalCopies) {
+}
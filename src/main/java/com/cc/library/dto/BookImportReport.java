@@ -0,0 +1,28 @@
+package com.cc.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BookImportReport {
+    private int total;
+    private int imported;
+    private int failed;
+    private List<RowError> errors = new ArrayList<>();
+
+    public void reject(BookImportRow row, String message) {
+        failed++;
+        errors.add(new RowError(row.getRow(), row.getIsbn(), message));
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private int row;
+        private String isbn;
+        private String message;
+    }
+}
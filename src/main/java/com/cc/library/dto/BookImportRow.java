@@ -0,0 +1,22 @@
+package com.cc.library.dto;
+
+import com.cc.library.importer.ImportRow;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BookImportRow implements ImportRow {
+    // 在导入文件中的序号（CSV 不含表头，从 1 开始），用于错误报告
+    @JsonIgnore
+    private int row;
+    private String isbn;
+    private String title;
+    private String author;
+    // 分类名称，不存在时自动创建
+    private String category;
+    private String description;
+    // 按字符串读取，校验时再解析，格式不对只影响该行
+    private String totalCopies;
+}
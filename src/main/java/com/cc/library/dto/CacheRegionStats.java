@@ -0,0 +1,27 @@
+package com.cc.library.dto;
+
+import lombok.Data;
+import org.hibernate.stat.CacheRegionStatistics;
+
+@Data
+public class CacheRegionStats {
+    private String region;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private long elementCount;
+    // 命中率，尚无读取时为 0
+    private double hitRatio;
+
+    public static CacheRegionStats from(String region, CacheRegionStatistics statistics) {
+        CacheRegionStats stats = new CacheRegionStats();
+        stats.setRegion(region);
+        stats.setHitCount(statistics.getHitCount());
+        stats.setMissCount(statistics.getMissCount());
+        stats.setPutCount(statistics.getPutCount());
+        stats.setElementCount(statistics.getElementCountInMemory());
+        long reads = statistics.getHitCount() + statistics.getMissCount();
+        stats.setHitRatio(reads == 0 ? 0 : (double) statistics.getHitCount() / reads);
+        return stats;
+    }
+}
@@ -0,0 +1,23 @@
+package com.cc.library.dto;
+
+import com.cc.library.entity.BorrowRecord;
+
+import java.time.LocalDateTime;
+
+/**
+ * 借阅记录列表的一行：由 JPQL 构造表达式直接查询，只带图书和借阅人的标识与名称，
+ * 不序列化完整的 User（密码哈希等）和 Book 实体。
+ */
+public record LoanRow(Long id,
+                      Long bookId,
+                      String bookTitle,
+                      String bookIsbn,
+                      Long userId,
+                      String username,
+                      String borrowerName,
+                      LocalDateTime borrowDate,
+                      LocalDateTime dueDate,
+                      LocalDateTime returnDate,
+                      BorrowRecord.BorrowStatus status,
+                      String remarks) {
+}
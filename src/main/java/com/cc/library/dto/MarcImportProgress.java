@@ -0,0 +1,30 @@
+package com.cc.library.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class MarcImportProgress {
+    private String id;
+    private String file;
+    private String format;
+    private State state;
+    private long totalBytes;
+    private long bytesRead;
+    // 已处理（写入或拒绝）的记录每秒条数
+    private double recordsPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    // 导入失败或文件解析中断时的原因
+    private String message;
+    // total 为已读取的记录数，errors 只保留前 app.marc-import.max-errors 条
+    private BookImportReport report;
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+}
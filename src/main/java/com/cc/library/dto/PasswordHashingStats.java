@@ -0,0 +1,18 @@
+package com.cc.library.dto;
+
+import lombok.Data;
+
+@Data
+public class PasswordHashingStats {
+    private int threads;
+    private int queueCapacity;
+    // 正在排队等待哈希线程的任务数
+    private int queueDepth;
+    private int activeCount;
+    private long completedCount;
+    // 因队列已满被拒绝（返回 429）的次数
+    private long rejectedCount;
+    private double averageHashMillis;
+    private double maxHashMillis;
+    private double averageWaitMillis;
+}
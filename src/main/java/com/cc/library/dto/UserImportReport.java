@@ -0,0 +1,28 @@
+package com.cc.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class UserImportReport {
+    private int total;
+    private int imported;
+    private int failed;
+    private List<RowError> errors = new ArrayList<>();
+
+    public void reject(UserImportRow row, String message) {
+        failed++;
+        errors.add(new RowError(row.getRow(), row.getUsername(), message));
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private int row;
+        private String username;
+        private String message;
+    }
+}
@@ -0,0 +1,19 @@
+package com.cc.library.dto;
+
+import com.cc.library.importer.ImportRow;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserImportRow implements ImportRow {
+    // 在导入文件中的序号（CSV 不含表头，从 1 开始），用于错误报告
+    @JsonIgnore
+    private int row;
+    private String username;
+    private String password;
+    private String name;
+    private String email;
+    private String phone;
+}
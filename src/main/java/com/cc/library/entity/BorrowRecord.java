@@ -6,7 +6,10 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "borrow_records")
+@Table(name = "borrow_records", indexes = {
+        @Index(name = "idx_borrow_records_borrow_date_id", columnList = "borrow_date, id"),
+        @Index(name = "idx_borrow_records_status_due_date", columnList = "status, due_date")
+})
 public class BorrowRecord {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
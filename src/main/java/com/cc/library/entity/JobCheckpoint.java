@@ -0,0 +1,29 @@
+package com.cc.library.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 增量任务的检查点：记录每个任务已处理到的高水位，下次运行从这里继续。
+ */
+@Data
+@Entity
+@Table(name = "job_checkpoints")
+public class JobCheckpoint {
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(name = "high_water_mark", nullable = false)
+    private LocalDateTime highWaterMark;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
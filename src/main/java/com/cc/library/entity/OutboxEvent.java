@@ -0,0 +1,52 @@
+package com.cc.library.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 事务性发件箱：业务变更与事件在同一事务中写入，由 {@link com.cc.library.outbox.OutboxDispatcher} 异步投递。
+ */
+@Data
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_processed_at_id", columnList = "processed_at, id")
+})
+public class OutboxEvent {
+    // 某本图书空出了一个副本（归还、或为预约保留的副本被取消/过期），aggregateId 为图书 ID
+    public static final String COPY_RELEASED = "COPY_RELEASED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public static OutboxEvent copyReleased(Long bookId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(COPY_RELEASED);
+        event.setAggregateId(bookId);
+        return event;
+    }
+}
@@ -0,0 +1,32 @@
+package com.cc.library.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 用户令牌版本：签发的 JWT 携带当时的版本号，版本递增后旧令牌全部失效。
+ * 只为改过版本的用户保存一行（含已删除的用户），没有记录即版本 0。
+ */
+@Data
+@Entity
+@Table(name = "token_versions", indexes = {
+        @Index(name = "idx_token_versions_updated_at", columnList = "updated_at")
+})
+public class TokenVersion {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private int version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
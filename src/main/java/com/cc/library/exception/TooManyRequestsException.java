@@ -0,0 +1,16 @@
+package com.cc.library.exception;
+
+import lombok.Getter;
+
+/**
+ * 服务暂时过载，返回 429 并通过 Retry-After 告知客户端多久后重试。
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,9 @@
+package com.cc.library.export;
+
+import java.util.function.Function;
+
+/**
+ * CSV 导出中的一列：表头和取值方法。
+ */
+public record ExportColumn<T>(String header, Function<? super T, ?> value) {
+}
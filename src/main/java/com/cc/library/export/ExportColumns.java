@@ -0,0 +1,41 @@
+package com.cc.library.export;
+
+import com.cc.library.dto.LoanRow;
+import com.cc.library.entity.Book;
+
+import java.util.List;
+
+/**
+ * 各实体导出为 CSV 时的列。关联对象只取标识和名称，不展开整个对象。
+ */
+public final class ExportColumns {
+
+    public static final List<ExportColumn<Book>> BOOK = List.of(
+            new ExportColumn<>("id", Book::getId),
+            new ExportColumn<>("title", Book::getTitle),
+            new ExportColumn<>("author", Book::getAuthor),
+            new ExportColumn<>("isbn", Book::getIsbn),
+            new ExportColumn<>("category", book -> book.getCategory() == null ? null : book.getCategory().getName()),
+            new ExportColumn<>("description", Book::getDescription),
+            new ExportColumn<>("totalCopies", Book::getTotalCopies),
+            new ExportColumn<>("availableCopies", Book::getAvailableCopies),
+            new ExportColumn<>("status", Book::getStatus),
+            new ExportColumn<>("createdAt", Book::getCreatedAt),
+            new ExportColumn<>("updatedAt", Book::getUpdatedAt));
+
+    public static final List<ExportColumn<LoanRow>> LOAN_ROW = List.of(
+            new ExportColumn<>("id", LoanRow::id),
+            new ExportColumn<>("bookId", LoanRow::bookId),
+            new ExportColumn<>("bookTitle", LoanRow::bookTitle),
+            new ExportColumn<>("isbn", LoanRow::bookIsbn),
+            new ExportColumn<>("userId", LoanRow::userId),
+            new ExportColumn<>("username", LoanRow::username),
+            new ExportColumn<>("borrowDate", LoanRow::borrowDate),
+            new ExportColumn<>("dueDate", LoanRow::dueDate),
+            new ExportColumn<>("returnDate", LoanRow::returnDate),
+            new ExportColumn<>("status", LoanRow::status),
+            new ExportColumn<>("remarks", LoanRow::remarks));
+
+    private ExportColumns() {
+    }
+}
@@ -0,0 +1,27 @@
+package com.cc.library.export;
+
+import org.springframework.http.MediaType;
+
+/**
+ * 流式导出的格式：NDJSON 每行一个与列表接口相同的 JSON 对象，CSV 带表头、按固定列输出。
+ */
+public enum ExportFormat {
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,130 @@
+package com.cc.library.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 把实体逐行写到输出流，每行写完即可丢弃，不在内存中积累整个响应。
+ * <p>
+ * 输出经过缓冲，只在缓冲区满和关闭时写到底层流，不逐行 flush。写入失败（如客户端断开）以
+ * {@link UncheckedIOException} 抛出，便于在 Consumer 中使用。
+ */
+public abstract class RowStreamWriter<T> implements Closeable {
+
+    public static <T> RowStreamWriter<T> open(ExportFormat format, OutputStream out, ObjectMapper objectMapper,
+                                              List<ExportColumn<T>> columns) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonWriter<>(out, objectMapper);
+            case CSV -> new CsvWriter<>(out, columns);
+        };
+    }
+
+    public abstract void write(T row);
+
+    private static final class NdjsonWriter<T> extends RowStreamWriter<T> {
+        private final JsonGenerator generator;
+        private final ObjectWriter objectWriter;
+
+        private NdjsonWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            this.generator = objectMapper.createGenerator(out);
+            this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        @Override
+        public void write(T row) {
+            try {
+                objectWriter.writeValue(generator, row);
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvWriter<T> extends RowStreamWriter<T> {
+        private final Writer writer;
+        private final List<ExportColumn<T>> columns;
+
+        private CsvWriter(OutputStream out, List<ExportColumn<T>> columns) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+            this.columns = columns;
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeField(columns.get(i).header());
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(T row) {
+            try {
+                for (int i = 0; i < columns.size(); i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    Object value = columns.get(i).value().apply(row);
+                    if (value instanceof CharSequence text) {
+                        writeField(neutralizeFormula(text.toString()));
+                    } else if (value != null) {
+                        writeField(value instanceof Enum<?> e ? e.name() : value.toString());
+                    }
+                }
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // 表格软件把以 = + - @（及制表符、回车）开头的单元格当作公式执行，文本字段前加单引号按文本显示；
+        // 数值列不经过这里，负数保持原样
+        private static String neutralizeFormula(String value) {
+            if (value.isEmpty()) {
+                return value;
+            }
+            return switch (value.charAt(0)) {
+                case '=', '+', '-', '@', '\t', '\r' -> "'" + value;
+                default -> value;
+            };
+        }
+
+        // RFC 4180：含逗号、双引号或换行的字段用双引号包裹，内部双引号写两次
+        private void writeField(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
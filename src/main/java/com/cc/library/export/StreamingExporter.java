@@ -0,0 +1,74 @@
+package com.cc.library.export;
+
+import com.cc.library.exception.TooManyRequestsException;
+import com.cc.library.monitoring.RequestOrigin;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * 生成流式导出响应：控制器返回后在 MVC 异步线程中从数据源逐行读取、逐行写出，
+ * 响应不经过消息转换器，也就不会整体缓冲在内存中。
+ * <p>
+ * 每个导出从开始到写完都占用一个数据库连接（游标读取）和一个异步线程，同时进行的导出数受
+ * {@code app.export.max-concurrent} 限制，超出时直接返回 429，不让导出挤占普通请求的连接。
+ */
+@Component
+public class StreamingExporter {
+
+    private static final long RETRY_AFTER_SECONDS = 30;
+
+    private final ObjectMapper objectMapper;
+    private final Semaphore permits;
+
+    public StreamingExporter(ObjectMapper objectMapper, @Value("${app.export.max-concurrent:2}") int maxConcurrent) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("app.export.max-concurrent 必须大于 0，当前为 " + maxConcurrent);
+        }
+        this.objectMapper = objectMapper;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * 逐个把行交给写出方法的数据源，通常是服务层的只读流式查询。
+     */
+    @FunctionalInterface
+    public interface RowSource<T> {
+        long forEach(Consumer<T> action);
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> export(ExportFormat format, String filename,
+                                                            List<ExportColumn<T>> columns, RowSource<T> source) {
+        if (!permits.tryAcquire()) {
+            throw new TooManyRequestsException("导出任务过多，请稍后重试", RETRY_AFTER_SECONDS);
+        }
+        // 行在 MVC 异步线程中读取，慢 SQL 记录仍标注为发起导出的接口
+        String origin = RequestOrigin.capture();
+        StreamingResponseBody body = out -> {
+            try (RequestOrigin.Scope ignored = RequestOrigin.enter(origin);
+                 RowStreamWriter<T> writer = RowStreamWriter.open(format, out, objectMapper, columns)) {
+                source.forEach(writer::write);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                permits.release();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(filename + "." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
@@ -1,6 +1,10 @@
 package com.cc.library.filter;
 
+import com.cc.library.monitoring.RequestTiming;
+import com.cc.library.security.TokenVersionRegistry;
+import com.cc.library.security.UserPrincipal;
 import com.cc.library.util.JwtUtil;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,8 +12,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -18,6 +20,9 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 
+/**
+ * 无状态 JWT 认证：一次验签还原用户，再查内存中的令牌版本表判断是否已吊销，全程不访问数据库。
+ */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -25,7 +30,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
     @Override
     protected void doFilterInternal(
@@ -35,7 +40,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
+        final UserPrincipal principal;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             logger.debug("Authorization header missing or does not start with Bearer");
@@ -44,47 +49,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        logger.debug("Extracted JWT: {}", jwt);
+        long authStart = System.nanoTime();
 
         try {
-            username = jwtUtil.extractUsername(jwt);
-            logger.debug("Extracted username: {}", username);
-        } catch (Exception e) {
-            logger.error("Error extracting username from JWT", e);
+            principal = jwtUtil.parseToken(jwt);
+            logger.debug("Parsed JWT for user: {}", principal.username());
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Rejected JWT: {}", e.getMessage());
+            RequestTiming.recordAuth(authStart);
             // Allow filter chain to continue, will result in unauthenticated
             filterChain.doFilter(request, response);
             return;
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = null;
-            try {
-                 userDetails = this.userDetailsService.loadUserByUsername(username);
-                 logger.debug("Loaded UserDetails for user {}: {}", username, userDetails != null);
-            } catch (Exception e) {
-                 logger.error("Error loading user details for user {}", username, e);
-                 // Allow filter chain to continue
-                 filterChain.doFilter(request, response);
-                 return;
-            }
-
-            if (userDetails != null && jwtUtil.validateToken(jwt, userDetails)) {
-                logger.debug("JWT token validated for user: {}", username);
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            if (tokenVersionRegistry.isCurrent(principal.id(), principal.tokenVersion())) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
+                        principal,
                         null,
-                        userDetails.getAuthorities()
+                        principal.getAuthorities()
                 );
                 authToken.setDetails(
                         new WebAuthenticationDetailsSource().buildDetails(request)
                 );
                 SecurityContextHolder.getContext().setAuthentication(authToken);
-                logger.debug("Authentication set in SecurityContext for user: {}", username);
+                logger.debug("Authentication set in SecurityContext for user: {}", principal.username());
             } else {
-                 logger.debug("JWT token validation failed for user: {} or userDetails is null", username);
+                logger.debug("JWT for user {} was revoked (token version {})", principal.username(), principal.tokenVersion());
             }
         }
 
+        RequestTiming.recordAuth(authStart);
         filterChain.doFilter(request, response);
     }
-} 
\ No newline at end of file
+}
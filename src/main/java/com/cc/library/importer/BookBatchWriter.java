@@ -0,0 +1,205 @@
+package com.cc.library.importer;
+
+import com.cc.library.dto.BookImportReport;
+import com.cc.library.dto.BookImportRow;
+import com.cc.library.entity.Book;
+import com.cc.library.entity.Category;
+import com.cc.library.repository.BookRepository;
+import com.cc.library.repository.CategoryRepository;
+import com.cc.library.search.BookSearchIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 图书批量写入：逐行校验，按批集合查重后用一次 JDBC 批量插入写入一批。
+ * <p>
+ * 不经过 JPA：books 表主键为自增列，Hibernate 每插入一行都要取回生成的主键，无法合并成批；
+ * 直接批量执行 INSERT 时 MySQL 驱动（rewriteBatchedStatements）会改写为多行 INSERT。
+ * 新书不在二级缓存中，无需失效；写入后按 ISBN 读回并加入检索索引，但不提交索引：
+ * 每次提交都要落盘，调用方在整个导入结束后调用一次 {@link #commitIndex()}。
+ * CSV/JSON 导入和 MARC 导入共用这一写入路径。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookBatchWriter {
+    private final BookRepository bookRepository;
+    private final CategoryRepository categoryRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    private static final String INSERT_BOOK = "INSERT INTO books (title, author, isbn, category_id, description, "
+            + "total_copies, available_copies, status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // 与 books 表的列长度一致
+    private static final int MAX_ISBN = 20;
+    private static final int MAX_TITLE = 255;
+    private static final int MAX_AUTHOR = 255;
+    private static final int MAX_CATEGORY = 255;
+    private static final int MAX_DESCRIPTION = 1000;
+
+    /**
+     * 校验一行并规范化（去掉首尾空白、补默认册数）。
+     * @return 失败原因，通过时为 null
+     */
+    public String validate(BookImportRow row) {
+        row.setIsbn(trim(row.getIsbn()));
+        row.setTitle(trim(row.getTitle()));
+        row.setAuthor(trim(row.getAuthor()));
+        row.setCategory(trim(row.getCategory()));
+        row.setDescription(trim(row.getDescription()));
+        row.setTotalCopies(trim(row.getTotalCopies()));
+        if (row.getIsbn() == null) {
+            return "ISBN不能为空";
+        }
+        if (row.getIsbn().length() > MAX_ISBN) {
+            return "ISBN长度不能超过" + MAX_ISBN + "个字符";
+        }
+        if (row.getTitle() == null) {
+            return "书名不能为空";
+        }
+        if (row.getTitle().length() > MAX_TITLE) {
+            return "书名长度不能超过" + MAX_TITLE + "个字符";
+        }
+        if (row.getAuthor() == null) {
+            return "作者不能为空";
+        }
+        if (row.getAuthor().length() > MAX_AUTHOR) {
+            return "作者长度不能超过" + MAX_AUTHOR + "个字符";
+        }
+        if (row.getCategory() == null) {
+            return "分类不能为空";
+        }
+        if (row.getCategory().length() > MAX_CATEGORY) {
+            return "分类名称长度不能超过" + MAX_CATEGORY + "个字符";
+        }
+        if (row.getDescription() != null && row.getDescription().length() > MAX_DESCRIPTION) {
+            return "简介长度不能超过" + MAX_DESCRIPTION + "个字符";
+        }
+        if (row.getTotalCopies() == null) {
+            row.setTotalCopies("1");
+        } else if (!row.getTotalCopies().matches("\\d{1,6}")) {
+            return "册数必须是非负整数";
+        }
+        return null;
+    }
+
+    private static String trim(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * 写入一批已校验、文件内无重复 ISBN 的行：一条集合查询排除已存在的 ISBN，再一次 JDBC 批量插入。
+     * @return 成功写入的行数，失败的行记入 report
+     */
+    public int write(List<BookImportRow> chunk, BookImportReport report) {
+        Set<String> takenIsbns = bookRepository.findExistingIsbns(chunk.stream().map(BookImportRow::getIsbn).toList());
+        List<BookImportRow> accepted = new ArrayList<>(chunk.size());
+        for (BookImportRow row : chunk) {
+            if (takenIsbns.contains(row.getIsbn())) {
+                report.reject(row, "ISBN已存在");
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Long> categoryIds = resolveCategories(accepted);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<String> inserted = new ArrayList<>(accepted.size());
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_BOOK, new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            bind(ps, accepted.get(i), categoryIds, now);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return accepted.size();
+                        }
+                    }));
+            accepted.forEach(row -> inserted.add(row.getIsbn()));
+        } catch (DataIntegrityViolationException e) {
+            // 查重之后有并发写入抢占了 ISBN，整批已回滚，逐行重试以定位冲突的行
+            for (BookImportRow row : accepted) {
+                try {
+                    jdbcTemplate.update(INSERT_BOOK, ps -> bind(ps, row, categoryIds, now));
+                    inserted.add(row.getIsbn());
+                } catch (DataIntegrityViolationException rowError) {
+                    report.reject(row, "ISBN已存在");
+                }
+            }
+        }
+        if (!inserted.isEmpty()) {
+            bookSearchIndex.addAll(bookRepository.findByIsbnIn(inserted));
+        }
+        report.setImported(report.getImported() + inserted.size());
+        return inserted.size();
+    }
+
+    /**
+     * 提交此前各批写入的检索文档，使其可被检索。
+     */
+    public void commitIndex() {
+        bookSearchIndex.commit();
+    }
+
+    // 分类名称 -> ID，缺少的分类逐个创建（一个导入文件中的分类数很少）
+    private Map<String, Long> resolveCategories(List<BookImportRow> rows) {
+        Map<String, Long> ids = new HashMap<>();
+        for (BookImportRow row : rows) {
+            ids.computeIfAbsent(row.getCategory(), this::findOrCreateCategory);
+        }
+        return ids;
+    }
+
+    private Long findOrCreateCategory(String name) {
+        return categoryRepository.findByName(name).map(Category::getId).orElseGet(() -> {
+            Category category = new Category();
+            category.setName(name);
+            try {
+                Long id = categoryRepository.save(category).getId();
+                log.info("批量导入图书时创建分类: {}", name);
+                return id;
+            } catch (DataIntegrityViolationException e) {
+                // 并发导入已创建同名分类
+                return categoryRepository.findByName(name).orElseThrow(() -> e).getId();
+            }
+        });
+    }
+
+    private static void bind(PreparedStatement ps, BookImportRow row, Map<String, Long> categoryIds, Timestamp now)
+            throws SQLException {
+        int copies = Integer.parseInt(row.getTotalCopies());
+        ps.setString(1, row.getTitle());
+        ps.setString(2, row.getAuthor());
+        ps.setString(3, row.getIsbn());
+        ps.setLong(4, categoryIds.get(row.getCategory()));
+        ps.setString(5, row.getDescription());
+        ps.setInt(6, copies);
+        ps.setInt(7, copies);
+        ps.setString(8, (copies > 0 ? Book.BookStatus.AVAILABLE : Book.BookStatus.UNAVAILABLE).name());
+        ps.setTimestamp(9, now);
+        ps.setTimestamp(10, now);
+    }
+}
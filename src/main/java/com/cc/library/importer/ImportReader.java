@@ -0,0 +1,215 @@
+package com.cc.library.importer;
+
+import com.cc.library.exception.BusinessException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * 逐行读取批量导入的数据，不把整个文件读入内存。
+ * <p>
+ * CSV 首行为表头，列名与导入行的属性名对应（顺序不限、大小写不敏感，未知列忽略，第一个列名必须出现），
+ * 字段可用双引号包裹；JSON 可以是对象数组，也可以是逐行排列的对象（NDJSON）。
+ * 导入行的属性均为字符串，数值等由调用方校验时解析，格式不对只影响该行。
+ * 文件本身的格式错误以 {@link UncheckedIOException} 抛出。
+ */
+public abstract class ImportReader<T extends ImportRow> implements Iterator<T>, Closeable {
+
+    protected int row;
+
+    /**
+     * 按 Content-Type 选择格式：含 json 的按 JSON 读取，text/csv 和 text/plain 按 CSV 读取。
+     * @param columns CSV 中可识别的列（即导入行的属性名），第一个为必需列
+     */
+    public static <T extends ImportRow> ImportReader<T> open(InputStream in, String contentType, Class<T> type,
+                                                             List<String> columns, ObjectMapper objectMapper) {
+        String format = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (format.contains("json")) {
+            try {
+                return new JsonReader<>(objectMapper.readerFor(JsonNode.class).readValues(in), type, objectMapper);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        if (format.contains("csv") || format.startsWith("text/plain")) {
+            return new CsvReader<>(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)),
+                    type, columns, objectMapper);
+        }
+        throw new BusinessException("UNSUPPORTED_IMPORT_FORMAT", "仅支持 CSV 或 JSON 格式的导入文件");
+    }
+
+    private static final class CsvReader<T extends ImportRow> extends ImportReader<T> {
+        private final BufferedReader reader;
+        private final Class<T> type;
+        private final List<String> columns;
+        private final ObjectMapper objectMapper;
+        private Map<Integer, String> header;
+        private String nextLine;
+
+        private CsvReader(BufferedReader reader, Class<T> type, List<String> columns, ObjectMapper objectMapper) {
+            this.reader = reader;
+            this.type = type;
+            this.columns = columns;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                if (header == null) {
+                    String headerLine = reader.readLine();
+                    if (headerLine == null) {
+                        return false;
+                    }
+                    header = parseHeader(stripBom(headerLine));
+                }
+                while (nextLine == null) {
+                    String line = reader.readLine();
+                    if (line == null) {
+                        return false;
+                    }
+                    if (!line.isBlank()) {
+                        nextLine = line;
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<String> fields = splitLine(nextLine);
+            nextLine = null;
+            Map<String, String> values = new HashMap<>();
+            header.forEach((index, column) -> {
+                if (index < fields.size()) {
+                    String value = fields.get(index).trim();
+                    if (!value.isEmpty()) {
+                        values.put(column, value);
+                    }
+                }
+            });
+            // 属性都是字符串，转换不会失败
+            T result = objectMapper.convertValue(values, type);
+            result.setRow(++row);
+            return result;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+
+        // 列序号 -> 属性名
+        private Map<Integer, String> parseHeader(String line) throws IOException {
+            Map<Integer, String> header = new HashMap<>();
+            List<String> names = splitLine(line);
+            for (int i = 0; i < names.size(); i++) {
+                String name = names.get(i).trim();
+                for (String column : columns) {
+                    if (column.equalsIgnoreCase(name)) {
+                        header.put(i, column);
+                    }
+                }
+            }
+            if (!header.containsValue(columns.get(0))) {
+                throw new IOException("CSV 表头缺少 " + columns.get(0) + " 列");
+            }
+            return header;
+        }
+
+        private static String stripBom(String line) {
+            return line.startsWith("\uFEFF") ? line.substring(1) : line;
+        }
+
+        // 按逗号拆分一行，支持双引号包裹及 "" 转义；不支持字段内换行
+        private static List<String> splitLine(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            fields.add(current.toString());
+            return fields;
+        }
+    }
+
+    private static final class JsonReader<T extends ImportRow> extends ImportReader<T> {
+        private final MappingIterator<JsonNode> iterator;
+        private final Class<T> type;
+        private final ObjectMapper objectMapper;
+
+        private JsonReader(MappingIterator<JsonNode> iterator, Class<T> type, ObjectMapper objectMapper) {
+            this.iterator = iterator;
+            this.type = type;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return iterator.hasNextValue();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public T next() {
+            try {
+                // 数组中的 null 元素按所有字段为空的行处理，由调用方校验时拒绝该行，不中断后续导入
+                JsonNode node = iterator.nextValue();
+                T result = node.isNull()
+                        ? objectMapper.treeToValue(objectMapper.createObjectNode(), type)
+                        : objectMapper.treeToValue(node, type);
+                result.setRow(++row);
+                return result;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            iterator.close();
+        }
+    }
+}
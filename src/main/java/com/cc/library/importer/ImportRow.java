@@ -0,0 +1,11 @@
+package com.cc.library.importer;
+
+/**
+ * 批量导入的一行。行号是在导入文件中的序号（CSV 不含表头，从 1 开始），用于错误报告。
+ */
+public interface ImportRow {
+
+    int getRow();
+
+    void setRow(int row);
+}
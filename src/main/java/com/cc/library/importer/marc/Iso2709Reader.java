@@ -0,0 +1,177 @@
+package com.cc.library.importer.marc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * ISO 2709（MARC 交换格式）读取器。
+ * <p>
+ * 通道数据经固定大小的缓冲区读入，每次只解析缓冲区中的一条记录。头标区前 5 位是记录长度，
+ * 最多 99999 字节，所以缓冲区大小固定，与文件大小无关。
+ * 头标区第 9 位为 a 的记录按 UTF-8 解码，其余按 MARC-8 解码（ASCII 与 ANSEL 扩展拉丁字符，见 {@link Marc8}）；
+ * 切换到其他 MARC-8 字符集的记录报错跳过。
+ */
+class Iso2709Reader implements MarcReader {
+    private static final int MAX_RECORD_LENGTH = 99999;
+    private static final int LEADER_LENGTH = 24;
+    private static final int DIRECTORY_ENTRY_LENGTH = 12;
+    private static final byte FIELD_TERMINATOR = 0x1E;
+    private static final byte RECORD_TERMINATOR = 0x1D;
+    private static final byte SUBFIELD_DELIMITER = 0x1F;
+
+    private final ReadableByteChannel channel;
+    // 读模式：position 到 limit 之间为尚未解析的数据
+    private final ByteBuffer buffer = ByteBuffer.allocate(MAX_RECORD_LENGTH * 2);
+    private boolean eof;
+    private int record;
+    // 当前记录是否为 MARC-8 编码
+    private boolean marc8;
+
+    Iso2709Reader(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer.flip();
+    }
+
+    @Override
+    public boolean hasNext() {
+        // 有些导出工具在记录之间加换行
+        while (fill(1)) {
+            byte b = buffer.get(buffer.position());
+            if (b != '\n' && b != '\r' && b != RECORD_TERMINATOR) {
+                return true;
+            }
+            buffer.get();
+        }
+        return false;
+    }
+
+    @Override
+    public MarcRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        record++;
+        if (!fill(5)) {
+            throw truncated();
+        }
+        int length = digits(buffer, buffer.position(), 5);
+        if (length < LEADER_LENGTH + 1) {
+            // 长度不可读时无法定位下一条记录的起点
+            throw new UncheckedIOException(new IOException("第 " + record + " 条记录的长度不可读"));
+        }
+        if (!fill(length)) {
+            throw truncated();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return parse(bytes);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private UncheckedIOException truncated() {
+        return new UncheckedIOException(new IOException("文件在第 " + record + " 条记录中间结束"));
+    }
+
+    // 保证缓冲区中至少有 needed 字节未读，文件已读完仍不足时返回 false
+    private boolean fill(int needed) {
+        while (buffer.remaining() < needed && !eof) {
+            buffer.compact();
+            try {
+                eof = channel.read(buffer) < 0;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                buffer.flip();
+            }
+        }
+        return buffer.remaining() >= needed;
+    }
+
+    private MarcRecord parse(byte[] bytes) {
+        String leader = new String(bytes, 0, LEADER_LENGTH, StandardCharsets.US_ASCII);
+        marc8 = leader.charAt(9) != 'a';
+        int base = digits(ByteBuffer.wrap(bytes), 12, 5);
+        int directoryLength = base - 1 - LEADER_LENGTH;
+        if (base < 0 || base > bytes.length || directoryLength < 0 || directoryLength % DIRECTORY_ENTRY_LENGTH != 0
+                || bytes[base - 1] != FIELD_TERMINATOR) {
+            throw new MarcRecordException(record, "记录目录区损坏");
+        }
+
+        List<MarcRecord.Field> fields = new ArrayList<>(directoryLength / DIRECTORY_ENTRY_LENGTH);
+        ByteBuffer wrapped = ByteBuffer.wrap(bytes);
+        for (int entry = LEADER_LENGTH; entry < base - 1; entry += DIRECTORY_ENTRY_LENGTH) {
+            String tag = new String(bytes, entry, 3, StandardCharsets.US_ASCII);
+            int fieldLength = digits(wrapped, entry + 3, 4);
+            int start = digits(wrapped, entry + 7, 5);
+            if (fieldLength < 1 || start < 0 || base + start + fieldLength > bytes.length) {
+                throw new MarcRecordException(record, "字段 " + tag + " 超出记录范围");
+            }
+            int from = base + start;
+            int to = from + fieldLength;
+            if (bytes[to - 1] == FIELD_TERMINATOR) {
+                to--;
+            }
+            fields.add(tag.startsWith("00") ? MarcRecord.Field.control(tag, decode(bytes, from, to))
+                    : dataField(tag, bytes, from, to));
+        }
+        return new MarcRecord(leader, fields);
+    }
+
+    private MarcRecord.Field dataField(String tag, byte[] bytes, int from, int to) {
+        if (to - from < 2) {
+            throw new MarcRecordException(record, "字段 " + tag + " 缺少指示符");
+        }
+        char ind1 = (char) bytes[from];
+        char ind2 = (char) bytes[from + 1];
+        List<MarcRecord.Subfield> subfields = new ArrayList<>(2);
+        int i = from + 2;
+        while (i < to) {
+            if (bytes[i] != SUBFIELD_DELIMITER || i + 1 >= to) {
+                i++;
+                continue;
+            }
+            char code = (char) bytes[i + 1];
+            int end = i + 2;
+            while (end < to && bytes[end] != SUBFIELD_DELIMITER) {
+                end++;
+            }
+            subfields.add(new MarcRecord.Subfield(code, decode(bytes, i + 2, end)));
+            i = end;
+        }
+        return MarcRecord.Field.data(tag, ind1, ind2, subfields);
+    }
+
+    private String decode(byte[] bytes, int from, int to) {
+        if (!marc8) {
+            return new String(bytes, from, to - from, StandardCharsets.UTF_8);
+        }
+        try {
+            return Marc8.decode(bytes, from, to);
+        } catch (IllegalArgumentException e) {
+            throw new MarcRecordException(record, e.getMessage());
+        }
+    }
+
+    // 定长十进制数字，含非数字字符时返回 -1
+    private static int digits(ByteBuffer bytes, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            byte b = bytes.get(i);
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+}
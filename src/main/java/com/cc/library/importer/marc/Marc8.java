@@ -0,0 +1,64 @@
+package com.cc.library.importer.marc;
+
+import java.text.Normalizer;
+
+/**
+ * MARC-8 解码：G0 为 ASCII，G1 为 ANSEL 扩展拉丁字符集（MARC-8 的默认字符集），覆盖西文编目中的
+ * 变音字母、连字和常用符号。
+ * <p>
+ * MARC-8 的组合变音符写在基字符之前，Unicode 写在之后，解码时移到基字符后并做 NFC 规范化。
+ * 通过 ESC 切换到其他字符集（东亚 EACC、西里尔、希腊、阿拉伯、希伯来文等）的内容不支持，
+ * 以 {@link IllegalArgumentException} 报告，由调用方跳过该记录；这类记录需先转换为 UTF-8 再导入。
+ */
+final class Marc8 {
+    private static final int ESCAPE = 0x1B;
+
+    // ANSEL 0xA0-0xFF 到 Unicode，每行 16 个字节，\u0000 表示未定义
+    private static final String ANSEL =
+            "\u0000\u0141\u00D8\u0110\u00DE\u00C6\u0152\u02B9\u00B7\u266D\u00AE\u00B1\u01A0\u01AF\u02BC\u0000"
+            + "\u02BB\u0142\u00F8\u0111\u00FE\u00E6\u0153\u02BA\u0131\u00A3\u00F0\u0000\u01A1\u01B0\u0000\u0000"
+            + "\u00B0\u2113\u2117\u00A9\u266F\u00BF\u00A1\u00DF\u20AC\u0000\u0000\u0000\u0000\u0000\u0000\u0000"
+            + "\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000\u0000"
+            // 0xE0 起为组合变音符
+            + "\u0309\u0300\u0301\u0302\u0303\u0304\u0306\u0307\u0308\u030C\u030A\uFE20\uFE21\u0315\u030B\u0310"
+            + "\u0327\u0328\u0323\u0324\u0325\u0333\u0332\u0326\u031C\u032E\uFE22\uFE23\u0000\u0000\u0313\u0000";
+    private static final int COMBINING = 0xE0;
+
+    private Marc8() {
+    }
+
+    static String decode(byte[] bytes, int from, int to) {
+        StringBuilder text = new StringBuilder(to - from);
+        StringBuilder pending = new StringBuilder(2);
+        for (int i = from; i < to; i++) {
+            int b = bytes[i] & 0xFF;
+            if (b == ESCAPE) {
+                throw new IllegalArgumentException("不支持 MARC-8 的字符集切换（ESC 序列），请先转换为 UTF-8");
+            }
+            if (b < 0x80) {
+                text.append((char) b).append(pending);
+                pending.setLength(0);
+            } else if (b == 0x8D) {
+                text.append('\u200D');
+            } else if (b == 0x8E) {
+                text.append('\u200C');
+            } else if (b == 0x88 || b == 0x89) {
+                // 排序时忽略部分的起止标记，不影响显示
+                continue;
+            } else {
+                char c = b >= 0xA0 ? ANSEL.charAt(b - 0xA0) : 0;
+                if (c == 0) {
+                    throw new IllegalArgumentException("MARC-8 字节 0x" + Integer.toHexString(b).toUpperCase() + " 未定义");
+                }
+                if (b >= COMBINING) {
+                    pending.append(c);
+                } else {
+                    text.append(c).append(pending);
+                    pending.setLength(0);
+                }
+            }
+        }
+        text.append(pending);
+        return Normalizer.normalize(text, Normalizer.Form.NFC);
+    }
+}
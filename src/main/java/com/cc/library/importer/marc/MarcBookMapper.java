@@ -0,0 +1,99 @@
+package com.cc.library.importer.marc;
+
+import com.cc.library.dto.BookImportRow;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * MARC21 书目记录到导入行的映射：
+ * <ul>
+ *     <li>020 $a：ISBN，取第一个有效值，去掉连字符和限定说明（如 "(pbk.)"）</li>
+ *     <li>100 $a：作者，缺少时依次取 110/111/700/710 $a</li>
+ *     <li>245 $a $b：书名与副书名</li>
+ *     <li>520 $a：简介，超长截断</li>
+ *     <li>650 $a：第一个主题词作为分类，缺少时依次取 651/600/610/655 $a，都没有时用默认分类</li>
+ * </ul>
+ * 各字段末尾的 ISBD 标识符（" /"、" :"、"," 、"." 等）都会去掉。册数不从记录中读取，按 1 册导入。
+ */
+public class MarcBookMapper {
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[\\s/:;,=.]+$");
+    private static final Pattern ISBN = Pattern.compile("\\d{9}[\\dX]|\\d{13}");
+    private static final List<String> AUTHOR_TAGS = List.of("100", "110", "111", "700", "710");
+    private static final List<String> SUBJECT_TAGS = List.of("650", "651", "600", "610", "655");
+    private static final int MAX_DESCRIPTION = 1000;
+
+    private final String defaultCategory;
+
+    public MarcBookMapper(String defaultCategory) {
+        this.defaultCategory = defaultCategory;
+    }
+
+    public BookImportRow map(MarcRecord record) {
+        BookImportRow row = new BookImportRow();
+        row.setIsbn(isbn(record));
+        row.setTitle(title(record));
+        row.setAuthor(first(record, AUTHOR_TAGS));
+        row.setDescription(description(record));
+        String subject = first(record, SUBJECT_TAGS);
+        row.setCategory(subject != null ? subject : defaultCategory);
+        return row;
+    }
+
+    private static String isbn(MarcRecord record) {
+        for (MarcRecord.Field field : record.fields("020")) {
+            for (String value : field.values('a')) {
+                String candidate = value.trim().split("[\\s(]", 2)[0].replace("-", "").toUpperCase();
+                if (ISBN.matcher(candidate).matches()) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String title(MarcRecord record) {
+        String title = clean(record.value("245", 'a'));
+        if (title == null) {
+            return null;
+        }
+        String remainder = clean(record.value("245", 'b'));
+        return remainder == null ? title : title + ": " + remainder;
+    }
+
+    private static String description(MarcRecord record) {
+        StringBuilder description = new StringBuilder();
+        for (MarcRecord.Field field : record.fields("520")) {
+            for (String value : field.values('a')) {
+                if (!value.isBlank()) {
+                    if (!description.isEmpty()) {
+                        description.append(' ');
+                    }
+                    description.append(value.trim());
+                }
+            }
+        }
+        if (description.isEmpty()) {
+            return null;
+        }
+        return description.length() > MAX_DESCRIPTION ? description.substring(0, MAX_DESCRIPTION) : description.toString();
+    }
+
+    private static String first(MarcRecord record, List<String> tags) {
+        for (String tag : tags) {
+            String value = clean(record.value(tag, 'a'));
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static String clean(String value) {
+        if (value == null) {
+            return null;
+        }
+        String cleaned = TRAILING_PUNCTUATION.matcher(value.trim()).replaceAll("");
+        return cleaned.isEmpty() ? null : cleaned;
+    }
+}
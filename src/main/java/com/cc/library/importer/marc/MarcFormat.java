@@ -0,0 +1,17 @@
+package com.cc.library.importer.marc;
+
+import java.util.Locale;
+
+public enum MarcFormat {
+    // ISO 2709 交换格式（.mrc）
+    ISO2709,
+    // MARCXML（http://www.loc.gov/MARC21/slim）
+    MARCXML;
+
+    /**
+     * 按扩展名推断格式：.xml 为 MARCXML，其余按 ISO 2709 处理。
+     */
+    public static MarcFormat fromFileName(String fileName) {
+        return fileName.toLowerCase(Locale.ROOT).endsWith(".xml") ? MARCXML : ISO2709;
+    }
+}
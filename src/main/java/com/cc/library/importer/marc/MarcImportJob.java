@@ -0,0 +1,280 @@
+package com.cc.library.importer.marc;
+
+import com.cc.library.dto.BookImportReport;
+import com.cc.library.dto.BookImportRow;
+import com.cc.library.dto.MarcImportProgress;
+import com.cc.library.importer.BookBatchWriter;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 一次 MARC 文件导入，解析与写入流水线执行：
+ * <p>
+ * 解析线程（{@link #parse()}）从文件通道读取记录、映射并校验，每满一批放入有界队列；
+ * 写入线程（{@link #persist()}）从队列取出批次交给 {@link BookBatchWriter}。
+ * 队列满时解析线程阻塞等待，内存中最多有 queueCapacity + 2 批数据，与文件大小无关。
+ * <p>
+ * ISBN 在同一批内查重；不同批之间的重复由写入时的集合查询发现，报告为 "ISBN已存在"，
+ * 这样不需要在内存中保留整个文件的 ISBN。
+ */
+@Slf4j
+public class MarcImportJob {
+    // 解析结束标记
+    private static final List<BookImportRow> END = List.of();
+    private static final long LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    @Getter
+    private final String id;
+    private final Path file;
+    private final MarcFormat format;
+    private final long totalBytes;
+    private final MarcBookMapper mapper;
+    private final BookBatchWriter writer;
+    private final int batchSize;
+    private final int maxErrors;
+    private final BlockingQueue<List<BookImportRow>> queue;
+
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final long startedNanos = System.nanoTime();
+    private volatile boolean cancelled;
+    private volatile String parseError;
+
+    // 以下由解析线程和写入线程共同更新，读写都在 this 上同步
+    private final BookImportReport report = new BookImportReport();
+    private MarcImportProgress.State state = MarcImportProgress.State.RUNNING;
+    private LocalDateTime finishedAt;
+    private String message;
+
+    public MarcImportJob(String id, Path file, MarcFormat format, long totalBytes, MarcBookMapper mapper,
+                         BookBatchWriter writer, int batchSize, int queueCapacity, int maxErrors) {
+        this.id = id;
+        this.file = file;
+        this.format = format;
+        this.totalBytes = totalBytes;
+        this.mapper = mapper;
+        this.writer = writer;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * 解析线程：读取、映射、校验，按批放入队列。
+     */
+    public void parse() {
+        List<BookImportRow> chunk = new ArrayList<>(batchSize);
+        Set<String> chunkIsbns = new HashSet<>();
+        int row = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             MarcReader reader = MarcReader.open(new CountingChannel(channel, bytesRead), format)) {
+            while (!cancelled && reader.hasNext()) {
+                row++;
+                countRecord();
+                MarcRecord record;
+                try {
+                    record = reader.next();
+                } catch (MarcRecordException e) {
+                    BookImportRow broken = new BookImportRow();
+                    broken.setRow(row);
+                    reject(broken, e.getMessage());
+                    continue;
+                }
+                BookImportRow mapped = mapper.map(record);
+                mapped.setRow(row);
+                String error = writer.validate(mapped);
+                if (error == null && !chunkIsbns.add(mapped.getIsbn())) {
+                    error = "ISBN在导入文件中重复";
+                }
+                if (error != null) {
+                    String controlNumber = record.controlNumber();
+                    reject(mapped, controlNumber == null ? error : error + "（001: " + controlNumber.trim() + "）");
+                    continue;
+                }
+                chunk.add(mapped);
+                if (chunk.size() >= batchSize) {
+                    if (!put(chunk)) {
+                        return;
+                    }
+                    chunk = new ArrayList<>(batchSize);
+                    chunkIsbns.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                put(chunk);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // 之后的内容无法可靠解析，已放入队列的批次照常写入
+            parseError = "文件解析失败，后续内容未导入: " + e.getMessage();
+            log.warn("MARC 导入 {} 在第 {} 条记录处解析失败", id, row, e);
+        } catch (RuntimeException e) {
+            parseError = "解析线程异常: " + e.getMessage();
+            log.error("MARC 导入 {} 解析线程异常", id, e);
+        } finally {
+            put(END);
+        }
+    }
+
+    /**
+     * 写入线程：逐批写入直到收到结束标记，写入失败时通知解析线程停止。
+     */
+    public void persist() {
+        long lastLogNanos = System.nanoTime();
+        try {
+            while (true) {
+                List<BookImportRow> chunk = queue.poll(1, TimeUnit.SECONDS);
+                if (cancelled) {
+                    finish(MarcImportProgress.State.CANCELLED, "导入已取消");
+                    return;
+                }
+                if (chunk == null) {
+                    continue;
+                }
+                if (chunk == END) {
+                    break;
+                }
+                BookImportReport chunkReport = new BookImportReport();
+                writer.write(chunk, chunkReport);
+                merge(chunkReport);
+                if (System.nanoTime() - lastLogNanos > LOG_INTERVAL_NANOS) {
+                    lastLogNanos = System.nanoTime();
+                    // 长时间的导入按日志间隔提交一次索引，已导入的图书不必等到任务结束才能检索
+                    writer.commitIndex();
+                    MarcImportProgress progress = progress();
+                    log.info("MARC 导入 {}：已读取 {} / {} 字节，{} 条记录，成功 {}，失败 {}", id, progress.getBytesRead(),
+                            totalBytes, progress.getReport().getTotal(), progress.getReport().getImported(),
+                            progress.getReport().getFailed());
+                }
+            }
+            finish(parseError == null ? MarcImportProgress.State.COMPLETED : MarcImportProgress.State.FAILED, parseError);
+        } catch (InterruptedException e) {
+            cancelled = true;
+            Thread.currentThread().interrupt();
+            finish(MarcImportProgress.State.CANCELLED, "导入被中断");
+        } catch (RuntimeException e) {
+            cancelled = true;
+            log.error("MARC 导入 {} 写入失败", id, e);
+            finish(MarcImportProgress.State.FAILED, "写入失败: " + e.getMessage());
+        } finally {
+            // 取消或失败时已写入数据库的图书同样要能检索到
+            writer.commitIndex();
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public synchronized boolean isRunning() {
+        return state == MarcImportProgress.State.RUNNING;
+    }
+
+    public synchronized MarcImportProgress progress() {
+        MarcImportProgress progress = new MarcImportProgress();
+        progress.setId(id);
+        progress.setFile(file.getFileName().toString());
+        progress.setFormat(format.name());
+        progress.setState(state);
+        progress.setTotalBytes(totalBytes);
+        progress.setBytesRead(bytesRead.get());
+        progress.setStartedAt(startedAt);
+        progress.setFinishedAt(finishedAt);
+        progress.setMessage(message);
+        BookImportReport snapshot = new BookImportReport();
+        snapshot.setTotal(report.getTotal());
+        snapshot.setImported(report.getImported());
+        snapshot.setFailed(report.getFailed());
+        // 写入时发现的失败晚于后续行的校验失败记录，按行号排序便于对照原文件
+        List<BookImportReport.RowError> errors = new ArrayList<>(report.getErrors());
+        errors.sort(Comparator.comparingInt(BookImportReport.RowError::getRow));
+        snapshot.setErrors(errors);
+        progress.setReport(snapshot);
+        double seconds = Duration.between(startedAt, finishedAt != null ? finishedAt : LocalDateTime.now()).toNanos() / 1e9;
+        progress.setRecordsPerSecond(seconds > 0 ? (report.getImported() + report.getFailed()) / seconds : 0);
+        return progress;
+    }
+
+    // 队列满时阻塞；写入线程已退出（取消或失败）时放弃并返回 false
+    private boolean put(List<BookImportRow> chunk) {
+        try {
+            while (!queue.offer(chunk, 1, TimeUnit.SECONDS)) {
+                if (cancelled) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            cancelled = true;
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private synchronized void countRecord() {
+        report.setTotal(report.getTotal() + 1);
+    }
+
+    private synchronized void reject(BookImportRow row, String error) {
+        if (report.getErrors().size() < maxErrors) {
+            report.reject(row, error);
+        } else {
+            report.setFailed(report.getFailed() + 1);
+        }
+    }
+
+    private synchronized void merge(BookImportReport chunkReport) {
+        report.setImported(report.getImported() + chunkReport.getImported());
+        report.setFailed(report.getFailed() + chunkReport.getFailed());
+        int room = Math.max(0, maxErrors - report.getErrors().size());
+        report.getErrors().addAll(chunkReport.getErrors().subList(0, Math.min(room, chunkReport.getErrors().size())));
+    }
+
+    private synchronized void finish(MarcImportProgress.State finalState, String finalMessage) {
+        state = finalState;
+        message = finalMessage;
+        finishedAt = LocalDateTime.now();
+        log.info("MARC 导入 {} 结束（{}）：共 {} 条记录，成功 {}，失败 {}，耗时 {} ms", id, finalState, report.getTotal(),
+                report.getImported(), report.getFailed(), (System.nanoTime() - startedNanos) / 1_000_000);
+    }
+
+    // 统计已从文件读取的字节数，用于进度
+    private record CountingChannel(ReadableByteChannel delegate, AtomicLong count) implements ReadableByteChannel {
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            int n = delegate.read(dst);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return delegate.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.cc.library.importer.marc;
+
+import java.io.Closeable;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Iterator;
+
+/**
+ * 从通道中逐条读取 MARC 记录，内存中只保留当前记录。
+ * <p>
+ * 单条记录损坏时 {@link #next()} 抛出 {@link MarcRecordException}，之后可以继续读取；
+ * 文件整体无法继续解析（如记录长度不可读、XML 不完整）时抛出 {@link java.io.UncheckedIOException}。
+ */
+public interface MarcReader extends Iterator<MarcRecord>, Closeable {
+
+    static MarcReader open(ReadableByteChannel channel, MarcFormat format) {
+        return switch (format) {
+            case ISO2709 -> new Iso2709Reader(channel);
+            case MARCXML -> new MarcXmlReader(channel);
+        };
+    }
+}
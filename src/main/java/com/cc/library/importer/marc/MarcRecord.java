@@ -0,0 +1,81 @@
+package com.cc.library.importer.marc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一条 MARC21 书目记录：头标区与按出现顺序排列的字段。
+ * 控制字段（001-009）只有 data，数据字段有两个指示符和若干子字段。
+ */
+public record MarcRecord(String leader, List<Field> fields) {
+
+    public record Field(String tag, char ind1, char ind2, String data, List<Subfield> subfields) {
+
+        public static Field control(String tag, String data) {
+            return new Field(tag, ' ', ' ', data, List.of());
+        }
+
+        public static Field data(String tag, char ind1, char ind2, List<Subfield> subfields) {
+            return new Field(tag, ind1, ind2, null, subfields);
+        }
+
+        /**
+         * 依次返回指定代码的全部子字段值。
+         */
+        public List<String> values(char code) {
+            List<String> values = new ArrayList<>(1);
+            for (Subfield subfield : subfields) {
+                if (subfield.code() == code) {
+                    values.add(subfield.value());
+                }
+            }
+            return values;
+        }
+
+        public String value(char code) {
+            for (Subfield subfield : subfields) {
+                if (subfield.code() == code) {
+                    return subfield.value();
+                }
+            }
+            return null;
+        }
+    }
+
+    public record Subfield(char code, String value) {
+    }
+
+    public List<Field> fields(String tag) {
+        List<Field> matched = new ArrayList<>(1);
+        for (Field field : fields) {
+            if (field.tag().equals(tag)) {
+                matched.add(field);
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * 指定字段中第一个非空的子字段值。
+     */
+    public String value(String tag, char code) {
+        for (Field field : fields) {
+            if (field.tag().equals(tag)) {
+                String value = field.value(code);
+                if (value != null && !value.isBlank()) {
+                    return value;
+                }
+            }
+        }
+        return null;
+    }
+
+    public String controlNumber() {
+        for (Field field : fields) {
+            if (field.tag().equals("001")) {
+                return field.data();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.cc.library.importer.marc;
+
+import lombok.Getter;
+
+/**
+ * 单条记录结构损坏。读取位置已越过该记录，可以继续读取下一条。
+ */
+@Getter
+public class MarcRecordException extends RuntimeException {
+    // 记录在文件中的序号，从 1 开始
+    private final int record;
+
+    public MarcRecordException(int record, String message) {
+        super(message);
+        this.record = record;
+    }
+}
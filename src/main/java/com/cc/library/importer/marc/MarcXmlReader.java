@@ -0,0 +1,150 @@
+package com.cc.library.importer.marc;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * MARCXML 读取器：StAX 逐个事件读取，不构建整个文档。
+ * 元素按本地名匹配，带或不带 MARC21/slim 命名空间都可以读取；禁用 DTD 和外部实体。
+ */
+class MarcXmlReader implements MarcReader {
+    private static final XMLInputFactory FACTORY = XMLInputFactory.newFactory();
+
+    static {
+        FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        FACTORY.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    private final ReadableByteChannel channel;
+    private final XMLStreamReader xml;
+    private boolean atRecord;
+    private int record;
+
+    MarcXmlReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        try {
+            this.xml = FACTORY.createXMLStreamReader(Channels.newInputStream(channel));
+        } catch (XMLStreamException e) {
+            throw new UncheckedIOException(new IOException(e.getMessage(), e));
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (!atRecord && xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT && "record".equals(xml.getLocalName())) {
+                    atRecord = true;
+                }
+            }
+            return atRecord;
+        } catch (XMLStreamException e) {
+            throw new UncheckedIOException(new IOException(e.getMessage(), e));
+        }
+    }
+
+    @Override
+    public MarcRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        atRecord = false;
+        record++;
+        try {
+            return readRecord();
+        } catch (XMLStreamException e) {
+            throw new UncheckedIOException(new IOException(e.getMessage(), e));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            channel.close();
+        }
+    }
+
+    // 读到 </record> 为止；结构错误先记下，读完整条记录后再抛出，以便继续读取下一条
+    private MarcRecord readRecord() throws XMLStreamException {
+        String leader = null;
+        String error = null;
+        List<MarcRecord.Field> fields = new ArrayList<>();
+        String tag = null;
+        char ind1 = ' ';
+        char ind2 = ' ';
+        List<MarcRecord.Subfield> subfields = null;
+
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                String name = xml.getLocalName();
+                if ("record".equals(name)) {
+                    break;
+                }
+                if ("datafield".equals(name) && subfields != null) {
+                    fields.add(MarcRecord.Field.data(tag, ind1, ind2, subfields));
+                    subfields = null;
+                }
+                continue;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            switch (xml.getLocalName()) {
+                case "leader" -> leader = xml.getElementText();
+                case "controlfield" -> {
+                    String controlTag = xml.getAttributeValue(null, "tag");
+                    String data = xml.getElementText();
+                    if (controlTag == null) {
+                        error = "controlfield 缺少 tag 属性";
+                    } else {
+                        fields.add(MarcRecord.Field.control(controlTag, data));
+                    }
+                }
+                case "datafield" -> {
+                    tag = xml.getAttributeValue(null, "tag");
+                    ind1 = indicator(xml.getAttributeValue(null, "ind1"));
+                    ind2 = indicator(xml.getAttributeValue(null, "ind2"));
+                    if (tag == null) {
+                        error = "datafield 缺少 tag 属性";
+                    } else {
+                        subfields = new ArrayList<>(2);
+                    }
+                }
+                case "subfield" -> {
+                    String code = xml.getAttributeValue(null, "code");
+                    String value = xml.getElementText();
+                    if (code == null || code.isEmpty()) {
+                        error = "subfield 缺少 code 属性";
+                    } else if (subfields != null) {
+                        subfields.add(new MarcRecord.Subfield(code.charAt(0), value));
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        if (error != null) {
+            throw new MarcRecordException(record, error);
+        }
+        return new MarcRecord(leader == null ? "" : leader, fields);
+    }
+
+    private static char indicator(String value) {
+        return value == null || value.isEmpty() ? ' ' : value.charAt(0);
+    }
+}
@@ -8,7 +8,11 @@ import com.cc.library.entity.User;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+        @Index(name = "idx_reservations_reservation_date_id", columnList = "reservation_date, id"),
+        @Index(name = "idx_reservations_status_expiration_date", columnList = "status, expiration_date"),
+        @Index(name = "idx_reservations_book_status_reservation_date", columnList = "book_id, status, reservation_date")
+})
 public class Reservation {
 
     @Id
@@ -36,10 +40,16 @@ public class Reservation {
     @Column
     private LocalDateTime expirationDate; // When the reservation expires if not claimed
 
+    @Column
+    private LocalDateTime offeredAt; // When a released copy was set aside for this reservation; the expiration date then becomes the pickup deadline
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private ReservationStatus status = ReservationStatus.PENDING; // Default status
 
+    @Transient
+    private Integer queuePosition; // 1-based place in the book's pending queue; only set for pending reservations
+
     @PrePersist
     protected void onCreate() {
         reservationDate = LocalDateTime.now();
@@ -97,6 +107,14 @@ public class Reservation {
         this.expirationDate = expirationDate;
     }
 
+    public LocalDateTime getOfferedAt() {
+        return offeredAt;
+    }
+
+    public void setOfferedAt(LocalDateTime offeredAt) {
+        this.offeredAt = offeredAt;
+    }
+
     public ReservationStatus getStatus() {
         return status;
     }
@@ -104,4 +122,12 @@ public class Reservation {
     public void setStatus(ReservationStatus status) {
         this.status = status;
     }
+
+    public Integer getQueuePosition() {
+        return queuePosition;
+    }
+
+    public void setQueuePosition(Integer queuePosition) {
+        this.queuePosition = queuePosition;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.cc.library.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * 记录当前线程正在处理的控制器方法，供慢 SQL 记录标注语句来源。
+ * <p>
+ * 处理器开始异步处理（如流式导出）时，原线程不会回调 afterCompletion，需在
+ * {@link #afterConcurrentHandlingStarted} 中清除，避免来源残留到该线程处理的下一个请求；
+ * 异步线程中的语句通过 {@link #capture()} / {@link #enter(String)} 沿用发起请求的来源。
+ */
+public class RequestOrigin implements AsyncHandlerInterceptor {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 当前线程处理的控制器方法（如 {@code BookController#searchBooks}），不在请求中时为线程名。
+     */
+    public static String current() {
+        String origin = CURRENT.get();
+        return origin != null ? origin : Thread.currentThread().getName();
+    }
+
+    /**
+     * 当前线程所处请求的来源，不在请求中时为 null；在交给异步线程的任务创建前调用。
+     */
+    public static String capture() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 在异步线程中沿用请求的来源，关闭返回的 Scope 时恢复线程原来的值。
+     */
+    public static Scope enter(String origin) {
+        String previous = CURRENT.get();
+        set(origin);
+        return () -> set(previous);
+    }
+
+    private static void set(String origin) {
+        if (origin == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(origin);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            CURRENT.set(method.getBeanType().getSimpleName() + "#" + method.getMethod().getName());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        CURRENT.remove();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        CURRENT.remove();
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,93 @@
+package com.cc.library.monitoring;
+
+import java.util.Locale;
+
+/**
+ * 单个请求的分阶段耗时：JWT 认证、数据库语句、JSON 序列化，以 Server-Timing 头返回给浏览器。
+ * <p>
+ * 由 {@link ServerTimingFilter} 在请求开始时绑定到当前线程，各阶段在各自的位置累加耗时；
+ * 不在请求线程中（如定时任务）时 {@link #current()} 为 null，记录调用直接忽略。
+ */
+public final class RequestTiming {
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private long authNanos;
+    private long dbNanos;
+    private int dbStatements;
+    private long dbStartedAt;
+    private long serializationNanos;
+
+    private RequestTiming() {
+    }
+
+    static RequestTiming start() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 累加从 startNanos 到现在的认证耗时。
+     */
+    public static void recordAuth(long startNanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.authNanos += System.nanoTime() - startNanos;
+        }
+    }
+
+    void statementStarted() {
+        dbStartedAt = System.nanoTime();
+    }
+
+    void statementFinished(int statements) {
+        dbNanos += System.nanoTime() - dbStartedAt;
+        dbStatements += statements;
+    }
+
+    void addSerialization(long nanos) {
+        serializationNanos += nanos;
+    }
+
+    long totalNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    long authNanos() {
+        return authNanos;
+    }
+
+    long dbNanos() {
+        return dbNanos;
+    }
+
+    int dbStatements() {
+        return dbStatements;
+    }
+
+    long serializationNanos() {
+        return serializationNanos;
+    }
+
+    /**
+     * Server-Timing 头的值，单位毫秒，total 为到目前为止的请求总耗时。
+     */
+    public String header() {
+        return String.format(Locale.ROOT, "auth;dur=%.2f, db;dur=%.2f;desc=\"%d queries\", ser;dur=%.2f, total;dur=%.2f",
+                millis(authNanos), millis(dbNanos), dbStatements, millis(serializationNanos), millis(totalNanos()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,29 @@
+package com.cc.library.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * 把当前请求执行 SQL 的耗时和语句数计入 {@link RequestTiming}。
+ */
+public class RequestTimingListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            timing.statementStarted();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            timing.statementFinished(queryInfoList.size());
+        }
+    }
+}
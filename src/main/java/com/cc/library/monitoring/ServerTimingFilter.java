@@ -0,0 +1,56 @@
+package com.cc.library.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * 为每个请求建立 {@link RequestTiming}，并在响应上附加 Server-Timing 头。
+ * <p>
+ * 有 JSON 响应体时由 {@link TimedJacksonHttpMessageConverter} 在输出前写入头（含序列化耗时）；
+ * 其余响应（如 204、重定向）在过滤器链返回后、响应尚未提交时补上。
+ * 开启访问日志时每个请求再输出一行分阶段耗时，由 logback 异步追加器写出。
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private static final Logger accessLog = LoggerFactory.getLogger("com.cc.library.access");
+
+    private final boolean accessLogEnabled;
+
+    public ServerTimingFilter(boolean accessLogEnabled) {
+        this.accessLogEnabled = accessLogEnabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTiming timing = RequestTiming.start();
+        try {
+            filterChain.doFilter(request, response);
+            if (!response.isCommitted() && !response.containsHeader(SERVER_TIMING)) {
+                response.setHeader(SERVER_TIMING, timing.header());
+            }
+        } finally {
+            RequestTiming.end();
+            if (accessLogEnabled) {
+                accessLog.info("method={} uri={} status={} total_ms={} auth_ms={} db_ms={} db_statements={} ser_ms={}",
+                        request.getMethod(), request.getRequestURI(), response.getStatus(),
+                        millis(timing.totalNanos()), millis(timing.authNanos()), millis(timing.dbNanos()),
+                        timing.dbStatements(), millis(timing.serializationNanos()));
+            }
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,17 @@
+package com.cc.library.monitoring;
+
+import java.time.LocalDateTime;
+
+/**
+ * 一条超过阈值的 SQL 执行记录。
+ * @param executedAt 执行结束时间
+ * @param durationMs 耗时（毫秒）
+ * @param sql 语句文本，批量执行时为批内各条语句，超长截断
+ * @param parameterCount 每条语句绑定的参数个数
+ * @param batchSize 批量执行的参数组数，非批量为 1
+ * @param origin 发起语句的控制器方法，后台任务为线程名
+ * @param success 是否执行成功
+ */
+public record SlowQuery(LocalDateTime executedAt, long durationMs, String sql, int parameterCount, int batchSize,
+                        String origin, boolean success) {
+}
@@ -0,0 +1,48 @@
+package com.cc.library.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 数据源代理的执行监听器：耗时未达阈值的语句只做一次比较即返回，超过阈值的写入 {@link SlowQueryLog}。
+ */
+@Component
+public class SlowQueryListener implements QueryExecutionListener {
+
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    private final SlowQueryLog slowQueryLog;
+    private final long thresholdMs;
+
+    public SlowQueryListener(SlowQueryLog slowQueryLog, @Value("${app.slow-query.threshold-ms:200}") long thresholdMs) {
+        this.slowQueryLog = slowQueryLog;
+        this.thresholdMs = thresholdMs;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMs) {
+            return;
+        }
+        String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+        if (sql.length() > MAX_SQL_LENGTH) {
+            sql = sql.substring(0, MAX_SQL_LENGTH) + "...";
+        }
+        int parameterCount = queryInfoList.isEmpty() || queryInfoList.get(0).getParametersList().isEmpty()
+                ? 0 : queryInfoList.get(0).getParametersList().get(0).size();
+        int batchSize = execInfo.isBatch() ? execInfo.getBatchSize() : 1;
+        slowQueryLog.record(new SlowQuery(LocalDateTime.now(), execInfo.getElapsedTime(), sql, parameterCount,
+                batchSize, RequestOrigin.current(), execInfo.isSuccess()));
+    }
+}
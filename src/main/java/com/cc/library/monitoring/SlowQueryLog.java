@@ -0,0 +1,62 @@
+package com.cc.library.monitoring;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 最近的慢 SQL，保存在定长环形缓冲中，写满后覆盖最旧的记录。
+ * <p>
+ * 写入只做一次序号自增和一次数组写，不加锁；读取得到的是近似快照，并发写入时可能恰好缺少正在覆盖的条目。
+ */
+@Component
+public class SlowQueryLog {
+
+    private final AtomicReferenceArray<SlowQuery> slots;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public SlowQueryLog(@Value("${app.slow-query.capacity:200}") int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("app.slow-query.capacity 必须大于 0，当前为 " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void record(SlowQuery query) {
+        long position = sequence.getAndIncrement();
+        slots.set((int) (position % slots.length()), query);
+    }
+
+    /**
+     * 按时间倒序返回缓冲中的记录。
+     */
+    public List<SlowQuery> recent() {
+        long end = sequence.get();
+        long start = Math.max(0, end - slots.length());
+        List<SlowQuery> result = new ArrayList<>((int) (end - start));
+        for (long position = end - 1; position >= start; position--) {
+            SlowQuery query = slots.get((int) (position % slots.length()));
+            if (query != null) {
+                result.add(query);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 累计记录过的慢 SQL 条数（含已被覆盖的）。
+     */
+    public long total() {
+        return sequence.get();
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.cc.library.outbox;
+
+import com.cc.library.common.JobReport;
+import com.cc.library.entity.OutboxEvent;
+import com.cc.library.repository.OutboxEventRepository;
+import com.cc.library.service.ReservationService;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 发件箱投递：定时按批读取未处理事件，逐条在独立事务中处理并标记完成。
+ * <p>
+ * 标记完成与业务处理在同一事务中提交；失败时回滚并累计重试次数，下一轮再投递（至少一次）。
+ * 标记使用 {@code processed_at IS NULL} 条件更新，多个实例同时投递同一事件时只有一个会生效。
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ReservationService reservationService;
+    private final TransactionTemplate eventTransaction;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            ReservationService reservationService,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.outbox.batch-size:100}") int batchSize,
+                            @Value("${app.outbox.max-attempts:5}") int maxAttempts) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.reservationService = reservationService;
+        this.eventTransaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.dispatch-interval-ms:1000}",
+            initialDelayString = "${app.outbox.dispatch-interval-ms:1000}")
+    @Timed(value = "library.outbox.dispatch", description = "发件箱投递定时任务")
+    public void dispatchScheduled() {
+        JobReport report = dispatchPending();
+        if (report.rowsProcessed() > 0) {
+            log.info("发件箱投递 {} 条事件，{} 批，耗时 {} ms", report.rowsProcessed(), report.chunks(), report.durationMs());
+        }
+    }
+
+    /**
+     * 投递所有待处理事件；某批出现失败时本轮结束，失败事件留待下一轮重试。
+     */
+    public JobReport dispatchPending() {
+        long start = System.currentTimeMillis();
+        long processed = 0;
+        int batches = 0;
+        while (true) {
+            List<OutboxEvent> batch = outboxEventRepository.findUnprocessed(maxAttempts, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            batches++;
+            boolean failed = false;
+            for (OutboxEvent event : batch) {
+                if (dispatch(event)) {
+                    processed++;
+                } else {
+                    failed = true;
+                }
+            }
+            if (failed || batch.size() < batchSize) {
+                break;
+            }
+        }
+        return new JobReport("outbox-dispatch", processed, batches, System.currentTimeMillis() - start);
+    }
+
+    private boolean dispatch(OutboxEvent event) {
+        try {
+            eventTransaction.executeWithoutResult(status -> {
+                if (outboxEventRepository.markProcessed(event.getId(), LocalDateTime.now()) == 0) {
+                    // 已被其他实例处理
+                    return;
+                }
+                handle(event);
+            });
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("发件箱事件 {} 处理失败（第 {} 次）", event.getId(), event.getAttempts() + 1, e);
+            String error = String.valueOf(e.getMessage());
+            eventTransaction.executeWithoutResult(status ->
+                    outboxEventRepository.recordFailure(event.getId(), error.length() > 500 ? error.substring(0, 500) : error));
+            return false;
+        }
+    }
+
+    private void handle(OutboxEvent event) {
+        switch (event.getEventType()) {
+            case OutboxEvent.COPY_RELEASED -> reservationService.offerReleasedCopy(event.getAggregateId());
+            default -> log.warn("未知的发件箱事件类型 {}，已跳过", event.getEventType());
+        }
+    }
+}
@@ -1,25 +1,98 @@
 package com.cc.library.repository;
 
+import com.cc.library.common.EntityStreams;
+import com.cc.library.dto.BookCard;
 import com.cc.library.entity.Book;
 import com.cc.library.entity.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
-    Page<Book> findByCategory(Category category, Pageable pageable);
-    
-    @Query("SELECT b FROM Book b WHERE b.title LIKE %:keyword% OR b.author LIKE %:keyword% OR b.isbn LIKE %:keyword%")
-    Page<Book> searchBooks(String keyword, Pageable pageable);
-    
+public interface BookRepository extends JpaRepository<Book, Long>, BookStockRepository {
+    // 分页列表只查询 BookCard 需要的列，分类名称随同一条 SQL join 取出
+    String BOOK_CARD = "SELECT new com.cc.library.dto.BookCard(b.id, b.title, b.author, b.isbn, c.id, c.name, "
+            + "b.status, b.availableCopies, b.totalCopies) FROM Book b JOIN b.category c";
+
+    // 其余实体查询统一通过实体图 join 加载分类，避免逐行补查 categories
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Page<Book> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<Book> findAllById(Iterable<Long> ids);
+
+    @Query(value = BOOK_CARD, countQuery = "SELECT COUNT(b) FROM Book b")
+    Page<BookCard> findAllCards(Pageable pageable);
+
+    @Query(value = BOOK_CARD + " WHERE b.category = :category",
+            countQuery = "SELECT COUNT(b) FROM Book b WHERE b.category = :category")
+    Page<BookCard> findCardsByCategory(Category category, Pageable pageable);
+
+    @Query(value = BOOK_CARD + " WHERE b.title LIKE %:keyword% OR b.author LIKE %:keyword% OR b.isbn LIKE %:keyword%",
+            countQuery = "SELECT COUNT(b) FROM Book b WHERE b.title LIKE %:keyword% OR b.author LIKE %:keyword% OR b.isbn LIKE %:keyword%")
+    Page<BookCard> searchCards(String keyword, Pageable pageable);
+
+    // 检索索引命中的 ID 批量取回，顺序由调用方按相关度恢复
+    @Query(BOOK_CARD + " WHERE b.id IN :ids")
+    List<BookCard> findCardsByIdIn(Collection<Long> ids);
+
     boolean existsByIsbn(String isbn);
-    
+
+    // 批量导入时按批查重，一条语句返回已存在的 ISBN
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    Set<String> findExistingIsbns(Collection<String> isbns);
+
+    @EntityGraph(attributePaths = "category")
+    List<Book> findByIsbnIn(Collection<String> isbns);
+
+    @EntityGraph(attributePaths = "category")
     List<Book> findByStatus(Book.BookStatus status);
 
+    @EntityGraph(attributePaths = "category")
     Page<Book> findByTitleContainingOrAuthorContaining(String title, String author, Pageable pageable);
-} 
\ No newline at end of file
+
+    // 游标分页：沿 (title, id) 索引顺序定位，不做 count
+    @Query(BOOK_CARD + " ORDER BY b.title ASC, b.id ASC")
+    List<BookCard> findFirstCardsOrderByTitle(Pageable limit);
+
+    @Query(BOOK_CARD + " WHERE b.title > :title OR (b.title = :title AND b.id > :id) ORDER BY b.title ASC, b.id ASC")
+    List<BookCard> findCardsAfterTitle(String title, Long id, Pageable limit);
+
+    // 按主键顺序分批读取（不做 count），用于检索索引全量重建
+    @EntityGraph(attributePaths = "category")
+    Slice<Book> findByIdGreaterThan(Long id, Pageable pageable);
+
+    // 流式导出：按主键顺序逐批读取，查询提示见 EntityStreams
+    @EntityGraph(attributePaths = "category")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT b FROM Book b WHERE b.status = :status ORDER BY b.id ASC")
+    Stream<Book> streamByStatus(Book.BookStatus status);
+
+    @EntityGraph(attributePaths = "category")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT b FROM Book b ORDER BY b.id ASC")
+    Stream<Book> streamAll();
+}
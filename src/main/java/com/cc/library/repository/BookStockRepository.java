@@ -0,0 +1,23 @@
+package com.cc.library.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 库存条件更新。实现为原生 SQL，提交后只从二级缓存中清掉被修改的那一本书，
+ * 而不是像 JPQL 批量更新那样清空整个图书缓存区域。
+ */
+public interface BookStockRepository {
+
+    /**
+     * 原子地借出一本：库存大于 0 时减一，整个判断与扣减在一条 UPDATE 内完成，
+     * 并发审批同一本书时不会丢失更新，也不需要在事务内先读后写持有行锁。
+     * @return 受影响行数，0 表示已无可借副本（或图书不存在）
+     */
+    int decrementAvailableCopies(Long id, LocalDateTime now);
+
+    /**
+     * 原子地归还一本：可借数量小于总数时加一。
+     * @return 受影响行数，0 表示可借数量已等于总数（或图书不存在）
+     */
+    int incrementAvailableCopies(Long id, LocalDateTime now);
+}
@@ -0,0 +1,72 @@
+package com.cc.library.repository;
+
+import com.cc.library.entity.Book;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+class BookStockRepositoryImpl implements BookStockRepository {
+
+    // 原生更新声明的查询空间：不对应任何实体表，Hibernate 因此不会整区清空图书缓存（声明 Book 实体或
+    // 不声明任何空间都会清空整个区域），被修改的那一行由 lock 单独失效
+    private static final String STOCK_QUERY_SPACE = "book_stock";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public int decrementAvailableCopies(Long id, LocalDateTime now) {
+        return updateStock("UPDATE books SET available_copies = available_copies - 1, updated_at = :now "
+                + "WHERE id = :id AND available_copies > 0", id, now);
+    }
+
+    @Override
+    public int incrementAvailableCopies(Long id, LocalDateTime now) {
+        return updateStock("UPDATE books SET available_copies = available_copies + 1, updated_at = :now "
+                + "WHERE id = :id AND available_copies < total_copies", id, now);
+    }
+
+    private int updateStock(String sql, Long id, LocalDateTime now) {
+        int updated = entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(STOCK_QUERY_SPACE)
+                .setParameter("id", id)
+                .setParameter("now", now)
+                .executeUpdate();
+        if (updated > 0) {
+            lock(id);
+        }
+        return updated;
+    }
+
+    // 与 Hibernate 更新实体时一样给这一行加软锁，事务结束后解锁。单纯 evict 挡不住并发事务在提交前
+    // 读到旧库存、提交后才放进缓存；加锁期间和解锁前开始的事务都不能再把读到的值写入缓存
+    private void lock(Long id) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Book.class);
+        EntityDataAccess access = persister.getCacheAccessStrategy();
+        if (access == null) {
+            return;
+        }
+        Object key = access.generateCacheKey(id, persister, session.getFactory(), session.getTenantIdentifier());
+        SoftLock lock = access.lockItem(session, key, null);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            access.unlockItem(session, key, lock);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                access.unlockItem(session, key, lock);
+            }
+        });
+    }
+}
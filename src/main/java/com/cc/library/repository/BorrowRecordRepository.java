@@ -1,23 +1,100 @@
 package com.cc.library.repository;
 
+import com.cc.library.common.EntityStreams;
+import com.cc.library.dto.LoanRow;
 import com.cc.library.entity.BorrowRecord;
 import com.cc.library.entity.User;
 import com.cc.library.entity.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BorrowRecordRepository extends JpaRepository<BorrowRecord, Long> {
-    Page<BorrowRecord> findByUser(User user, Pageable pageable);
-    
+    // 分页列表只查询 LoanRow 需要的列：图书和借阅人只取标识与名称，不 join 分类
+    String LOAN_ROW = "SELECT new com.cc.library.dto.LoanRow(r.id, b.id, b.title, b.isbn, u.id, u.username, u.name, "
+            + "r.borrowDate, r.dueDate, r.returnDate, r.status, r.remarks) FROM BorrowRecord r JOIN r.book b JOIN r.user u";
+
+    // 其余实体查询统一 join 加载图书（含分类）和借阅人，一次一条 SQL
+
+    @Override
+    @EntityGraph(attributePaths = {"book", "book.category", "user"})
+    Page<BorrowRecord> findAll(Pageable pageable);
+
+    @Query(value = LOAN_ROW, countQuery = "SELECT COUNT(r) FROM BorrowRecord r")
+    Page<LoanRow> findAllRows(Pageable pageable);
+
+    @Query(value = LOAN_ROW + " WHERE r.user = :user", countQuery = "SELECT COUNT(r) FROM BorrowRecord r WHERE r.user = :user")
+    Page<LoanRow> findRowsByUser(User user, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"book", "book.category", "user"})
     List<BorrowRecord> findByStatusAndDueDateBefore(BorrowRecord.BorrowStatus status, LocalDateTime date);
     
+    @EntityGraph(attributePaths = {"book", "book.category", "user"})
     List<BorrowRecord> findByStatus(BorrowRecord.BorrowStatus status);
+
+    @Query(value = LOAN_ROW + " WHERE r.status = :status ORDER BY r.dueDate ASC",
+            countQuery = "SELECT COUNT(r) FROM BorrowRecord r WHERE r.status = :status")
+    Page<LoanRow> findRowsByStatusOrderByDueDate(BorrowRecord.BorrowStatus status, Pageable pageable);
+
+    // 逾期扫描：沿 (status, due_date) 索引取 [from, to) 区间内到期的借阅，只取 ID 和到期时间
+    @Query("SELECT r.id AS id, r.dueDate AS dueDate FROM BorrowRecord r WHERE r.status = :status AND r.dueDate >= :from AND r.dueDate < :to ORDER BY r.dueDate ASC, r.id ASC")
+    List<DueLoan> findDueLoans(BorrowRecord.BorrowStatus status, LocalDateTime from, LocalDateTime to, Pageable limit);
+
+    // 批量变更状态；带上原状态条件，期间已被归还的记录不会被改写
+    @Modifying
+    @Query("UPDATE BorrowRecord r SET r.status = :to, r.updatedAt = :now WHERE r.id IN :ids AND r.status = :from")
+    int updateStatusByIdIn(List<Long> ids, BorrowRecord.BorrowStatus from, BorrowRecord.BorrowStatus to, LocalDateTime now);
     
+    // 单条状态迁移：仍处于 from 状态时才更新，返回 0 表示已被并发的审批/拒绝/归还抢先
+    @Modifying
+    @Query("UPDATE BorrowRecord r SET r.status = :to, r.updatedAt = :now WHERE r.id = :id AND r.status = :from")
+    int updateStatus(Long id, BorrowRecord.BorrowStatus from, BorrowRecord.BorrowStatus to, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE BorrowRecord r SET r.status = :returned, r.returnDate = :now, r.updatedAt = :now WHERE r.id = :id AND r.status IN :from")
+    int markReturned(Long id, List<BorrowRecord.BorrowStatus> from, BorrowRecord.BorrowStatus returned, LocalDateTime now);
+
     boolean existsByUserAndBookAndStatusIn(User user, Book book, List<BorrowRecord.BorrowStatus> statuses);
+
+    // 游标分页：沿 (borrow_date, id) 索引倒序定位，不做 count
+    @Query(LOAN_ROW + " ORDER BY r.borrowDate DESC, r.id DESC")
+    List<LoanRow> findFirstRowsOrderByBorrowDate(Pageable limit);
+
+    @Query(LOAN_ROW + " WHERE r.borrowDate < :borrowDate OR (r.borrowDate = :borrowDate AND r.id < :id) ORDER BY r.borrowDate DESC, r.id DESC")
+    List<LoanRow> findRowsBeforeBorrowDate(LocalDateTime borrowDate, Long id, Pageable limit);
+
+    // 流式导出，查询提示见 EntityStreams；与列表一样输出 LoanRow，不带出借阅人的密码哈希。
+    // 按到期时间的查询沿 (status, due_date) 索引读取
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query(LOAN_ROW + " WHERE r.status = :status ORDER BY r.id ASC")
+    Stream<LoanRow> streamRowsByStatus(BorrowRecord.BorrowStatus status);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query(LOAN_ROW + " WHERE r.status = :status ORDER BY r.dueDate ASC, r.id ASC")
+    Stream<LoanRow> streamRowsByStatusOrderByDueDate(BorrowRecord.BorrowStatus status);
+
+    interface DueLoan {
+        Long getId();
+        LocalDateTime getDueDate();
+    }
 } 
\ No newline at end of file
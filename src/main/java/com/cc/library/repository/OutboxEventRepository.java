@@ -0,0 +1,27 @@
+package com.cc.library.repository;
+
+import com.cc.library.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // 未处理且未超过重试次数的事件，按写入顺序（走 processed_at, id 索引）
+    @Query("SELECT e FROM OutboxEvent e WHERE e.processedAt IS NULL AND e.attempts < :maxAttempts ORDER BY e.id ASC")
+    List<OutboxEvent> findUnprocessed(int maxAttempts, Pageable limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.processedAt = :now WHERE e.id = :id AND e.processedAt IS NULL")
+    int markProcessed(Long id, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error WHERE e.id = :id")
+    int recordFailure(Long id, String error);
+}
@@ -3,9 +3,13 @@ package com.cc.library.repository;
 import com.cc.library.model.Reservation;
 import com.cc.library.model.ReservationStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
@@ -24,4 +28,48 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
 
     // Count pending reservations for a specific book
     long countByBookIdAndStatus(Long bookId, ReservationStatus status);
+
+    // Queue order of the given books' reservations still waiting for a copy, in one query (uses the book/status/reservation_date index)
+    @Query("SELECT r.book.id AS bookId, r.id AS id FROM Reservation r WHERE r.book.id IN :bookIds AND r.status = :status AND r.offeredAt IS NULL ORDER BY r.book.id, r.reservationDate ASC, r.id ASC")
+    List<QueueEntry> findQueueEntries(Collection<Long> bookIds, ReservationStatus status);
+
+    // Reservations in the given status that expired before the cutoff, oldest first (uses the status/expiration index)
+    @Query("SELECT r.id AS id, r.book.id AS bookId, r.offeredAt AS offeredAt FROM Reservation r WHERE r.status = :status AND r.expirationDate < :cutoff ORDER BY r.expirationDate ASC, r.id ASC")
+    List<ExpiredReservation> findExpired(ReservationStatus status, LocalDateTime cutoff, Pageable limit);
+
+    // Set a released copy aside for a reservation that is still waiting; returns 0 if it was cancelled or offered concurrently
+    @Modifying
+    @Query("UPDATE Reservation r SET r.offeredAt = :now, r.expirationDate = :pickupDeadline WHERE r.id = :id AND r.status = :status AND r.offeredAt IS NULL")
+    int markOffered(Long id, ReservationStatus status, LocalDateTime now, LocalDateTime pickupDeadline);
+
+    // Claim a pending reservation for pickup; 0 means it was cancelled, expired or fulfilled concurrently
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = :to, r.fulfillmentDate = :now WHERE r.id = :id AND r.status = :from")
+    int markFulfilled(Long id, ReservationStatus from, ReservationStatus to, LocalDateTime now);
+
+    // Bulk status transition; the status guard keeps rows changed concurrently by users out of the update
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = :to WHERE r.id IN :ids AND r.status = :from")
+    int updateStatusByIdIn(List<Long> ids, ReservationStatus from, ReservationStatus to);
+
+    // Keyset pagination: seek along the (reservation_date, id) index, newest first, without a count query
+    @Query("SELECT r FROM Reservation r ORDER BY r.reservationDate DESC, r.id DESC")
+    List<Reservation> findFirstPageOrderByReservationDate(Pageable limit);
+
+    @Query("SELECT r FROM Reservation r WHERE r.reservationDate < :reservationDate OR (r.reservationDate = :reservationDate AND r.id < :id) ORDER BY r.reservationDate DESC, r.id DESC")
+    List<Reservation> findPageBeforeReservationDate(LocalDateTime reservationDate, Long id, Pageable limit);
+
+    interface ExpiredReservation {
+        Long getId();
+
+        Long getBookId();
+
+        LocalDateTime getOfferedAt();
+    }
+
+    interface QueueEntry {
+        Long getBookId();
+
+        Long getId();
+    }
 }
@@ -1,10 +1,25 @@
 package com.cc.library.repository;
 
 import com.cc.library.model.Review;
+import com.cc.library.model.ReviewStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
+    // List queries fetch-join book (with its category) and user, which are serialized with every review
+
+    @Override
+    @EntityGraph(attributePaths = {"book", "book.category", "user"})
+    Page<Review> findAll(Pageable pageable);
+
     // Find all reviews for a specific book, ordered by creation date descending
+    @EntityGraph(attributePaths = {"book", "book.category", "user"})
     List<Review> findByBookIdOrderByCreatedAtDesc(Long bookId);
-} 
\ No newline at end of file
+
+    // Find reviews for a specific book with the given status, ordered by creation date descending
+    @EntityGraph(attributePaths = {"book", "book.category", "user"})
+    List<Review> findByBookIdAndStatusOrderByCreatedAtDesc(Long bookId, ReviewStatus status);
+}
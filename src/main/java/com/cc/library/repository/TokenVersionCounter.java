@@ -0,0 +1,13 @@
+package com.cc.library.repository;
+
+/**
+ * 令牌版本的原子递增。
+ */
+public interface TokenVersionCounter {
+
+    /**
+     * 递增用户的令牌版本，没有记录时插入版本 1；并发的首次吊销不会因主键冲突失败。
+     * @return 递增后的版本
+     */
+    int incrementVersion(Long userId);
+}
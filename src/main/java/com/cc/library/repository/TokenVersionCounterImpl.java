@@ -0,0 +1,32 @@
+package com.cc.library.repository;
+
+import com.cc.library.entity.TokenVersion;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+class TokenVersionCounterImpl implements TokenVersionCounter {
+
+    // MySQL 语法，测试用的 H2（MySQL 兼容模式）同样支持；插入与递增在一条语句内完成，行锁由数据库持有
+    private static final String UPSERT = "INSERT INTO token_versions (user_id, version, updated_at) VALUES (:userId, 1, :now) "
+            + "ON DUPLICATE KEY UPDATE version = version + 1, updated_at = :now";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public int incrementVersion(Long userId) {
+        entityManager.createNativeQuery(UPSERT)
+                .unwrap(NativeQuery.class)
+                // 只同步令牌版本表，不清空其他实体的二级缓存
+                .addSynchronizedEntityClass(TokenVersion.class)
+                .setParameter("userId", userId)
+                .setParameter("now", LocalDateTime.now())
+                .executeUpdate();
+        return entityManager.createQuery("SELECT t.version FROM TokenVersion t WHERE t.userId = :userId", Integer.class)
+                .setParameter("userId", userId)
+                .getSingleResult();
+    }
+}
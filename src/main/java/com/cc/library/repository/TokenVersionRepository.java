@@ -0,0 +1,15 @@
+package com.cc.library.repository;
+
+import com.cc.library.entity.TokenVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TokenVersionRepository extends JpaRepository<TokenVersion, Long>, TokenVersionCounter {
+
+    // 增量刷新：只取上次之后变更的版本
+    List<TokenVersion> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+}
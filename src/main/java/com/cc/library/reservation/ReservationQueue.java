@@ -0,0 +1,453 @@
+package com.cc.library.reservation;
+
+import com.cc.library.model.ReservationStatus;
+import com.cc.library.repository.ReservationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * In-memory FIFO of pending reservations per book.
+ * <p>
+ * Each book's queue is loaded from the database the first time it is asked about and is then kept
+ * in sync by {@link com.cc.library.service.impl.ReservationServiceImpl} after each committed
+ * create, cancel, fulfill and expiry. Every queue is an append-only slot array with a Fenwick tree
+ * over slot occupancy, so "next in line" and "position of reservation X" are O(log n) and
+ * removals are O(log n) without shifting the array.
+ * <p>
+ * Only books with pending reservations keep a queue: a queue is dropped as soon as it is empty, so the
+ * map does not grow with every book ever reserved. A later lookup simply loads that book again.
+ * <p>
+ * Loads run in their own read-only transaction so they never see a caller's uncommitted rows.
+ * Changes that arrive while a queue is being loaded are replayed once the snapshot is installed;
+ * adds and removes are idempotent, so a change the snapshot already contains is harmless.
+ * <p>
+ * A caller inside a transaction already holds a pooled connection, and loading from there would need a
+ * second one; enough concurrent callers doing that exhaust the pool and wait on each other. On a miss
+ * such a caller is answered from a snapshot read through its own transaction and kept for the rest of
+ * it, and the shared queue is loaded on a background thread once that transaction has completed.
+ */
+@Slf4j
+@Component
+public class ReservationQueue {
+
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate loadTransaction;
+    private final Executor loader;
+
+    // Guarded by this; lock hold times are O(log n) except for rebuilds, which are amortised
+    private final Map<Long, BookQueue> queues = new HashMap<>();
+    private final Map<Long, Long> bookByReservation = new HashMap<>();
+
+    @Autowired
+    public ReservationQueue(ReservationRepository reservationRepository, PlatformTransactionManager transactionManager) {
+        this(reservationRepository, transactionManager, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reservation-queue-load");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    ReservationQueue(ReservationRepository reservationRepository, PlatformTransactionManager transactionManager,
+                     Executor loader) {
+        this.reservationRepository = reservationRepository;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setReadOnly(true);
+        this.loader = loader;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (loader instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Append a committed pending reservation to the end of its book's queue.
+     * Does nothing if the book's queue has not been loaded; the next load reads it from the database.
+     */
+    public synchronized void enqueue(Long bookId, Long reservationId) {
+        BookQueue queue = queues.get(bookId);
+        if (queue == null) {
+            return;
+        }
+        if (!queue.loaded) {
+            queue.pendingAdds.add(reservationId);
+            return;
+        }
+        if (queue.append(reservationId)) {
+            bookByReservation.put(reservationId, bookId);
+        }
+    }
+
+    /**
+     * Drop reservations that left the PENDING state (cancelled, fulfilled or expired).
+     */
+    public synchronized void removeAll(Collection<Long> reservationIds) {
+        for (Long reservationId : reservationIds) {
+            Long bookId = bookByReservation.remove(reservationId);
+            if (bookId != null) {
+                BookQueue queue = queues.get(bookId);
+                queue.remove(reservationId);
+                dropIfEmpty(bookId, queue);
+            }
+        }
+        // The book of an unknown reservation is not known, so any queue still loading has to hear about it
+        for (BookQueue queue : queues.values()) {
+            if (!queue.loaded) {
+                queue.pendingRemovals.addAll(reservationIds);
+            }
+        }
+    }
+
+    public void remove(Long reservationId) {
+        removeAll(List.of(reservationId));
+    }
+
+    /**
+     * @return The reservation at the head of the book's queue, if any.
+     */
+    public Optional<Long> peek(Long bookId) {
+        return peek(bookId, 1);
+    }
+
+    /**
+     * @param rank 1-based position in the queue.
+     * @return The reservation at that position of the book's queue, if the queue is that long.
+     */
+    public Optional<Long> peek(Long bookId, int rank) {
+        return Optional.ofNullable(read(List.of(bookId), byBook -> byBook.get(bookId).at(rank)));
+    }
+
+    /**
+     * @return The number of pending reservations for the book.
+     */
+    public int size(Long bookId) {
+        return read(List.of(bookId), byBook -> byBook.get(bookId).size());
+    }
+
+    /**
+     * @return The 1-based position of the reservation in its book's queue, or 0 if it is not pending.
+     */
+    public int position(Long bookId, Long reservationId) {
+        return positions(Map.of(reservationId, bookId)).getOrDefault(reservationId, 0);
+    }
+
+    /**
+     * Look up positions for several reservations at once, loading all missing books with a single query.
+     * @param bookByReservationId Reservation ID mapped to its book ID.
+     * @return Reservation ID mapped to its 1-based position; reservations that are not queued are absent.
+     */
+    public Map<Long, Integer> positions(Map<Long, Long> bookByReservationId) {
+        return read(bookByReservationId.values(), byBook -> {
+            Map<Long, Integer> positions = new HashMap<>();
+            bookByReservationId.forEach((reservationId, bookId) -> {
+                int position = byBook.get(bookId).position(reservationId);
+                if (position > 0) {
+                    positions.put(reservationId, position);
+                }
+            });
+            return positions;
+        });
+    }
+
+    /**
+     * Load the books' queues and run the reader under the lock, then drop the queues that turned out empty.
+     * Retries if another caller dropped one of the queues between loading and reading.
+     * Inside a transaction, books that are not loaded yet are read from that transaction's snapshot instead,
+     * and once the transaction has a snapshot of all the books it keeps reading from it.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T read(Collection<Long> bookIds, Function<Map<Long, BookQueue>, T> reader) {
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive();
+        if (inTransaction) {
+            Map<Long, BookQueue> snapshot = (Map<Long, BookQueue>) TransactionSynchronizationManager.getResource(this);
+            if (snapshot != null && snapshot.keySet().containsAll(bookIds)) {
+                return reader.apply(snapshot);
+            }
+        }
+        while (true) {
+            if (!inTransaction) {
+                ensureLoaded(bookIds);
+            }
+            synchronized (this) {
+                if (bookIds.stream().allMatch(bookId -> queues.containsKey(bookId) && queues.get(bookId).loaded)) {
+                    T result = reader.apply(queues);
+                    for (Long bookId : bookIds) {
+                        dropIfEmpty(bookId, queues.get(bookId));
+                    }
+                    return result;
+                }
+            }
+            if (inTransaction) {
+                return reader.apply(transactionSnapshot(bookIds));
+            }
+        }
+    }
+
+    /**
+     * The queues of the current transaction, read through its own connection the first time each book is asked
+     * about. Later reads in the same transaction see the same queues, as they would from memory. The snapshot
+     * may contain the transaction's own uncommitted rows, so it is never installed as the shared queue.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, BookQueue> transactionSnapshot(Collection<Long> bookIds) {
+        Map<Long, BookQueue> snapshot = (Map<Long, BookQueue>) TransactionSynchronizationManager.getResource(this);
+        if (snapshot == null) {
+            Map<Long, BookQueue> bound = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, bound);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ReservationQueue.this);
+                    loadAfterTransaction(bound);
+                }
+            });
+            snapshot = bound;
+        }
+        Set<Long> missing = new LinkedHashSet<>(bookIds);
+        missing.removeAll(snapshot.keySet());
+        if (!missing.isEmpty()) {
+            Map<Long, List<Long>> entries = findPending(missing);
+            for (Long bookId : missing) {
+                BookQueue queue = new BookQueue();
+                entries.getOrDefault(bookId, List.of()).forEach(queue::append);
+                queue.loaded = true;
+                snapshot.put(bookId, queue);
+            }
+        }
+        return snapshot;
+    }
+
+    // Books that were empty in the snapshot would only be dropped again right after loading
+    private void loadAfterTransaction(Map<Long, BookQueue> snapshot) {
+        List<Long> bookIds = snapshot.entrySet().stream()
+                .filter(entry -> entry.getValue().size() > 0)
+                .map(Map.Entry::getKey)
+                .toList();
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        try {
+            loader.execute(() -> {
+                try {
+                    ensureLoaded(bookIds);
+                    synchronized (this) {
+                        bookIds.forEach(bookId -> dropIfEmpty(bookId, queues.get(bookId)));
+                    }
+                } catch (RuntimeException e) {
+                    // The next lookup outside a transaction, or the next miss inside one, tries again
+                    log.warn("Failed to load reservation queues for books {}", bookIds, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    // Guarded by this. A queue that is still loading is kept: it has to collect the changes to replay
+    private void dropIfEmpty(Long bookId, BookQueue queue) {
+        if (queue != null && queue.loaded && queue.size() == 0) {
+            queues.remove(bookId);
+        }
+    }
+
+    // Books that currently have a queue in memory
+    synchronized Set<Long> loadedBooks() {
+        return Set.copyOf(queues.keySet());
+    }
+
+    private void ensureLoaded(Collection<Long> bookIds) {
+        Set<Long> missing = new LinkedHashSet<>();
+        synchronized (this) {
+            for (Long bookId : bookIds) {
+                BookQueue queue = queues.computeIfAbsent(bookId, id -> new BookQueue());
+                if (!queue.loaded) {
+                    missing.add(bookId);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Long>> snapshot = loadTransaction.execute(status -> findPending(missing));
+        synchronized (this) {
+            for (Long bookId : missing) {
+                BookQueue queue = queues.get(bookId);
+                // Another caller may have finished loading the same book first, and may even have dropped it
+                if (queue == null || queue.loaded) {
+                    continue;
+                }
+                for (Long reservationId : snapshot.getOrDefault(bookId, List.of())) {
+                    queue.append(reservationId);
+                }
+                for (Long reservationId : queue.pendingAdds) {
+                    queue.append(reservationId);
+                }
+                for (Long reservationId : queue.pendingRemovals) {
+                    queue.remove(reservationId);
+                }
+                queue.pendingAdds.clear();
+                queue.pendingRemovals.clear();
+                queue.loaded = true;
+                for (Long reservationId : queue.slotByReservation.keySet()) {
+                    bookByReservation.put(reservationId, bookId);
+                }
+            }
+        }
+    }
+
+    // Pending reservation IDs per book, in queue order
+    private Map<Long, List<Long>> findPending(Collection<Long> bookIds) {
+        Map<Long, List<Long>> pending = new HashMap<>();
+        for (ReservationRepository.QueueEntry entry : reservationRepository.findQueueEntries(bookIds, ReservationStatus.PENDING)) {
+            pending.computeIfAbsent(entry.getBookId(), id -> new ArrayList<>()).add(entry.getId());
+        }
+        return pending;
+    }
+
+    /**
+     * One book's queue: reservation IDs in arrival order, with a Fenwick tree counting occupied slots.
+     * Removed slots are left empty and compacted away once they outnumber the live ones.
+     */
+    static final class BookQueue {
+
+        private static final int INITIAL_CAPACITY = 8;
+
+        private long[] slots = new long[INITIAL_CAPACITY];
+        // 1-based Fenwick tree over slot occupancy
+        private int[] tree = new int[INITIAL_CAPACITY + 1];
+        private final Map<Long, Integer> slotByReservation = new HashMap<>();
+        private int tail;
+        private int live;
+
+        private boolean loaded;
+        private final List<Long> pendingAdds = new ArrayList<>();
+        private final Set<Long> pendingRemovals = new LinkedHashSet<>();
+
+        boolean append(Long reservationId) {
+            if (slotByReservation.containsKey(reservationId)) {
+                return false;
+            }
+            if (tail == slots.length) {
+                // Compact in place if at least half the slots are dead, otherwise double
+                rebuild(live * 2 <= slots.length ? slots.length : slots.length * 2);
+            }
+            slots[tail] = reservationId;
+            slotByReservation.put(reservationId, tail);
+            add(tail, 1);
+            tail++;
+            live++;
+            return true;
+        }
+
+        void remove(Long reservationId) {
+            Integer slot = slotByReservation.remove(reservationId);
+            if (slot == null) {
+                return;
+            }
+            add(slot, -1);
+            live--;
+            if (live == 0) {
+                // Cheap reset so an emptied queue does not keep a large array alive
+                slots = new long[INITIAL_CAPACITY];
+                tree = new int[INITIAL_CAPACITY + 1];
+                tail = 0;
+            } else if (tail - live > live && tail > INITIAL_CAPACITY) {
+                rebuild(slots.length);
+            }
+        }
+
+        int position(Long reservationId) {
+            Integer slot = slotByReservation.get(reservationId);
+            return slot == null ? 0 : prefix(slot);
+        }
+
+        Long head() {
+            return at(1);
+        }
+
+        Long at(int rank) {
+            if (rank < 1 || rank > live) {
+                return null;
+            }
+            // Fenwick descent: largest index whose prefix count is still below rank, the entry sits right after it
+            int index = 0;
+            int remaining = rank;
+            for (int step = Integer.highestOneBit(slots.length); step > 0; step >>= 1) {
+                int next = index + step;
+                if (next <= slots.length && tree[next] < remaining) {
+                    index = next;
+                    remaining -= tree[next];
+                }
+            }
+            return slots[index];
+        }
+
+        int size() {
+            return live;
+        }
+
+        private void add(int slot, int delta) {
+            for (int i = slot + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+
+        // Number of occupied slots in [0, slot]
+        private int prefix(int slot) {
+            int sum = 0;
+            for (int i = slot + 1; i > 0; i -= i & -i) {
+                sum += tree[i];
+            }
+            return sum;
+        }
+
+        private void rebuild(int capacity) {
+            long[] compacted = new long[capacity];
+            int[] rebuilt = new int[capacity + 1];
+            int count = 0;
+            for (int slot = 0; slot < tail; slot++) {
+                long reservationId = slots[slot];
+                Integer current = slotByReservation.get(reservationId);
+                if (current != null && current == slot) {
+                    compacted[count] = reservationId;
+                    slotByReservation.put(reservationId, count);
+                    rebuilt[count + 1] = 1;
+                    count++;
+                }
+            }
+            // Linear-time Fenwick construction
+            for (int i = 1; i <= capacity; i++) {
+                int parent = i + (i & -i);
+                if (parent <= capacity) {
+                    rebuilt[parent] += rebuilt[i];
+                }
+            }
+            slots = compacted;
+            tree = rebuilt;
+            tail = count;
+        }
+    }
+}
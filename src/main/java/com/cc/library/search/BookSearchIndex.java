@@ -0,0 +1,434 @@
+package com.cc.library.search;
+
+import com.cc.library.entity.Book;
+import com.cc.library.repository.BookRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 图书全文检索索引（Lucene，基于内存映射目录）。
+ * <p>
+ * 替代 {@code title LIKE %kw%} 的全表扫描：由 {@link com.cc.library.service.impl.BookServiceImpl}
+ * 在图书增删改提交后增量维护，索引为空或管理员触发时在后台线程从数据库全量重建。
+ * 查询按相关度排序，仅返回图书 ID，实体仍由数据库按主键加载。
+ * <p>
+ * 重建失败时回滚会关闭并重新打开 writer 和 searcher：增量写入与查询持有读锁，回滚持有写锁，
+ * 不会用到已关闭的实例。回滚同时丢弃了重建期间的增量写入，因此失败后延迟再重建一次。
+ */
+@Slf4j
+@Component
+public class BookSearchIndex {
+
+    static final String FIELD_ID = "id";
+    static final String FIELD_TITLE = "title";
+    static final String FIELD_AUTHOR = "author";
+    static final String FIELD_ISBN = "isbn";
+    static final String FIELD_DESCRIPTION = "description";
+
+    // 提交元数据：标记最近一次全量重建已完成，未完成的索引不对外提供查询
+    private static final String COMMIT_COMPLETE = "complete";
+
+    private static final Map<String, Float> TEXT_FIELD_BOOSTS = Map.of(
+            FIELD_TITLE, 3.0f,
+            FIELD_AUTHOR, 2.0f,
+            FIELD_DESCRIPTION, 0.5f
+    );
+
+    private final BookRepository bookRepository;
+    private final Path indexDir;
+    private final int rebuildBatchSize;
+    private final long rebuildRetryMs;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    // 重建进行中又收到重建请求（增量更新失败）：进行中的重建可能已读过变更的图书，结束后再来一次
+    private volatile boolean rebuildRequested;
+    // writer / searcherManager 的使用与替换：读锁用于写入文档、提交和查询，写锁用于回滚后重新打开
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService rebuildExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "book-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Directory directory;
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+    private volatile boolean ready;
+
+    public BookSearchIndex(BookRepository bookRepository,
+                           @Value("${app.search.index-dir}") String indexDir,
+                           @Value("${app.search.rebuild-batch-size:1000}") int rebuildBatchSize,
+                           @Value("${app.search.rebuild-retry-ms:60000}") long rebuildRetryMs) {
+        this.bookRepository = bookRepository;
+        this.indexDir = Paths.get(indexDir);
+        this.rebuildBatchSize = rebuildBatchSize;
+        this.rebuildRetryMs = rebuildRetryMs;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(indexDir);
+        directory = new MMapDirectory(indexDir);
+        openWriter();
+        ready = isMarkedComplete();
+        log.info("图书检索索引已打开: {}, 可用: {}", indexDir.toAbsolutePath(), ready);
+    }
+
+    private void openWriter() throws IOException {
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        rebuildExecutor.shutdownNow();
+        Lock lock = swapLock.writeLock();
+        lock.lock();
+        try {
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 应用启动后，如索引从未完整构建过，则在后台全量重建。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfIncomplete() {
+        if (!ready) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * 索引是否已完成至少一次全量构建、可对外提供查询。
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Book book) {
+        indexAll(Collections.singletonList(book));
+    }
+
+    /**
+     * 批量写入（或覆盖）图书文档，整批只提交一次。
+     */
+    public void indexAll(Collection<Book> books) {
+        addAll(books);
+        commit();
+    }
+
+    /**
+     * 写入（或覆盖）图书文档但不提交，提交前检索看不到这些文档。
+     * 用于分多批写入的批量导入，全部写完后调用一次 {@link #commit()}。
+     */
+    public void addAll(Collection<Book> books) {
+        withWriter("Failed to index books", () -> {
+            for (Book book : books) {
+                writer.updateDocument(idTerm(book.getId()), toDocument(book));
+            }
+            return null;
+        });
+    }
+
+    public void commit() {
+        withWriter("Failed to commit book index", () -> {
+            commitAndRefresh();
+            return null;
+        });
+    }
+
+    public void delete(Long bookId) {
+        withWriter("Failed to remove book " + bookId + " from index", () -> {
+            writer.deleteDocuments(idTerm(bookId));
+            commitAndRefresh();
+            return null;
+        });
+    }
+
+    /**
+     * 按相关度检索图书。
+     * @param keyword 用户输入的关键字
+     * @param offset 起始位置
+     * @param limit 返回条数
+     * @return 当前页的图书 ID（按相关度降序）及命中总数
+     */
+    public Hits search(String keyword, int offset, int limit) {
+        return withWriter("Book search failed", () -> {
+            Query query = buildQuery(keyword);
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                int totalHits = searcher.count(query);
+                if (totalHits <= offset || limit <= 0) {
+                    return new Hits(Collections.emptyList(), totalHits);
+                }
+                TopDocs topDocs = searcher.search(query, Math.min(offset + limit, totalHits));
+                List<Long> ids = new ArrayList<>(limit);
+                for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+                    ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                    ids.add(Long.valueOf(searcher.storedFields().document(scoreDoc.doc).get(FIELD_ID)));
+                }
+                return new Hits(ids, totalHits);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        });
+    }
+
+    /**
+     * 在后台线程从数据库全量重建索引。
+     * @return 是否启动了新的重建（已有重建在进行时返回 false）
+     */
+    public boolean rebuildAsync() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            rebuildRequested = true;
+            return false;
+        }
+        schedule(0);
+        return true;
+    }
+
+    private void runRebuild() {
+        rebuildRequested = false;
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // 回滚丢弃了重建期间的增量写入，延迟后重建一次把它们从数据库找回来
+            log.error("图书检索索引重建失败，{} ms 后重试", rebuildRetryMs, e);
+            schedule(rebuildRetryMs);
+            return;
+        }
+        if (rebuildRequested) {
+            schedule(0);
+            return;
+        }
+        rebuilding.set(false);
+        // 检查与复位之间到达的请求看到的仍是重建中，由这里补上
+        if (rebuildRequested) {
+            rebuildAsync();
+        }
+    }
+
+    private void schedule(long delayMs) {
+        try {
+            rebuildExecutor.schedule(this::runRebuild, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 应用正在关闭
+            rebuilding.set(false);
+        }
+    }
+
+    void rebuild() throws IOException {
+        long start = System.currentTimeMillis();
+        // 先把完成标记落盘，重建中途宕机时重启会再次触发重建
+        writer.setLiveCommitData(Map.of(COMMIT_COMPLETE, "false").entrySet());
+        writer.commit();
+
+        long count = 0L;
+        try {
+            writer.deleteAll();
+            long lastId = 0L;
+            Slice<Book> slice;
+            do {
+                slice = bookRepository.findByIdGreaterThan(lastId,
+                        PageRequest.of(0, rebuildBatchSize, Sort.by(Sort.Direction.ASC, "id")));
+                for (Book book : slice) {
+                    writer.updateDocument(idTerm(book.getId()), toDocument(book));
+                    lastId = book.getId();
+                    count++;
+                }
+            } while (slice.hasNext());
+
+            writer.setLiveCommitData(Map.of(COMMIT_COMPLETE, "true").entrySet());
+            writer.commit();
+        } catch (IOException | RuntimeException e) {
+            rollback();
+            throw e;
+        }
+        searcherManager.maybeRefresh();
+        ready = true;
+        log.info("图书检索索引重建完成: {} 本, 耗时 {} ms", count, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 丢弃重建中未提交的清空和写入，索引回到重建前的提交点；rollback 会关闭 writer，需重新打开。
+     * 否则下一次增量提交会把清空后只写了一半的索引落盘。
+     */
+    private void rollback() throws IOException {
+        Lock lock = swapLock.writeLock();
+        lock.lock();
+        try {
+            writer.rollback();
+            searcherManager.close();
+            openWriter();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexOperation<T> {
+        T run() throws IOException;
+    }
+
+    // 在读锁内使用 writer / searcherManager，回滚不会在使用中途关闭它们
+    private <T> T withWriter(String failure, IndexOperation<T> operation) {
+        Lock lock = swapLock.readLock();
+        lock.lock();
+        try {
+            return operation.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(failure, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void commitAndRefresh() throws IOException {
+        // 重建期间只写入不提交，查询继续使用重建前的快照，避免暴露被清空的中间状态
+        if (rebuilding.get()) {
+            return;
+        }
+        writer.commit();
+        searcherManager.maybeRefresh();
+    }
+
+    private boolean isMarkedComplete() {
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData == null) {
+            return false;
+        }
+        for (Map.Entry<String, String> entry : commitData) {
+            if (COMMIT_COMPLETE.equals(entry.getKey())) {
+                return Boolean.parseBoolean(entry.getValue());
+            }
+        }
+        return false;
+    }
+
+    private Query buildQuery(String keyword) throws IOException {
+        String trimmed = keyword.trim();
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        // ISBN 按原文前缀匹配，命中时排在最前
+        query.add(new BoostQuery(new PrefixQuery(new Term(FIELD_ISBN, trimmed)), 5.0f), BooleanClause.Occur.SHOULD);
+
+        List<String> terms = analyze(trimmed);
+        if (!terms.isEmpty()) {
+            // 每个词都必须命中任一字段；最后一个词按前缀匹配，支持边输入边搜索
+            BooleanQuery.Builder text = new BooleanQuery.Builder();
+            for (int i = 0; i < terms.size(); i++) {
+                boolean last = i == terms.size() - 1;
+                BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+                for (Map.Entry<String, Float> field : TEXT_FIELD_BOOSTS.entrySet()) {
+                    Term term = new Term(field.getKey(), terms.get(i));
+                    anyField.add(new BoostQuery(new TermQuery(term), field.getValue()), BooleanClause.Occur.SHOULD);
+                    if (last) {
+                        anyField.add(new BoostQuery(new PrefixQuery(term), field.getValue() / 2), BooleanClause.Occur.SHOULD);
+                    }
+                }
+                text.add(anyField.build(), BooleanClause.Occur.MUST);
+            }
+            query.add(text.build(), BooleanClause.Occur.SHOULD);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) throws IOException {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(FIELD_TITLE, text)) {
+            CharTermAttribute attribute = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(attribute.toString());
+            }
+            stream.end();
+        }
+        return terms;
+    }
+
+    private static Term idTerm(Long bookId) {
+        return new Term(FIELD_ID, String.valueOf(bookId));
+    }
+
+    private static Document toDocument(Book book) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID, String.valueOf(book.getId()), Field.Store.YES));
+        addText(document, FIELD_TITLE, book.getTitle());
+        addText(document, FIELD_AUTHOR, book.getAuthor());
+        addText(document, FIELD_DESCRIPTION, book.getDescription());
+        if (book.getIsbn() != null) {
+            document.add(new StringField(FIELD_ISBN, book.getIsbn(), Field.Store.NO));
+        }
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    /**
+     * 一页检索结果。
+     * @param ids 当前页的图书 ID，按相关度降序
+     * @param totalHits 命中总数
+     */
+    public record Hits(List<Long> ids, long totalHits) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.cc.library.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 将当前登录用户注入控制器方法参数，参数类型可以是 {@link UserPrincipal} 或 {@code Long}（用户 ID）。
+ * 数据直接取自已验签的 JWT 声明，不会再按用户名查库；未认证时返回 401。
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
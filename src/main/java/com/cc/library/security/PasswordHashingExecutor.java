@@ -0,0 +1,154 @@
+package com.cc.library.security;
+
+import com.cc.library.dto.PasswordHashingStats;
+import com.cc.library.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 密码哈希（BCrypt）专用线程池。
+ * <p>
+ * 线程数按 CPU 核数乘以配置的占比计算，密码运算最多占用这部分 CPU，登录高峰不会拖慢目录查询等其他请求。
+ * 等待队列有界，排满时直接拒绝并抛出 {@link TooManyRequestsException}（429 + Retry-After），
+ * 而不是让请求线程无限堆积。排队深度、拒绝次数和哈希耗时同时以 library.password.hashing.* 指标导出。
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor implements MeterBinder {
+
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    private final int queueCapacity;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Math::max, 0);
+
+    public PasswordHashingExecutor(@Value("${app.security.password-hashing.cpu-share:0.5}") double cpuShare,
+                                   @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity) {
+        this.threads = Math.max(1, (int) Math.floor(Runtime.getRuntime().availableProcessors() * cpuShare));
+        this.queueCapacity = queueCapacity;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        log.info("密码哈希线程池：{} 个线程，队列容量 {}", threads, queueCapacity);
+    }
+
+    /**
+     * 在哈希线程池中执行任务并等待结果，调用线程阻塞但不占用 CPU。
+     * @throws TooManyRequestsException 等待队列已满
+     */
+    public <T> T execute(Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                waitNanos.add(startedAt - submittedAt);
+                try {
+                    return task.get();
+                } finally {
+                    long elapsed = System.nanoTime() - startedAt;
+                    hashNanos.add(elapsed);
+                    maxHashNanos.accumulate(elapsed);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new TooManyRequestsException("登录请求过多，请稍后重试", retryAfterSeconds());
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待密码哈希时被中断", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * 按当前排队数和平均哈希耗时估算队列排空所需的秒数，至少 1 秒。
+     */
+    long retryAfterSeconds() {
+        long count = completed.sum();
+        if (count == 0) {
+            return 1;
+        }
+        double averageNanos = (double) hashNanos.sum() / count;
+        double drainNanos = (executor.getQueue().size() + threads) * averageNanos / threads;
+        return Math.max(1, (long) Math.ceil(drainNanos / TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    public PasswordHashingStats stats() {
+        long count = completed.sum();
+        PasswordHashingStats stats = new PasswordHashingStats();
+        stats.setThreads(threads);
+        stats.setQueueCapacity(queueCapacity);
+        stats.setQueueDepth(executor.getQueue().size());
+        stats.setActiveCount(executor.getActiveCount());
+        stats.setCompletedCount(count);
+        stats.setRejectedCount(rejected.sum());
+        stats.setAverageHashMillis(count == 0 ? 0 : hashNanos.sum() / 1e6 / count);
+        stats.setMaxHashMillis(maxHashNanos.get() / 1e6);
+        stats.setAverageWaitMillis(count == 0 ? 0 : waitNanos.sum() / 1e6 / count);
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("library.password.hashing.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("等待哈希线程的任务数")
+                .register(registry);
+        Gauge.builder("library.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+        FunctionCounter.builder("library.password.hashing.rejected", rejected, LongAdder::sum)
+                .description("队列已满被拒绝（429）的次数")
+                .register(registry);
+        FunctionTimer.builder("library.password.hashing.duration", this,
+                        self -> self.completed.sum(), self -> self.hashNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("单次 BCrypt 运算耗时")
+                .register(registry);
+        FunctionTimer.builder("library.password.hashing.wait", this,
+                        self -> self.completed.sum(), self -> self.waitNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("任务在队列中等待的时间")
+                .register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
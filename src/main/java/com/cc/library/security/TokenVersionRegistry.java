@@ -0,0 +1,76 @@
+package com.cc.library.security;
+
+import com.cc.library.common.TransactionCallbacks;
+import com.cc.library.entity.TokenVersion;
+import com.cc.library.repository.TokenVersionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 内存中的用户令牌版本表，认证时据此判断令牌是否已被吊销，不访问数据库。
+ * <p>
+ * 启动时全量加载 token_versions（只有改过版本的用户才有记录），之后定时增量刷新，
+ * 让多实例部署中其他实例的吊销在刷新间隔内生效；本实例的吊销在事务提交后立即生效。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenVersionRegistry {
+
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    private final TokenVersionRepository tokenVersionRepository;
+
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastSeen = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @PostConstruct
+    void load() {
+        refresh();
+        log.info("已加载 {} 个用户的令牌版本", versions.size());
+    }
+
+    /**
+     * 签发令牌时使用的当前版本。
+     */
+    public int currentVersion(Long userId) {
+        return versions.getOrDefault(userId, 0);
+    }
+
+    /**
+     * 令牌版本不低于当前版本即有效。
+     */
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        return tokenVersion >= currentVersion(userId);
+    }
+
+    /**
+     * 递增用户的令牌版本，使其已签发的令牌全部失效。需在调用方事务中执行，提交后更新内存表。
+     */
+    public void revoke(Long userId) {
+        int version = tokenVersionRepository.incrementVersion(userId);
+        TransactionCallbacks.afterCommit(() -> versions.merge(userId, version, Math::max));
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.jwt.version-refresh-ms:30000}",
+            initialDelayString = "${app.security.jwt.version-refresh-ms:30000}")
+    public void refresh() {
+        // 回看一段时间：晚提交的事务或实例间时钟偏差不会漏行，重复读到的行按最大值合并
+        List<TokenVersion> changed = tokenVersionRepository.findByUpdatedAtGreaterThanEqual(lastSeen.minus(REFRESH_OVERLAP));
+        for (TokenVersion tokenVersion : changed) {
+            versions.merge(tokenVersion.getUserId(), tokenVersion.getVersion(), Math::max);
+            if (tokenVersion.getUpdatedAt().isAfter(lastSeen)) {
+                lastSeen = tokenVersion.getUpdatedAt();
+            }
+        }
+    }
+}
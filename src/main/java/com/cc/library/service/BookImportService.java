@@ -0,0 +1,14 @@
+package com.cc.library.service;
+
+import com.cc.library.dto.BookImportReport;
+
+import java.io.InputStream;
+
+public interface BookImportService {
+    /**
+     * 流式批量导入图书，逐行校验，按批写入，返回每一行的失败原因。
+     * @param in CSV 或 JSON 数据
+     * @param contentType 请求的 Content-Type，据此选择解析格式
+     */
+    BookImportReport importBooks(InputStream in, String contentType);
+}
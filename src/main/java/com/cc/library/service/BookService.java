@@ -1,22 +1,29 @@
 package com.cc.library.service;
 
+import com.cc.library.common.CursorPage;
+import com.cc.library.dto.BookCard;
 import com.cc.library.entity.Book;
 import com.cc.library.entity.Category;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookService {
     Book createBook(Book book);
     Book updateBook(Long id, Book book);
     void deleteBook(Long id);
     Book getBookById(Long id);
-    Page<Book> getAllBooks(Pageable pageable);
-    Page<Book> getBooksByCategory(Category category, Pageable pageable);
-    Page<Book> searchBooks(String keyword, Pageable pageable);
+    Page<BookCard> getAllBooks(Pageable pageable);
+    CursorPage<BookCard> getBooksAfter(String after, int size);
+    Page<BookCard> getBooksByCategory(Category category, Pageable pageable);
+    Page<BookCard> searchBooks(String keyword, Pageable pageable);
     List<Book> getBooksByStatus(Book.BookStatus status);
+    long streamBooksByStatus(Book.BookStatus status, Consumer<? super Book> action);
+    long streamAllBooks(Consumer<? super Book> action);
     boolean existsByIsbn(String isbn);
     void updateBookStatus(Long id, Book.BookStatus status);
     void updateBookStock(Long id, int quantity);
+    boolean rebuildSearchIndex();
 } 
\ No newline at end of file
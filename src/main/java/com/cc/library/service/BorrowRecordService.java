@@ -1,5 +1,8 @@
 package com.cc.library.service;
 
+import com.cc.library.common.CursorPage;
+import com.cc.library.common.JobReport;
+import com.cc.library.dto.LoanRow;
 import com.cc.library.entity.BorrowRecord;
 import com.cc.library.entity.User;
 import org.springframework.data.domain.Page;
@@ -7,6 +10,7 @@ import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BorrowRecordService {
     BorrowRecord createBorrowRequest(Long userId, Long bookId, LocalDateTime dueDate, String remarks);
@@ -15,8 +19,12 @@ public interface BorrowRecordService {
     BorrowRecord returnBook(Long recordId);
     void deleteBorrowRecord(Long id);
     BorrowRecord getBorrowRecordById(Long id);
-    Page<BorrowRecord> getBorrowRecordsByUser(User user, Pageable pageable);
-    List<BorrowRecord> getOverdueRecords(LocalDateTime now);
+    Page<LoanRow> getBorrowRecordsByUser(User user, Pageable pageable);
+    Page<LoanRow> getOverdueRecords(Pageable pageable);
     List<BorrowRecord> getRecordsByStatus(BorrowRecord.BorrowStatus status);
-    Page<BorrowRecord> getAllBorrowRecords(Pageable pageable);
+    long streamOverdueRecords(Consumer<? super LoanRow> action);
+    long streamRecordsByStatus(BorrowRecord.BorrowStatus status, Consumer<? super LoanRow> action);
+    Page<LoanRow> getAllBorrowRecords(Pageable pageable);
+    CursorPage<LoanRow> getBorrowRecordsAfter(String after, int size);
+    JobReport markOverdueLoans(LocalDateTime now);
 } 
\ No newline at end of file
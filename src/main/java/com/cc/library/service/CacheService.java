@@ -0,0 +1,17 @@
+package com.cc.library.service;
+
+import com.cc.library.dto.CacheRegionStats;
+
+import java.util.List;
+
+public interface CacheService {
+    /**
+     * 各二级缓存区域的命中/未命中/写入次数及当前条目数。
+     */
+    List<CacheRegionStats> getRegionStats();
+
+    /**
+     * 清空一个缓存区域，用于绕过应用直接修改数据库之后。
+     */
+    void evictRegion(String region);
+}
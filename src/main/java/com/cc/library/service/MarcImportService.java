@@ -0,0 +1,19 @@
+package com.cc.library.service;
+
+import com.cc.library.dto.MarcImportProgress;
+
+public interface MarcImportService {
+    /**
+     * 在后台导入导入目录中的 MARC21 文件，立即返回任务进度。同一时间只运行一个导入任务。
+     * @param fileName 相对于 app.marc-import.directory 的文件名
+     * @param format 文件格式，为空时按扩展名推断（.xml 为 MARCXML，其余为 ISO 2709）
+     */
+    MarcImportProgress startImport(String fileName, String format);
+
+    MarcImportProgress getProgress(String id);
+
+    /**
+     * 停止导入；已写入的批次保留。
+     */
+    MarcImportProgress cancelImport(String id);
+}
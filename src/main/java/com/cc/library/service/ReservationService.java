@@ -1,10 +1,13 @@
 package com.cc.library.service;
 
+import com.cc.library.common.CursorPage;
+import com.cc.library.common.JobReport;
 import com.cc.library.model.Reservation;
 import com.cc.library.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,7 +16,7 @@ public interface ReservationService {
      * Create a new reservation for a book.
      * @param bookId The ID of the book to reserve.
      * @param userId The ID of the user making the reservation.
-     * @return The created Reservation entity.
+     * @return The created Reservation entity, carrying its position in the book's queue.
      */
     Reservation createReservation(Long bookId, Long userId);
 
@@ -39,6 +42,14 @@ public interface ReservationService {
      */
     Page<Reservation> getAllReservations(Pageable pageable);
 
+    /**
+     * Get all reservations (for admin) using keyset pagination, newest first.
+     * @param after Opaque cursor returned with the previous page; empty for the first page.
+     * @param size Page size.
+     * @return A cursor page of reservations.
+     */
+    CursorPage<Reservation> getAllReservationsAfter(String after, int size);
+
     /**
      * Get a reservation by its ID.
      * @param reservationId The ID of the reservation.
@@ -47,10 +58,27 @@ public interface ReservationService {
     Optional<Reservation> getReservationById(Long reservationId);
 
     /**
-     * Admin method to fulfill a reservation.
-     * This should be called when a book is returned and needs to be offered to the next person in the reservation queue.
+     * Admin method to fulfill a reservation: the reader picks the book up and it is lent to them.
+     * The copy held by an offer becomes a BORROWED loan as is; without an offer one copy is taken from stock.
      * @param reservationId The ID of the reservation to fulfill.
      * @return The fulfilled Reservation entity.
      */
     Reservation fulfillReservation(Long reservationId);
+
+    /**
+     * Cancel all pending reservations that expired before the cutoff.
+     * Works in bounded chunks, each committed in its own transaction, so memory use does not grow with history size.
+     * @param cutoff Reservations whose expiration date is before this instant are expired.
+     * @return Rows processed, chunks committed and duration.
+     */
+    JobReport expireReservations(LocalDateTime cutoff);
+
+    /**
+     * Offer a copy that just became free to the head of the book's reservation queue.
+     * The copy is held (taken out of the available count) and the reservation's expiration date becomes the pickup deadline.
+     * If nobody is waiting, or the copy was already borrowed by someone else, nothing changes.
+     * @param bookId The ID of the book whose copy was released.
+     * @return The ID of the reservation the copy was offered to, if any.
+     */
+    Optional<Long> offerReleasedCopy(Long bookId);
 } 
\ No newline at end of file
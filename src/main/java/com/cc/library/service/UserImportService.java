@@ -0,0 +1,14 @@
+package com.cc.library.service;
+
+import com.cc.library.dto.UserImportReport;
+
+import java.io.InputStream;
+
+public interface UserImportService {
+    /**
+     * 流式批量导入读者（角色 READER、状态 ACTIVE），逐行校验，返回每一行的失败原因。
+     * @param in CSV 或 JSON 数据
+     * @param contentType 请求的 Content-Type，据此选择解析格式
+     */
+    UserImportReport importUsers(InputStream in, String contentType);
+}
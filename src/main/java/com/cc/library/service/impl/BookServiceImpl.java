@@ -1,21 +1,39 @@
 package com.cc.library.service.impl;
 
+import com.cc.library.common.CursorPage;
+import com.cc.library.common.EntityStreams;
+import com.cc.library.common.TransactionCallbacks;
+import com.cc.library.dto.BookCard;
 import com.cc.library.entity.Book;
 import com.cc.library.entity.Category;
 import com.cc.library.repository.BookRepository;
+import com.cc.library.search.BookSearchIndex;
 import com.cc.library.service.BookService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookServiceImpl implements BookService {
     private final BookRepository bookRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
@@ -24,7 +42,9 @@ public class BookServiceImpl implements BookService {
             throw new RuntimeException("ISBN already exists");
         }
         book.setAvailableCopies(book.getTotalCopies());
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        indexAfterCommit(() -> bookSearchIndex.index(saved));
+        return saved;
     }
 
     @Override
@@ -46,7 +66,9 @@ public class BookServiceImpl implements BookService {
         existingBook.setTotalCopies(book.getTotalCopies());
         existingBook.setStatus(book.getStatus());
 
-        return bookRepository.save(existingBook);
+        Book saved = bookRepository.save(existingBook);
+        indexAfterCommit(() -> bookSearchIndex.index(saved));
+        return saved;
     }
 
     @Override
@@ -56,35 +78,92 @@ public class BookServiceImpl implements BookService {
             throw new RuntimeException("Book not found");
         }
         bookRepository.deleteById(id);
+        indexAfterCommit(() -> bookSearchIndex.delete(id));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Book getBookById(Long id) {
         return bookRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Book not found"));
     }
 
     @Override
-    public Page<Book> getAllBooks(Pageable pageable) {
-        return bookRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public Page<BookCard> getAllBooks(Pageable pageable) {
+        return bookRepository.findAllCards(pageable);
     }
 
     @Override
-    public Page<Book> getBooksByCategory(Category category, Pageable pageable) {
-        return bookRepository.findByCategory(category, pageable);
+    @Transactional(readOnly = true)
+    public CursorPage<BookCard> getBooksAfter(String after, int size) {
+        CursorPage.Cursor cursor = CursorPage.decode(after);
+        Pageable limit = CursorPage.limit(size);
+        List<BookCard> rows = cursor == null
+                ? bookRepository.findFirstCardsOrderByTitle(limit)
+                : bookRepository.findCardsAfterTitle(cursor.sortKey(), cursor.id(), limit);
+        return CursorPage.of(rows, size, BookCard::title, BookCard::id);
     }
 
     @Override
-    public Page<Book> searchBooks(String keyword, Pageable pageable) {
-        return bookRepository.searchBooks(keyword, pageable);
+    @Transactional(readOnly = true)
+    public Page<BookCard> getBooksByCategory(Category category, Pageable pageable) {
+        return bookRepository.findCardsByCategory(category, pageable);
     }
 
     @Override
+    @Timed(value = "library.books.search", description = "图书检索（索引或数据库回退）")
+    @Transactional(readOnly = true)
+    public Page<BookCard> searchBooks(String keyword, Pageable pageable) {
+        if (keyword == null || keyword.isBlank()) {
+            return bookRepository.findAllCards(pageable);
+        }
+        // 索引首次构建完成前退回数据库模糊查询
+        if (!bookSearchIndex.isReady()) {
+            return bookRepository.searchCards(keyword, pageable);
+        }
+
+        BookSearchIndex.Hits hits;
+        try {
+            hits = bookSearchIndex.search(keyword, (int) pageable.getOffset(), pageable.getPageSize());
+        } catch (RuntimeException e) {
+            log.error("图书检索索引查询失败，退回数据库查询: {}", keyword, e);
+            return bookRepository.searchCards(keyword, pageable);
+        }
+        if (hits.ids().isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, hits.totalHits());
+        }
+
+        // 按主键批量加载后恢复相关度顺序；已删除但索引尚未同步的图书直接跳过
+        Map<Long, BookCard> booksById = bookRepository.findCardsByIdIn(hits.ids()).stream()
+                .collect(Collectors.toMap(BookCard::id, Function.identity()));
+        List<BookCard> books = hits.ids().stream()
+                .map(booksById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(books, pageable, hits.totalHits());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Book> getBooksByStatus(Book.BookStatus status) {
         return bookRepository.findByStatus(status);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public long streamBooksByStatus(Book.BookStatus status, Consumer<? super Book> action) {
+        return EntityStreams.forEach(bookRepository.streamByStatus(status), entityManager, action);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long streamAllBooks(Consumer<? super Book> action) {
+        return EntityStreams.forEach(bookRepository.streamAll(), entityManager, action);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public boolean existsByIsbn(String isbn) {
         return bookRepository.existsByIsbn(isbn);
     }
@@ -109,4 +188,22 @@ public class BookServiceImpl implements BookService {
         book.setAvailableCopies(book.getAvailableCopies() + quantity);
         bookRepository.save(book);
     }
+
+    @Override
+    public boolean rebuildSearchIndex() {
+        return bookSearchIndex.rebuildAsync();
+    }
+
+    // 索引在事务提交后再更新，避免回滚的数据进入索引。此时数据库已提交，索引更新失败不能再让请求失败，
+    // 记录日志并在后台全量重建，让索引追上数据库
+    private void indexAfterCommit(Runnable update) {
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                update.run();
+            } catch (RuntimeException e) {
+                log.error("图书检索索引增量更新失败，已安排全量重建", e);
+                bookSearchIndex.rebuildAsync();
+            }
+        });
+    }
 } 
\ No newline at end of file
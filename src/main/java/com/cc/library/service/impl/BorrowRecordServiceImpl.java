@@ -1,27 +1,58 @@
 package com.cc.library.service.impl;
 
+import com.cc.library.common.CursorPage;
+import com.cc.library.common.EntityStreams;
+import com.cc.library.common.JobReport;
+import com.cc.library.dto.LoanRow;
 import com.cc.library.entity.BorrowRecord;
 import com.cc.library.entity.User;
 import com.cc.library.entity.Book;
+import com.cc.library.entity.JobCheckpoint;
+import com.cc.library.entity.OutboxEvent;
 import com.cc.library.repository.BorrowRecordRepository;
+import com.cc.library.repository.JobCheckpointRepository;
+import com.cc.library.repository.OutboxEventRepository;
 import com.cc.library.repository.UserRepository;
 import com.cc.library.repository.BookRepository;
 import com.cc.library.service.BorrowRecordService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class BorrowRecordServiceImpl implements BorrowRecordService {
     private final BorrowRecordRepository borrowRecordRepository;
     private final UserRepository userRepository;
     private final BookRepository bookRepository;
+    private final EntityManager entityManager;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private static final String OVERDUE_SWEEP = "overdue-sweep";
+    private static final LocalDateTime SWEEP_ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Value("${app.borrow.overdue-chunk-size:500}")
+    private int overdueChunkSize;
+
+    @Value("${app.borrow.overdue-rescan-ms:600000}")
+    private long overdueRescanMs;
 
     @Override
     @Transactional
@@ -43,20 +74,30 @@ public class BorrowRecordServiceImpl implements BorrowRecordService {
 
     @Override
     @Transactional
+    @Timed(value = "library.borrow.approve", description = "审批借阅（扣减库存）")
     public BorrowRecord approveBorrowRequest(Long recordId) {
         BorrowRecord record = borrowRecordRepository.findById(recordId)
                 .orElseThrow(() -> new RuntimeException("Borrow record not found"));
         if (record.getStatus() != BorrowRecord.BorrowStatus.PENDING) {
             throw new RuntimeException("Record is not pending");
         }
+        LocalDateTime now = LocalDateTime.now();
+        // 审批时已过应还日期的直接记为逾期：逾期扫描只处理高水位之后到期的借阅
+        BorrowRecord.BorrowStatus next = record.getDueDate().isBefore(now)
+                ? BorrowRecord.BorrowStatus.OVERDUE
+                : BorrowRecord.BorrowStatus.BORROWED;
+        // 先按状态条件认领申请：同一申请被并发审批时，后到的一方等前者提交后更新 0 行
+        if (borrowRecordRepository.updateStatus(recordId, BorrowRecord.BorrowStatus.PENDING, next, now) == 0) {
+            throw new RuntimeException("Record is not pending");
+        }
         Book book = record.getBook();
-        if (book.getAvailableCopies() <= 0) {
+        if (bookRepository.decrementAvailableCopies(book.getId(), now) == 0) {
+            // 事务回滚，申请恢复为待审批
             throw new RuntimeException("No available copies");
         }
-        book.setAvailableCopies(book.getAvailableCopies() - 1);
-        record.setStatus(BorrowRecord.BorrowStatus.BORROWED);
-        bookRepository.save(book);
-        return borrowRecordRepository.save(record);
+        syncAvailableCopies(book, -1);
+        syncStatus(record, next, now);
+        return record;
     }
 
     @Override
@@ -67,25 +108,120 @@ public class BorrowRecordServiceImpl implements BorrowRecordService {
         if (record.getStatus() != BorrowRecord.BorrowStatus.PENDING) {
             throw new RuntimeException("Record is not pending");
         }
-        record.setStatus(BorrowRecord.BorrowStatus.REJECTED);
+        LocalDateTime now = LocalDateTime.now();
+        if (borrowRecordRepository.updateStatus(recordId, BorrowRecord.BorrowStatus.PENDING,
+                BorrowRecord.BorrowStatus.REJECTED, now) == 0) {
+            throw new RuntimeException("Record is not pending");
+        }
         // 可扩展：保存拒绝原因
-        return borrowRecordRepository.save(record);
+        syncStatus(record, BorrowRecord.BorrowStatus.REJECTED, now);
+        return record;
     }
 
     @Override
     @Transactional
+    @Timed(value = "library.borrow.return", description = "归还图书（归还库存并写发件箱）")
     public BorrowRecord returnBook(Long recordId) {
         BorrowRecord record = borrowRecordRepository.findById(recordId)
                 .orElseThrow(() -> new RuntimeException("Borrow record not found"));
-        if (record.getStatus() != BorrowRecord.BorrowStatus.BORROWED) {
+        if (record.getStatus() != BorrowRecord.BorrowStatus.BORROWED
+                && record.getStatus() != BorrowRecord.BorrowStatus.OVERDUE) {
+            throw new RuntimeException("Record is not borrowed");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // 与审批相同：重复或并发的归还只有一次能更新成功，库存不会被多加
+        if (borrowRecordRepository.markReturned(recordId, List.of(BorrowRecord.BorrowStatus.BORROWED,
+                BorrowRecord.BorrowStatus.OVERDUE), BorrowRecord.BorrowStatus.RETURNED, now) == 0) {
             throw new RuntimeException("Record is not borrowed");
         }
         Book book = record.getBook();
-        book.setAvailableCopies(book.getAvailableCopies() + 1);
-        record.setStatus(BorrowRecord.BorrowStatus.RETURNED);
-        record.setReturnDate(LocalDateTime.now());
-        bookRepository.save(book);
-        return borrowRecordRepository.save(record);
+        if (bookRepository.incrementAvailableCopies(book.getId(), now) == 0) {
+            // 库存已被管理员调整为满额，归还照常记录，不再增加可借数量
+            log.warn("归还时图书 {} 可借数量已等于总数，未增加库存", book.getId());
+        } else {
+            syncAvailableCopies(book, 1);
+            // 与归还同一事务写入发件箱，由后台投递给预约队列队首，不占用请求线程
+            outboxEventRepository.save(OutboxEvent.copyReleased(book.getId()));
+        }
+        syncStatus(record, BorrowRecord.BorrowStatus.RETURNED, now);
+        record.setReturnDate(now);
+        return record;
+    }
+
+    /**
+     * 定时把到期未还的借阅标记为逾期。
+     */
+    @Scheduled(fixedDelayString = "${app.borrow.overdue-sweep-interval-ms:300000}",
+            initialDelayString = "${app.borrow.overdue-sweep-interval-ms:300000}")
+    @Timed(value = "library.borrow.overdue.sweep", description = "逾期扫描定时任务")
+    public void sweepOverdueLoans() {
+        markOverdueLoans(LocalDateTime.now());
+    }
+
+    /**
+     * 增量逾期扫描：只处理上次高水位到本次截止时间之间到期的借阅。
+     * 每批在独立事务中更新状态并推进高水位，中途失败时下次从已提交的位置继续。
+     * <p>
+     * 查询之后才提交的借阅（例如审批事务开始时尚未到期、提交时已过期）可能落在本轮区间内却没被读到，
+     * 因此高水位只推进到截止时间之前的重扫窗口起点，下一轮会重新检查这段区间，已标记的记录不再匹配。
+     */
+    @Override
+    public JobReport markOverdueLoans(LocalDateTime now) {
+        long start = System.currentTimeMillis();
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        LocalDateTime from = jobCheckpointRepository.findById(OVERDUE_SWEEP)
+                .map(JobCheckpoint::getHighWaterMark)
+                .orElse(SWEEP_ORIGIN);
+        LocalDateTime rescanFrom = now.minusNanos(overdueRescanMs * 1_000_000);
+        LocalDateTime settled = rescanFrom.isAfter(from) ? rescanFrom : from;
+        long processed = 0;
+        int chunks = 0;
+        Integer updated;
+        while ((updated = chunkTransaction.execute(status -> sweepChunk(from, now, settled))) != null) {
+            processed += updated;
+            chunks++;
+        }
+        chunkTransaction.executeWithoutResult(status -> saveCheckpoint(settled));
+
+        JobReport report = new JobReport(OVERDUE_SWEEP, processed, chunks, System.currentTimeMillis() - start);
+        log.info("逾期扫描完成: 标记 {} 条, {} 批, 耗时 {} ms", report.rowsProcessed(), report.chunks(), report.durationMs());
+        return report;
+    }
+
+    // 已更新的记录不再是 BORROWED，因此每批都从区间起点重新读取索引头部；返回 null 表示区间已处理完
+    private Integer sweepChunk(LocalDateTime from, LocalDateTime to, LocalDateTime settled) {
+        List<BorrowRecordRepository.DueLoan> due = borrowRecordRepository.findDueLoans(
+                BorrowRecord.BorrowStatus.BORROWED, from, to, PageRequest.of(0, overdueChunkSize));
+        if (due.isEmpty()) {
+            return null;
+        }
+        List<Long> ids = due.stream().map(BorrowRecordRepository.DueLoan::getId).toList();
+        int updated = borrowRecordRepository.updateStatusByIdIn(ids,
+                BorrowRecord.BorrowStatus.BORROWED, BorrowRecord.BorrowStatus.OVERDUE, LocalDateTime.now());
+        LocalDateTime lastDue = due.get(due.size() - 1).getDueDate();
+        saveCheckpoint(lastDue.isBefore(settled) ? lastDue : settled);
+        return updated;
+    }
+
+    private void saveCheckpoint(LocalDateTime highWaterMark) {
+        JobCheckpoint checkpoint = new JobCheckpoint();
+        checkpoint.setName(OVERDUE_SWEEP);
+        checkpoint.setHighWaterMark(highWaterMark);
+        jobCheckpointRepository.save(checkpoint);
+    }
+
+    // 库存已由条件 UPDATE 在数据库中修改；把已加载的图书移出持久化上下文后再同步内存值，
+    // 既让返回结果反映最新库存，又避免脏检查把旧快照整行写回、覆盖并发的修改
+    private void syncAvailableCopies(Book book, int delta) {
+        entityManager.detach(book);
+        book.setAvailableCopies(book.getAvailableCopies() + delta);
+    }
+
+    // 状态已由条件更新写入；实体脱离持久化上下文后再同步返回值，提交时不会再发一条 UPDATE
+    private void syncStatus(BorrowRecord record, BorrowRecord.BorrowStatus status, LocalDateTime now) {
+        entityManager.detach(record);
+        record.setStatus(status);
+        record.setUpdatedAt(now);
     }
 
     @Override
@@ -98,28 +234,57 @@ public class BorrowRecordServiceImpl implements BorrowRecordService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BorrowRecord getBorrowRecordById(Long id) {
         return borrowRecordRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Borrow record not found"));
     }
 
     @Override
-    public Page<BorrowRecord> getBorrowRecordsByUser(User user, Pageable pageable) {
-        return borrowRecordRepository.findByUser(user, pageable);
+    @Transactional(readOnly = true)
+    public Page<LoanRow> getBorrowRecordsByUser(User user, Pageable pageable) {
+        return borrowRecordRepository.findRowsByUser(user, pageable);
     }
 
     @Override
-    public List<BorrowRecord> getOverdueRecords(LocalDateTime now) {
-        return borrowRecordRepository.findByStatusAndDueDateBefore(BorrowRecord.BorrowStatus.BORROWED, now);
+    @Transactional(readOnly = true)
+    public Page<LoanRow> getOverdueRecords(Pageable pageable) {
+        return borrowRecordRepository.findRowsByStatusOrderByDueDate(BorrowRecord.BorrowStatus.OVERDUE, pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BorrowRecord> getRecordsByStatus(BorrowRecord.BorrowStatus status) {
         return borrowRecordRepository.findByStatus(status);
     }
 
     @Override
-    public Page<BorrowRecord> getAllBorrowRecords(Pageable pageable) {
-        return borrowRecordRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public long streamOverdueRecords(Consumer<? super LoanRow> action) {
+        return EntityStreams.forEach(
+                borrowRecordRepository.streamRowsByStatusOrderByDueDate(BorrowRecord.BorrowStatus.OVERDUE), entityManager, action);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long streamRecordsByStatus(BorrowRecord.BorrowStatus status, Consumer<? super LoanRow> action) {
+        return EntityStreams.forEach(borrowRecordRepository.streamRowsByStatus(status), entityManager, action);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<LoanRow> getAllBorrowRecords(Pageable pageable) {
+        return borrowRecordRepository.findAllRows(pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<LoanRow> getBorrowRecordsAfter(String after, int size) {
+        CursorPage.Cursor cursor = CursorPage.decode(after);
+        Pageable limit = CursorPage.limit(size);
+        List<LoanRow> rows = cursor == null
+                ? borrowRecordRepository.findFirstRowsOrderByBorrowDate(limit)
+                : borrowRecordRepository.findRowsBeforeBorrowDate(cursor.sortKeyAsDateTime(), cursor.id(), limit);
+        return CursorPage.of(rows, size, row -> row.borrowDate().toString(), LoanRow::id);
     }
 } 
\ No newline at end of file
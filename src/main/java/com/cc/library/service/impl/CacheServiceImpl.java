@@ -0,0 +1,40 @@
+package com.cc.library.service.impl;
+
+import com.cc.library.config.EntityCacheProperties;
+import com.cc.library.dto.CacheRegionStats;
+import com.cc.library.exception.BusinessException;
+import com.cc.library.service.CacheService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class CacheServiceImpl implements CacheService {
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityCacheProperties cacheProperties;
+
+    @Override
+    public List<CacheRegionStats> getRegionStats() {
+        SessionFactory sessionFactory = sessionFactory();
+        return cacheProperties.getRegions().keySet().stream()
+                .map(region -> CacheRegionStats.from(region,
+                        sessionFactory.getStatistics().getDomainDataRegionStatistics(region)))
+                .toList();
+    }
+
+    @Override
+    public void evictRegion(String region) {
+        if (!cacheProperties.getRegions().containsKey(region)) {
+            throw new BusinessException("CACHE_REGION_NOT_FOUND", "缓存区域不存在");
+        }
+        sessionFactory().getCache().evictRegion(region);
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
@@ -0,0 +1,136 @@
+package com.cc.library.service.impl;
+
+import com.cc.library.dto.MarcImportProgress;
+import com.cc.library.exception.BusinessException;
+import com.cc.library.importer.BookBatchWriter;
+import com.cc.library.importer.marc.MarcBookMapper;
+import com.cc.library.importer.marc.MarcFormat;
+import com.cc.library.importer.marc.MarcImportJob;
+import com.cc.library.service.MarcImportService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Service
+public class MarcImportServiceImpl implements MarcImportService {
+    // 保留最近的任务供查询进度
+    private static final int RETAINED_JOBS = 20;
+
+    private final BookBatchWriter bookBatchWriter;
+    private final Path directory;
+    private final MarcBookMapper mapper;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int maxErrors;
+    // 每个任务占用两个线程：解析和写入
+    private final ExecutorService executor;
+    private final Map<String, MarcImportJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, MarcImportJob> eldest) {
+            return size() > RETAINED_JOBS && !eldest.getValue().isRunning();
+        }
+    };
+
+    public MarcImportServiceImpl(BookBatchWriter bookBatchWriter,
+                                 @Value("${app.marc-import.directory:imports}") String directory,
+                                 @Value("${app.marc-import.default-category:未分类}") String defaultCategory,
+                                 @Value("${app.book-import.batch-size:1000}") int batchSize,
+                                 @Value("${app.marc-import.queue-capacity:4}") int queueCapacity,
+                                 @Value("${app.marc-import.max-errors:1000}") int maxErrors) {
+        this.bookBatchWriter = bookBatchWriter;
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.mapper = new MarcBookMapper(defaultCategory);
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.maxErrors = maxErrors;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "marc-import-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public synchronized MarcImportProgress startImport(String fileName, String format) {
+        for (MarcImportJob job : jobs.values()) {
+            if (job.isRunning()) {
+                throw new BusinessException("MARC_IMPORT_RUNNING", "已有 MARC 导入任务在进行: " + job.getId());
+            }
+        }
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.startsWith(directory)) {
+            throw new BusinessException("INVALID_IMPORT_FILE", "导入文件必须位于导入目录中");
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new BusinessException("IMPORT_FILE_NOT_FOUND", "导入文件不存在: " + fileName);
+        }
+        MarcFormat marcFormat = format == null || format.isBlank()
+                ? MarcFormat.fromFileName(fileName) : parseFormat(format);
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        MarcImportJob job = new MarcImportJob(UUID.randomUUID().toString(), file, marcFormat, size, mapper,
+                bookBatchWriter, batchSize, queueCapacity, maxErrors);
+        jobs.put(job.getId(), job);
+        executor.execute(job::parse);
+        executor.execute(job::persist);
+        log.info("开始 MARC 导入 {}: {}（{}，{} 字节）", job.getId(), file, marcFormat, size);
+        return job.progress();
+    }
+
+    @Override
+    public synchronized MarcImportProgress getProgress(String id) {
+        return findJob(id).progress();
+    }
+
+    @Override
+    public synchronized MarcImportProgress cancelImport(String id) {
+        MarcImportJob job = findJob(id);
+        job.cancel();
+        return job.progress();
+    }
+
+    private MarcImportJob findJob(String id) {
+        MarcImportJob job = jobs.get(id);
+        if (job == null) {
+            throw new BusinessException("MARC_IMPORT_NOT_FOUND", "导入任务不存在: " + id);
+        }
+        return job;
+    }
+
+    private static MarcFormat parseFormat(String format) {
+        try {
+            return MarcFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("UNSUPPORTED_IMPORT_FORMAT", "仅支持 ISO2709 或 MARCXML 格式");
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        synchronized (this) {
+            jobs.values().forEach(MarcImportJob::cancel);
+        }
+        executor.shutdown();
+    }
+}
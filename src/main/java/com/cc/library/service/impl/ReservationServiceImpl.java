@@ -1,30 +1,48 @@
 package com.cc.library.service.impl;
 
+import com.cc.library.common.CursorPage;
+import com.cc.library.common.JobReport;
+import com.cc.library.common.TransactionCallbacks;
 import com.cc.library.dto.ReviewRequest;
 import com.cc.library.entity.Book;
+import com.cc.library.entity.BorrowRecord;
+import com.cc.library.entity.OutboxEvent;
 import com.cc.library.entity.User;
 import com.cc.library.model.Reservation;
 import com.cc.library.model.ReservationStatus;
 import com.cc.library.model.Review;
 import com.cc.library.model.ReviewStatus;
 import com.cc.library.repository.BookRepository;
+import com.cc.library.repository.BorrowRecordRepository;
+import com.cc.library.repository.OutboxEventRepository;
 import com.cc.library.repository.ReservationRepository;
 import com.cc.library.repository.ReviewRepository;
 import com.cc.library.repository.UserRepository;
+import com.cc.library.reservation.ReservationQueue;
 import com.cc.library.service.ReservationService;
 import com.cc.library.service.ReviewService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class ReservationServiceImpl implements ReservationService {
 
@@ -37,6 +55,30 @@ public class ReservationServiceImpl implements ReservationService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private BorrowRecordRepository borrowRecordRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ReservationQueue reservationQueue;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.reservation.expiry-chunk-size:500}")
+    private int expiryChunkSize;
+
+    @Value("${app.reservation.pickup-days:3}")
+    private int pickupDays;
+
+    @Value("${app.reservation.loan-days:14}")
+    private int loanDays;
+
     @Override
     @Transactional
     public Reservation createReservation(Long bookId, Long userId) {
@@ -59,7 +101,7 @@ public class ReservationServiceImpl implements ReservationService {
         }
 
         // Get the current position in the reservation queue
-        long queuePosition = reservationRepository.countByBookIdAndStatus(bookId, ReservationStatus.PENDING) + 1;
+        int queuePosition = reservationQueue.size(bookId) + 1;
 
         Reservation reservation = new Reservation();
         reservation.setBook(book);
@@ -70,7 +112,10 @@ public class ReservationServiceImpl implements ReservationService {
         // Set expiration date (7 days from now)
         reservation.setExpirationDate(LocalDateTime.now().plusDays(7));
 
-        return reservationRepository.save(reservation);
+        Reservation saved = reservationRepository.save(reservation);
+        saved.setQueuePosition(queuePosition);
+        TransactionCallbacks.afterCommit(() -> reservationQueue.enqueue(bookId, saved.getId()));
+        return saved;
     }
 
     @Override
@@ -89,23 +134,46 @@ public class ReservationServiceImpl implements ReservationService {
             throw new RuntimeException("Only pending reservations can be cancelled");
         }
 
-        reservation.setStatus(ReservationStatus.CANCELLED);
-        reservationRepository.save(reservation);
+        // Conditional transition: a concurrent fulfil or expiry wins and the held copy is released only once
+        if (reservationRepository.updateStatusByIdIn(List.of(reservationId),
+                ReservationStatus.PENDING, ReservationStatus.CANCELLED) == 0) {
+            throw new RuntimeException("Only pending reservations can be cancelled");
+        }
+        if (reservation.getOfferedAt() != null) {
+            releaseHeldCopy(reservation.getBook().getId());
+        }
+        TransactionCallbacks.afterCommit(() -> reservationQueue.remove(reservationId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Reservation> getUserReservations(Long userId, Pageable pageable) {
-        return reservationRepository.findByUserIdOrderByReservationDateDesc(userId, pageable);
+        return withQueuePositions(reservationRepository.findByUserIdOrderByReservationDateDesc(userId, pageable));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Reservation> getAllReservations(Pageable pageable) {
-        return reservationRepository.findAll(pageable);
+        return withQueuePositions(reservationRepository.findAll(pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Reservation> getAllReservationsAfter(String after, int size) {
+        CursorPage.Cursor cursor = CursorPage.decode(after);
+        Pageable limit = CursorPage.limit(size);
+        List<Reservation> rows = cursor == null
+                ? reservationRepository.findFirstPageOrderByReservationDate(limit)
+                : reservationRepository.findPageBeforeReservationDate(cursor.sortKeyAsDateTime(), cursor.id(), limit);
+        withQueuePositions(rows);
+        return CursorPage.of(rows, size, reservation -> reservation.getReservationDate().toString(), Reservation::getId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Reservation> getReservationById(Long reservationId) {
-        return reservationRepository.findById(reservationId);
+        return reservationRepository.findById(reservationId)
+                .map(reservation -> withQueuePositions(List.of(reservation)).iterator().next());
     }
 
     @Override
@@ -118,9 +186,10 @@ public class ReservationServiceImpl implements ReservationService {
             throw new RuntimeException("Reservation is not pending");
         }
 
-        // Check if the book is actually available
+        // Check if the book is actually available; an offered reservation already has a copy set aside
         Book book = reservation.getBook();
-        if (book.getStatus() != Book.BookStatus.AVAILABLE) {
+        boolean held = reservation.getOfferedAt() != null;
+        if (!held && book.getStatus() != Book.BookStatus.AVAILABLE) {
             throw new RuntimeException("Book is not yet available");
         }
 
@@ -130,10 +199,30 @@ public class ReservationServiceImpl implements ReservationService {
             throw new RuntimeException("Reservation has expired");
         }
 
-        reservation.setStatus(ReservationStatus.FULFILLED);
-        reservation.setFulfillmentDate(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        // Claim the reservation first so a concurrent fulfil or cancel cannot hand out the same copy twice
+        if (reservationRepository.markFulfilled(reservationId, ReservationStatus.PENDING, ReservationStatus.FULFILLED, now) == 0) {
+            throw new RuntimeException("Reservation is not pending");
+        }
+        // The held copy becomes the loan as is; without an offer a copy is taken off the shelf now
+        if (!held && bookRepository.decrementAvailableCopies(book.getId(), now) == 0) {
+            throw new RuntimeException("Book is not yet available");
+        }
+        BorrowRecord loan = new BorrowRecord();
+        loan.setUser(reservation.getUser());
+        loan.setBook(book);
+        loan.setBorrowDate(now);
+        loan.setDueDate(now.plusDays(loanDays));
+        loan.setStatus(BorrowRecord.BorrowStatus.BORROWED);
+        loan.setRemarks("Reservation " + reservationId);
+        borrowRecordRepository.save(loan);
 
-        return reservationRepository.save(reservation);
+        // The status is already written; detach before syncing the returned entity so commit does not update it again
+        entityManager.detach(reservation);
+        reservation.setStatus(ReservationStatus.FULFILLED);
+        reservation.setFulfillmentDate(now);
+        TransactionCallbacks.afterCommit(() -> reservationQueue.remove(reservationId));
+        return reservation;
     }
 
     /**
@@ -141,19 +230,93 @@ public class ReservationServiceImpl implements ReservationService {
      * Runs every day at midnight
      */
     @Scheduled(cron = "0 0 0 * * ?")
-    @Transactional
+    @Timed(value = "library.reservations.expiry", description = "Scheduled reservation expiry job")
     public void handleExpiredReservations() {
-        LocalDateTime now = LocalDateTime.now();
-        List<Reservation> expiredReservations = reservationRepository.findAll().stream()
-                .filter(r -> r.getStatus() == ReservationStatus.PENDING &&
-                        r.getExpirationDate() != null &&
-                        r.getExpirationDate().isBefore(now))
-                .collect(Collectors.toList());
+        expireReservations(LocalDateTime.now());
+    }
+
+    @Override
+    public JobReport expireReservations(LocalDateTime cutoff) {
+        long start = System.currentTimeMillis();
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        Pageable chunk = PageRequest.of(0, expiryChunkSize);
+        long processed = 0;
+        int chunks = 0;
+        while (true) {
+            // Expired rows leave the PENDING set once updated, so every chunk reads the head of the index again
+            Integer updated = chunkTransaction.execute(status -> {
+                List<ReservationRepository.ExpiredReservation> expired = reservationRepository.findExpired(
+                        ReservationStatus.PENDING, cutoff, chunk);
+                if (expired.isEmpty()) {
+                    return null;
+                }
+                List<Long> waiting = new ArrayList<>();
+                int count = 0;
+                for (ReservationRepository.ExpiredReservation reservation : expired) {
+                    if (reservation.getOfferedAt() == null) {
+                        waiting.add(reservation.getId());
+                    } else if (reservationRepository.updateStatusByIdIn(List.of(reservation.getId()),
+                            ReservationStatus.PENDING, ReservationStatus.CANCELLED) == 1) {
+                        // Pickup deadline missed: pass the held copy on to the next in line
+                        releaseHeldCopy(reservation.getBookId());
+                        count++;
+                    }
+                }
+                if (!waiting.isEmpty()) {
+                    TransactionCallbacks.afterCommit(() -> reservationQueue.removeAll(waiting));
+                    count += reservationRepository.updateStatusByIdIn(waiting, ReservationStatus.PENDING, ReservationStatus.CANCELLED);
+                }
+                return count;
+            });
+            if (updated == null) {
+                break;
+            }
+            processed += updated;
+            chunks++;
+        }
+        JobReport report = new JobReport("reservation-expiry", processed, chunks, System.currentTimeMillis() - start);
+        log.info("Expired {} reservations in {} chunks, took {} ms", report.rowsProcessed(), report.chunks(), report.durationMs());
+        return report;
+    }
 
-        for (Reservation reservation : expiredReservations) {
-            reservation.setStatus(ReservationStatus.CANCELLED);
-            reservationRepository.save(reservation);
+    @Override
+    @Transactional
+    public Optional<Long> offerReleasedCopy(Long bookId) {
+        LocalDateTime now = LocalDateTime.now();
+        // Hold the copy first; if it was borrowed in the meantime there is nothing to offer
+        if (reservationQueue.size(bookId) == 0 || bookRepository.decrementAvailableCopies(bookId, now) == 0) {
+            return Optional.empty();
+        }
+        // Stale entries were changed by a transaction whose after-commit hook has not run yet. They are skipped
+        // by rank and, like the offered entry, leave the queue only after this transaction commits,
+        // so a rollback cannot lose a live entry
+        List<Long> leaving = new ArrayList<>();
+        Optional<Long> head;
+        int rank = 1;
+        while ((head = reservationQueue.peek(bookId, rank)).isPresent()) {
+            Long reservationId = head.get();
+            if (reservationRepository.markOffered(reservationId, ReservationStatus.PENDING, now, now.plusDays(pickupDays)) == 1) {
+                leaving.add(reservationId);
+                TransactionCallbacks.afterCommit(() -> reservationQueue.removeAll(leaving));
+                log.info("Offered a released copy of book {} to reservation {}", bookId, reservationId);
+                return head;
+            }
+            leaving.add(reservationId);
+            rank++;
         }
+        if (!leaving.isEmpty()) {
+            TransactionCallbacks.afterCommit(() -> reservationQueue.removeAll(leaving));
+        }
+        bookRepository.incrementAvailableCopies(bookId, now);
+        return Optional.empty();
+    }
+
+    /**
+     * Put a copy that was set aside for a reservation back on the shelf and let the dispatcher offer it to the next in line.
+     */
+    private void releaseHeldCopy(Long bookId) {
+        bookRepository.incrementAvailableCopies(bookId, LocalDateTime.now());
+        outboxEventRepository.save(OutboxEvent.copyReleased(bookId));
     }
 
     /**
@@ -161,9 +324,28 @@ public class ReservationServiceImpl implements ReservationService {
      * @param bookId The ID of the book
      * @return The next pending reservation, if any
      */
+    @Transactional(readOnly = true)
     public Optional<Reservation> getNextPendingReservation(Long bookId) {
-        List<Reservation> pendingReservations = reservationRepository
-                .findByBookIdAndStatusOrderByReservationDateAsc(bookId, ReservationStatus.PENDING);
-        return pendingReservations.isEmpty() ? Optional.empty() : Optional.of(pendingReservations.get(0));
+        return reservationQueue.peek(bookId).flatMap(this::getReservationById);
+    }
+
+    /**
+     * Fill in the queue position of every pending reservation; books not yet queued in memory are loaded together.
+     */
+    private <C extends Iterable<Reservation>> C withQueuePositions(C reservations) {
+        Map<Long, Long> bookByReservation = new HashMap<>();
+        for (Reservation reservation : reservations) {
+            if (reservation.getStatus() == ReservationStatus.PENDING) {
+                bookByReservation.put(reservation.getId(), reservation.getBook().getId());
+            }
+        }
+        if (bookByReservation.isEmpty()) {
+            return reservations;
+        }
+        Map<Long, Integer> positions = reservationQueue.positions(bookByReservation);
+        for (Reservation reservation : reservations) {
+            reservation.setQueuePosition(positions.get(reservation.getId()));
+        }
+        return reservations;
     }
 } 
\ No newline at end of file
@@ -17,7 +17,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class ReviewServiceImpl implements ReviewService {
@@ -56,15 +55,15 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Review> getReviewsByBookId(Long bookId) {
         // Fetch only approved reviews for readers
-        // If moderation is not needed, remove the status check
-        return reviewRepository.findByBookIdOrderByCreatedAtDesc(bookId).stream()
-                .filter(review -> review.getStatus() == ReviewStatus.APPROVED)
-                .collect(Collectors.toList());
+        // If moderation is not needed, use findByBookIdOrderByCreatedAtDesc instead
+        return reviewRepository.findByBookIdAndStatusOrderByCreatedAtDesc(bookId, ReviewStatus.APPROVED);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Review> getAllReviews(Pageable pageable) {
         return reviewRepository.findAll(pageable);
     }
@@ -88,6 +87,7 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Review> getReviewById(Long reviewId) {
         return reviewRepository.findById(reviewId);
     }
@@ -0,0 +1,226 @@
+package com.cc.library.service.impl;
+
+import com.cc.library.dto.UserImportReport;
+import com.cc.library.dto.UserImportRow;
+import com.cc.library.entity.User;
+import com.cc.library.importer.ImportReader;
+import com.cc.library.repository.UserRepository;
+import com.cc.library.service.UserImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportServiceImpl implements UserImportService {
+    private final UserRepository userRepository;
+    private final BCryptPasswordEncoder bcryptPasswordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    private static final List<String> COLUMNS = List.of("username", "password", "name", "email", "phone");
+    private static final String INSERT_USER = "INSERT INTO users (username, password, name, email, phone, role, status, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // 与注册接口 UserRegistrationRequest 的校验规则一致
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+$");
+    private static final Pattern PHONE = Pattern.compile("^1[3-9]\\d{9}$");
+
+    @Value("${app.user-import.batch-size:500}")
+    private int batchSize;
+
+    // 0 表示使用全部 CPU 核
+    @Value("${app.user-import.hash-parallelism:0}")
+    private int hashParallelism;
+
+    private ForkJoinPool hashPool;
+
+    @PostConstruct
+    void init() {
+        int parallelism = hashParallelism > 0 ? hashParallelism : Runtime.getRuntime().availableProcessors();
+        hashPool = new ForkJoinPool(parallelism);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashPool.shutdown();
+    }
+
+    @Override
+    public UserImportReport importUsers(InputStream in, String contentType) {
+        UserImportReport report = new UserImportReport();
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<UserImportRow> chunk = new ArrayList<>(batchSize);
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+
+        try (ImportReader<UserImportRow> reader = ImportReader.open(in, contentType, UserImportRow.class, COLUMNS, objectMapper)) {
+            while (reader.hasNext()) {
+                UserImportRow row = reader.next();
+                report.setTotal(report.getTotal() + 1);
+                String error = validate(row);
+                if (error == null && !seenUsernames.add(row.getUsername())) {
+                    error = "用户名在导入文件中重复";
+                }
+                if (error == null && !seenEmails.add(row.getEmail())) {
+                    error = "邮箱在导入文件中重复";
+                }
+                if (error != null) {
+                    report.reject(row, error);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() >= batchSize) {
+                    importChunk(chunk, report, chunkTransaction);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // 格式错误之后的内容无法可靠解析，已读出的行照常导入
+            UserImportRow broken = new UserImportRow();
+            broken.setRow(report.getTotal() + 1);
+            report.reject(broken, "文件解析失败，后续内容未导入: " + e.getMessage());
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, report, chunkTransaction);
+        }
+        // 查重失败在整批处理时才记录，按行号排序便于对照原文件
+        report.getErrors().sort(Comparator.comparingInt(UserImportReport.RowError::getRow));
+        log.info("批量导入用户：共 {} 行，成功 {}，失败 {}", report.getTotal(), report.getImported(), report.getFailed());
+        return report;
+    }
+
+    private static String validate(UserImportRow row) {
+        if (isBlank(row.getUsername())) {
+            return "用户名不能为空";
+        }
+        if (row.getUsername().length() < 4 || row.getUsername().length() > 20) {
+            return "用户名长度必须在4-20个字符之间";
+        }
+        if (isBlank(row.getPassword())) {
+            return "密码不能为空";
+        }
+        if (row.getPassword().length() < 6 || row.getPassword().length() > 20) {
+            return "密码长度必须在6-20个字符之间";
+        }
+        if (isBlank(row.getName())) {
+            return "姓名不能为空";
+        }
+        if (isBlank(row.getEmail())) {
+            return "邮箱不能为空";
+        }
+        if (!EMAIL.matcher(row.getEmail()).matches()) {
+            return "邮箱格式不正确";
+        }
+        if (row.getPhone() != null && !PHONE.matcher(row.getPhone()).matches()) {
+            return "手机号格式不正确";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * 一批行：两条集合查询排除已存在的用户名和邮箱，并行计算 BCrypt，再一次 JDBC 批量插入。
+     */
+    private void importChunk(List<UserImportRow> chunk, UserImportReport report, TransactionTemplate chunkTransaction) {
+        Set<String> takenUsernames = userRepository.findExistingUsernames(chunk.stream().map(UserImportRow::getUsername).toList());
+        Set<String> takenEmails = userRepository.findExistingEmails(chunk.stream().map(UserImportRow::getEmail).toList());
+        List<UserImportRow> accepted = new ArrayList<>(chunk.size());
+        for (UserImportRow row : chunk) {
+            if (takenUsernames.contains(row.getUsername())) {
+                report.reject(row, "用户名已存在");
+            } else if (takenEmails.contains(row.getEmail())) {
+                report.reject(row, "邮箱已被注册");
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = hashPool.submit(() -> accepted.parallelStream()
+                .map(row -> bcryptPasswordEncoder.encode(row.getPassword()))
+                .toList()).join();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        try {
+            chunkTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_USER, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    bind(ps, accepted.get(i), hashes.get(i), now);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return accepted.size();
+                }
+            }));
+            report.setImported(report.getImported() + accepted.size());
+        } catch (DataIntegrityViolationException e) {
+            // 查重之后有并发注册抢占了用户名或邮箱，整批已回滚，逐行重试以定位冲突的行
+            for (int i = 0; i < accepted.size(); i++) {
+                UserImportRow row = accepted.get(i);
+                String hash = hashes.get(i);
+                try {
+                    jdbcTemplate.update(INSERT_USER, ps -> bind(ps, row, hash, now));
+                    report.setImported(report.getImported() + 1);
+                } catch (DataIntegrityViolationException rowError) {
+                    report.reject(row, conflictOf(row));
+                }
+            }
+        }
+    }
+
+    // 唯一约束名由 Hibernate 生成、各数据库报错格式也不同，按冲突后的数据判断是哪一列
+    private String conflictOf(UserImportRow row) {
+        if (userRepository.existsByUsername(row.getUsername())) {
+            return "用户名已存在";
+        }
+        if (userRepository.existsByEmail(row.getEmail())) {
+            return "邮箱已被注册";
+        }
+        return "写入失败，数据与已有记录冲突";
+    }
+
+    private static void bind(PreparedStatement ps, UserImportRow row, String hash, Timestamp now) throws SQLException {
+        ps.setString(1, row.getUsername());
+        ps.setString(2, hash);
+        ps.setString(3, row.getName());
+        ps.setString(4, row.getEmail());
+        ps.setString(5, row.getPhone());
+        ps.setString(6, User.UserRole.READER.name());
+        ps.setString(7, User.UserStatus.ACTIVE.name());
+        ps.setTimestamp(8, now);
+        ps.setTimestamp(9, now);
+    }
+}
@@ -4,6 +4,7 @@ import com.cc.library.entity.User;
 import com.cc.library.dto.UserDto;
 import com.cc.library.exception.BusinessException;
 import com.cc.library.repository.UserRepository;
+import com.cc.library.security.TokenVersionRegistry;
 import com.cc.library.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -19,6 +20,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
     @Override
     @Transactional
@@ -49,6 +51,12 @@ public class UserServiceImpl implements UserService {
             throw new BusinessException("EMAIL_EXISTS", "邮箱已被注册");
         }
 
+        // 用户名、角色、状态或密码变化后，已签发的令牌里的声明不再可信
+        boolean credentialsChanged = !existingUser.getUsername().equals(user.getUsername())
+                || existingUser.getRole() != user.getRole()
+                || existingUser.getStatus() != user.getStatus()
+                || (user.getPassword() != null && !user.getPassword().isEmpty());
+
         existingUser.setUsername(user.getUsername());
         existingUser.setName(user.getName());
         existingUser.setEmail(user.getEmail());
@@ -60,6 +68,9 @@ public class UserServiceImpl implements UserService {
             existingUser.setPassword(passwordEncoder.encode(user.getPassword()));
         }
 
+        if (credentialsChanged) {
+            tokenVersionRegistry.revoke(id);
+        }
         return userRepository.save(existingUser);
     }
 
@@ -70,36 +81,43 @@ public class UserServiceImpl implements UserService {
             throw new BusinessException("USER_NOT_FOUND", "用户不存在");
         }
         userRepository.deleteById(id);
+        tokenVersionRegistry.revoke(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User getUserById(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new BusinessException("USER_NOT_FOUND", "用户不存在"));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User getUserByUsername(String username) {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new BusinessException("USER_NOT_FOUND", "用户不存在"));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<User> getAllUsers(Pageable pageable) {
         return userRepository.findAll(pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean existsByUsername(String username) {
         return userRepository.existsByUsername(username);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDto getUserProfileDto(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new BusinessException("USER_NOT_FOUND", "用户不存在"));
@@ -107,6 +125,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDto getCurrentUserProfileDto() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
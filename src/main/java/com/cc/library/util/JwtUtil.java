@@ -1,29 +1,88 @@
 package com.cc.library.util;
 
+import com.cc.library.entity.User;
+import com.cc.library.security.TokenVersionRegistry;
+import com.cc.library.security.UserPrincipal;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
 
+    // 令牌声明：用户 ID、角色、令牌版本，认证时据此还原用户而不查库
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_TOKEN_VERSION = "ver";
+
+    private final TokenVersionRegistry tokenVersionRegistry;
+
     @Value("${app.security.jwt.secret}")
     private String secret;
 
     @Value("${app.security.jwt.expiration}")
     private long jwtExpiration;
 
+    @Value("${app.security.jwt.verified-cache-size:10000}")
+    private long verifiedCacheSize;
+
+    // 密钥和解析器在应用生命周期内只构建一次（两者均线程安全）
+    private Key signingKey;
+    private JwtParser parser;
+    // 已验签令牌：键为令牌的 SHA-256 摘要（不在堆里保存原始令牌），条目随令牌的 exp 一起过期
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    private record VerifiedToken(UserPrincipal principal, long expiresAtMillis) {
+    }
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        return Math.max(0, value.expiresAtMillis() - System.currentTimeMillis()) * 1_000_000;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -38,33 +97,59 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * 一次解析完成验签、过期检查并还原用户；同一令牌再次出现时直接命中已验签缓存。
+     * 缓存只省去验签和解析，吊销仍由调用方按令牌版本检查。
+     * @throws JwtException 签名无效、已过期，或缺少用户声明（升级前签发的旧令牌）
+     */
+    public UserPrincipal parseToken(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && cached.expiresAtMillis() > System.currentTimeMillis()) {
+            return cached.principal();
+        }
+        Claims claims = extractAllClaims(token);
+        UserPrincipal principal = toPrincipal(claims);
+        // 验签失败的令牌不进缓存，伪造的令牌无法挤占缓存；没有 exp 的令牌也不缓存
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(digest, new VerifiedToken(principal, claims.getExpiration().getTime()));
+        }
+        return principal;
+    }
+
+    private static UserPrincipal toPrincipal(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Number tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        if (userId == null || role == null || tokenVersion == null) {
+            throw new JwtException("Token is missing user claims");
+        }
+        return new UserPrincipal(userId.longValue(), claims.getSubject(), User.UserRole.valueOf(role), tokenVersion.intValue());
     }
 
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    public String generateToken(User user) {
+        return generateToken(new HashMap<>(), user);
     }
 
-    public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+    public String generateToken(Map<String, Object> extraClaims, User user) {
+         return buildToken(withUserClaims(extraClaims, user), user, jwtExpiration);
     }
 
-    public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-         return buildToken(extraClaims, userDetails, jwtExpiration);
+     public String generateRefreshToken(User user) {
+        return buildToken(withUserClaims(new HashMap<>(), user), user, jwtExpiration * 7); // Example: refresh token is 7 times longer
     }
 
-     public String generateRefreshToken(UserDetails userDetails) {
-        return buildToken(new HashMap<>(), userDetails, jwtExpiration * 7); // Example: refresh token is 7 times longer
+    private Map<String, Object> withUserClaims(Map<String, Object> extraClaims, User user) {
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_ROLE, user.getRole().name());
+        claims.put(CLAIM_TOKEN_VERSION, tokenVersionRegistry.currentVersion(user.getId()));
+        return claims;
     }
 
     private String buildToken(
@@ -78,12 +163,17 @@ public class JwtUtil {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String digest(String token) {
+        try {
+            // MessageDigest 实例不是线程安全的，每次新建（开销远小于一次验签）
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,54 @@
+package com.cc.library.common;
+
+import com.cc.library.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorPageTest {
+
+    @Test
+    void usesLookaheadRowToDetectNextPage() {
+        CursorPage<String> page = CursorPage.of(List.of("a|1", "b|2", "c|3"), 2, Function.identity(), row -> 7L);
+        assertTrue(page.isHasNext());
+        assertEquals(List.of("a|1", "b|2"), page.getContent());
+
+        CursorPage.Cursor cursor = CursorPage.decode(page.getNextCursor());
+        // 排序键本身含分隔符时也能还原
+        assertEquals("b|2", cursor.sortKey());
+        assertEquals(7L, cursor.id());
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        CursorPage<String> page = CursorPage.of(List.of("a"), 2, Function.identity(), row -> 1L);
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void rejectsPageSizeOutsideLimits() {
+        assertThrows(BusinessException.class, () -> CursorPage.limit(0));
+        assertThrows(BusinessException.class, () -> CursorPage.limit(-5));
+        assertThrows(BusinessException.class, () -> CursorPage.limit(Integer.MAX_VALUE));
+        assertThrows(BusinessException.class, () -> CursorPage.of(List.of("a"), 0, Function.identity(), row -> 1L));
+        assertEquals(CursorPage.MAX_SIZE + 1, CursorPage.limit(CursorPage.MAX_SIZE).getPageSize());
+    }
+
+    @Test
+    void emptyCursorMeansFirstPage() {
+        assertNull(CursorPage.decode(""));
+        assertNull(CursorPage.decode(null));
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThrows(BusinessException.class, () -> CursorPage.decode("not a cursor!"));
+        assertThrows(BusinessException.class, () -> CursorPage.decode(CursorPage.encode("x", 1L).substring(1)));
+        assertThrows(BusinessException.class,
+                () -> CursorPage.decode(CursorPage.encode("yesterday", 1L)).sortKeyAsDateTime());
+    }
+}
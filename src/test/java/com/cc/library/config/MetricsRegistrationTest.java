@@ -0,0 +1,44 @@
+package com.cc.library.config;
+
+import com.cc.library.support.StatementCountTestSupport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 接口延迟、连接池、Hibernate 统计、JVM 以及业务计时器都注册到了 MeterRegistry。
+ * 测试环境不启用 Prometheus 导出，这里直接检查注册表。
+ */
+class MetricsRegistrationTest extends StatementCountTestSupport {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void hotPathsAreTimed() throws Exception {
+        mockMvc.perform(as(readers.get(0), get("/api/books/search").param("keyword", "Book")))
+                .andExpect(status().isOk());
+        mockMvc.perform(as(admin, put("/api/borrow-records/{id}/approve", pendingRecords.get(0).getId())))
+                .andExpect(status().isOk());
+        mockMvc.perform(as(admin, put("/api/borrow-records/{id}/return", borrowedRecords.get(1).getId())))
+                .andExpect(status().isOk());
+
+        Timer search = meterRegistry.find("http.server.requests").tag("uri", "/api/books/search").timer();
+        assertNotNull(search);
+        assertTrue(search.count() >= 1);
+        for (String timer : new String[]{"library.books.search", "library.borrow.approve", "library.borrow.return"}) {
+            assertNotNull(meterRegistry.find(timer).timer(), () -> "missing " + timer);
+            assertTrue(meterRegistry.find(timer).timer().count() >= 1, () -> timer + " not recorded");
+        }
+        for (String meter : new String[]{"hikaricp.connections.active", "hibernate.query.executions",
+                "hibernate.second.level.cache.requests", "jvm.memory.used", "library.password.hashing.queue.depth"}) {
+            assertNotNull(meterRegistry.find(meter).meter(), () -> "missing " + meter);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.cc.library.controller;
+
+import com.cc.library.search.BookSearchIndex;
+import com.cc.library.support.StatementCountTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+class BookControllerStatementCountTest extends StatementCountTestSupport {
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Test
+    void createBook() throws Exception {
+        assertStatements(2, as(admin, post("/api/books")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(bookJson("isbn-new"))));
+    }
+
+    @Test
+    void updateBook() throws Exception {
+        assertStatements(2, as(admin, put("/api/books/{id}", books.get(0).getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(bookJson(books.get(0).getIsbn()))));
+    }
+
+    @Test
+    void deleteBook() throws Exception {
+        assertStatements(3, as(admin, delete("/api/books/{id}", spareBook.getId())));
+    }
+
+    @Test
+    void getBookById() throws Exception {
+        assertStatements(1, as(readers.get(0), get("/api/books/{id}", books.get(0).getId())));
+    }
+
+    @Test
+    void getAllBooks() throws Exception {
+        assertStatements(1, as(readers.get(0), get("/api/books").param("size", "50")));
+    }
+
+    @Test
+    void getBooksAfter() throws Exception {
+        assertStatements(1, as(readers.get(0), get("/api/books").param("after", "").param("size", "2")));
+    }
+
+    @Test
+    void getBooksByCategory() throws Exception {
+        assertStatements(2, as(readers.get(0), get("/api/books/category/{id}", categories.get(0).getId())));
+    }
+
+    @Test
+    void searchBooks() throws Exception {
+        awaitSearchIndex();
+        bookSearchIndex.indexAll(bookRepository.findAll());
+        assertStatements(1, as(readers.get(0), get("/api/books/search").param("keyword", "book")));
+    }
+
+    @Test
+    void rebuildSearchIndex() throws Exception {
+        awaitSearchIndex();
+        assertStatements(0, as(admin, post("/api/books/search/reindex")));
+    }
+
+    @Test
+    void getBooksByStatus() throws Exception {
+        assertStatements(1, as(readers.get(0), get("/api/books/status/{status}", "AVAILABLE")));
+    }
+
+    @Test
+    void updateBookStatus() throws Exception {
+        assertStatements(2, as(admin, put("/api/books/{id}/status", books.get(0).getId())
+                .param("status", "MAINTENANCE")));
+    }
+
+    @Test
+    void updateBookStock() throws Exception {
+        assertStatements(2, as(admin, put("/api/books/{id}/stock", books.get(0).getId())
+                .param("quantity", "2")));
+    }
+
+    private String bookJson(String isbn) {
+        return """
+                {"title": "New Book", "author": "Someone", "isbn": "%s", "category": {"id": %d},
+                 "totalCopies": 2, "status": "AVAILABLE"}
+                """.formatted(isbn, categories.get(0).getId());
+    }
+
+    // 启动时的后台重建完成前，检索会退回数据库查询，语句数不同
+    private void awaitSearchIndex() throws InterruptedException {
+        for (int i = 0; i < 100 && !bookSearchIndex.isReady(); i++) {
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.cc.library.controller;
+
+import com.cc.library.support.StatementCountTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+class BorrowRecordControllerStatementCountTest extends StatementCountTestSupport {
+
+    @Test
+    void createBorrowRequest() throws Exception {
+        assertStatements(3, as(readers.get(0), post("/api/borrow-records")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"bookId": %d, "days": 14, "remarks": "for class"}
+                        """.formatted(spareBook.getId()))));
+    }
+
+    @Test
+    void approveBorrowRequest() throws Exception {
+        assertStatements(3, as(admin, put("/api/borrow-records/{id}/approve", pendingRecords.get(0).getId())));
+    }
+
+    @Test
+    void rejectBorrowRequest() throws Exception {
+        assertStatements(2, as(admin, put("/api/borrow-records/{id}/reject", pendingRecords.get(0).getId())
+                .param("reason", "damaged")));
+    }
+
+    @Test
+    void returnBook() throws Exception {
+        assertStatements(3, as(readers.get(0), put("/api/borrow-records/{id}/return", borrowedRecords.get(0).getId())));
+    }
+
+    @Test
+    void deleteBorrowRecord() throws Exception {
+        assertStatements(3, as(admin, delete("/api/borrow-records/{id}", pendingRecords.get(0).getId())));
+    }
+
+    @Test
+    void getBorrowRecordById() throws Exception {
+        assertStatements(1, as(readers.get(0), get("/api/borrow-records/{id}", borrowedRecords.get(0).getId())));
+    }
+
+    @Test
+    void getBorrowRecordsByUser() throws Exception {
+        assertStatements(2, as(readers.get(0), get("/api/borrow-records/user/{userId}", readers.get(0).getId())));
+    }
+
+    @Test
+    void getAllBorrowRecords() throws Exception {
+        assertStatements(1, as(admin, get("/api/borrow-records").param("size", "50")));
+    }
+
+    @Test
+    void getBorrowRecordsAfter() throws Exception {
+        assertStatements(1, as(admin, get("/api/borrow-records").param("after", "").param("size", "50")));
+    }
+
+    @Test
+    void getOverdueRecords() throws Exception {
+        assertStatements(1, as(admin, get("/api/borrow-records/overdue")));
+    }
+
+    @Test
+    void getRecordsByStatus() throws Exception {
+        assertStatements(1, as(admin, get("/api/borrow-records/status/{status}", "BORROWED")));
+    }
+}
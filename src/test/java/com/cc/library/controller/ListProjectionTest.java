@@ -0,0 +1,70 @@
+package com.cc.library.controller;
+
+import com.cc.library.support.StatementCountTestSupport;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 分页列表返回 BookCard / LoanRow 投影：只含列表需要的字段，不带简介、嵌套实体和密码哈希。
+ */
+class ListProjectionTest extends StatementCountTestSupport {
+
+    @Test
+    void bookListReturnsCards() throws Exception {
+        mockMvc.perform(as(readers.get(0), get("/api/books/category/{id}", categories.get(0).getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].categoryId").value(categories.get(0).getId()))
+                .andExpect(jsonPath("$.data.content[0].categoryName").value("category0"))
+                .andExpect(jsonPath("$.data.content[0].availableCopies").isNumber())
+                .andExpect(jsonPath("$.data.content[0].description").doesNotExist())
+                .andExpect(jsonPath("$.data.content[0].category").doesNotExist());
+    }
+
+    @Test
+    void cursorPagesWalkCardsInTitleOrder() throws Exception {
+        String first = mockMvc.perform(as(readers.get(0), get("/api/books").param("after", "").param("size", "2")))
+                .andExpect(jsonPath("$.data.content[0].title").value("Book 0"))
+                .andExpect(jsonPath("$.data.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(first, "$.data.nextCursor");
+
+        mockMvc.perform(as(readers.get(0), get("/api/books").param("after", cursor).param("size", "2")))
+                .andExpect(jsonPath("$.data.content[0].title").value("Book 2"));
+    }
+
+    @Test
+    void cursorPagesRejectSizesOutsideLimits() throws Exception {
+        for (String size : new String[]{"0", "-1", String.valueOf(Integer.MAX_VALUE)}) {
+            mockMvc.perform(as(readers.get(0), get("/api/books").param("after", "").param("size", size)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("INVALID_PAGE_SIZE"));
+        }
+        mockMvc.perform(as(admin, get("/api/borrow-records").param("after", "").param("size", "0")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void loanListsDoNotExposeUsers() throws Exception {
+        String body = mockMvc.perform(as(admin, get("/api/borrow-records").param("size", "50")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].bookTitle").isString())
+                .andExpect(jsonPath("$.data.content[0].username").isString())
+                .andExpect(jsonPath("$.data.content[0].user").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        assertFalse(body.contains("password"));
+
+        mockMvc.perform(as(readers.get(0), get("/api/borrow-records/user/{userId}", readers.get(0).getId())))
+                .andExpect(jsonPath("$.data.content[*].userId").value(everyItem(
+                        equalTo(readers.get(0).getId().intValue()))));
+        mockMvc.perform(as(admin, get("/api/borrow-records/overdue")))
+                .andExpect(jsonPath("$.data.content[*].status").value(everyItem(
+                        equalTo("OVERDUE"))));
+    }
+}
@@ -0,0 +1,41 @@
+package com.cc.library.controller;
+
+import com.cc.library.support.StatementCountTestSupport;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+class ReservationControllerStatementCountTest extends StatementCountTestSupport {
+
+    @Test
+    void createReservation() throws Exception {
+        assertStatements(5, as(spareUser, post("/api/reservations").param("bookId", unavailableBook.getId().toString())));
+    }
+
+    @Test
+    void cancelReservation() throws Exception {
+        assertStatements(2, as(readers.get(0), delete("/api/reservations/{id}", reservations.get(0).getId())));
+    }
+
+    // 列表接口会为待处理预约填充排队位置：冷启动时所有涉及图书的队列用一条查询加载
+    @Test
+    void getUserReservations() throws Exception {
+        assertStatements(2, as(readers.get(0), get("/api/user/reservations")));
+    }
+
+    @Test
+    void getAllReservations() throws Exception {
+        assertStatements(2, as(admin, get("/api/admin/reservations").param("size", "50")));
+    }
+
+    @Test
+    void getAllReservationsAfter() throws Exception {
+        assertStatements(2, as(admin, get("/api/admin/reservations").param("after", "").param("size", "50")));
+    }
+
+    @Test
+    void fulfillReservation() throws Exception {
+        // 奇数下标的读者预约的是可借图书；兑现时认领预约、扣减库存并写入借阅记录
+        assertStatements(5, as(admin, put("/api/admin/reservations/{id}/fulfill", reservations.get(1).getId())));
+    }
+}
@@ -0,0 +1,44 @@
+package com.cc.library.controller;
+
+import com.cc.library.support.StatementCountTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+class ReviewControllerStatementCountTest extends StatementCountTestSupport {
+
+    @Test
+    void createReview() throws Exception {
+        assertStatements(3, as(readers.get(0), post("/api/reviews")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"bookId": %d, "rating": 4.0, "comment": "good"}
+                        """.formatted(spareBook.getId()))));
+    }
+
+    @Test
+    void getBookReviews() throws Exception {
+        assertStatements(1, as(readers.get(0), get("/api/books/{bookId}/reviews", unavailableBook.getId())));
+    }
+
+    @Test
+    void getAllReviews() throws Exception {
+        assertStatements(1, as(admin, get("/api/admin/reviews").param("size", "50")));
+    }
+
+    @Test
+    void approveReview() throws Exception {
+        assertStatements(4, as(admin, put("/api/admin/reviews/{id}/approve", reviews.get(2).getId())));
+    }
+
+    @Test
+    void rejectReview() throws Exception {
+        assertStatements(4, as(admin, put("/api/admin/reviews/{id}/reject", reviews.get(2).getId())));
+    }
+
+    @Test
+    void getReviewById() throws Exception {
+        assertStatements(3, as(admin, get("/api/admin/reviews/{id}", reviews.get(0).getId())));
+    }
+}
@@ -0,0 +1,67 @@
+package com.cc.library.controller;
+
+import com.cc.library.support.StatementCountTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+class UserControllerStatementCountTest extends StatementCountTestSupport {
+
+    @Test
+    void register() throws Exception {
+        assertStatements(3, post("/api/users/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"username": "newreader", "password": "secret1", "name": "New Reader",
+                         "email": "newreader@example.com"}
+                        """));
+    }
+
+    @Test
+    void createUser() throws Exception {
+        assertStatements(3, as(admin, post("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(userJson("created"))));
+    }
+
+    // 改用户名和删除都会递增令牌版本（读取 + 写入 token_versions 两条）
+    @Test
+    void updateUser() throws Exception {
+        assertStatements(7, as(admin, put("/api/users/{id}", spareUser.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(userJson("renamed"))));
+    }
+
+    @Test
+    void deleteUser() throws Exception {
+        assertStatements(6, as(admin, delete("/api/users/{id}", spareUser.getId())));
+    }
+
+    @Test
+    void getUserById() throws Exception {
+        assertStatements(1, as(readers.get(0), get("/api/users/{id}", readers.get(0).getId())));
+    }
+
+    @Test
+    void getUserByUsername() throws Exception {
+        assertStatements(1, as(readers.get(0), get("/api/users/username/{username}", readers.get(0).getUsername())));
+    }
+
+    @Test
+    void getAllUsers() throws Exception {
+        assertStatements(1, as(admin, get("/api/users").param("size", "50")));
+    }
+
+    @Test
+    void getUserProfile() throws Exception {
+        assertStatements(1, as(readers.get(0), get("/api/users/profile")));
+    }
+
+    private static String userJson(String username) {
+        return """
+                {"username": "%s", "password": "secret1", "name": "%s", "email": "%s@example.com",
+                 "role": "READER", "status": "ACTIVE"}
+                """.formatted(username, username, username);
+    }
+}
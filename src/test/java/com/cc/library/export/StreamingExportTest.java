@@ -0,0 +1,152 @@
+package com.cc.library.export;
+
+import com.cc.library.entity.Book;
+import com.cc.library.entity.BorrowRecord;
+import com.cc.library.exception.TooManyRequestsException;
+import com.cc.library.support.StatementCountTestSupport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 流式导出：StreamingResponseBody 在异步线程中逐行写出 NDJSON / CSV。
+ */
+class StreamingExportTest extends StatementCountTestSupport {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void streamsBooksByStatusAsNdjson() throws Exception {
+        String body = stream(as(readers.get(0), get("/api/books/status/AVAILABLE/stream")));
+
+        String[] lines = body.split("\n");
+        assertEquals(bookRepository.findByStatus(Book.BookStatus.AVAILABLE).size(), lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(books.get(0).getId(), first.get("id").asLong());
+        assertEquals("AVAILABLE", first.get("status").asText());
+    }
+
+    @Test
+    void exportsWholeCatalogAsCsvAcrossSeveralFetchBatches() throws Exception {
+        List<Book> extra = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            Book book = new Book();
+            book.setTitle("Bulk, \"volume\" " + i);
+            book.setAuthor("Author " + i);
+            book.setIsbn("bulk-" + i);
+            book.setCategory(categories.get(i % categories.size()));
+            book.setTotalCopies(1);
+            book.setAvailableCopies(1);
+            book.setStatus(Book.BookStatus.AVAILABLE);
+            extra.add(book);
+        }
+        bookRepository.saveAll(extra);
+
+        MvcResult started = mockMvc.perform(as(admin, get("/api/books/export")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(ExportFormat.CSV.getMediaType()))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"catalog.csv\""))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\r\n");
+        assertEquals("id,title,author,isbn,category,description,totalCopies,availableCopies,status,createdAt,updatedAt",
+                lines[0]);
+        assertEquals(bookRepository.count() + 1, lines.length);
+        assertTrue(lines[lines.length - 1].contains("\"Bulk, \"\"volume\"\" 2499\""));
+    }
+
+    @Test
+    void streamsBorrowRecordsByStatusAndOverdue() throws Exception {
+        String csv = stream(as(admin, get("/api/borrow-records/status/PENDING/stream").param("format", "CSV")));
+        String[] lines = csv.split("\r\n");
+        assertEquals(pendingRecords.size() + 1, lines.length);
+        assertTrue(lines[1].startsWith(pendingRecords.get(0).getId() + ","));
+
+        String ndjson = stream(as(admin, get("/api/borrow-records/overdue/stream")));
+        long overdue = borrowRecordRepository.findByStatus(BorrowRecord.BorrowStatus.OVERDUE).size();
+        assertEquals(overdue, ndjson.lines().count());
+        JsonNode first = objectMapper.readTree(ndjson.lines().findFirst().orElseThrow());
+        assertTrue(first.hasNonNull("username"));
+        assertFalse(first.has("user"));
+        assertFalse(ndjson.contains("password"));
+    }
+
+    @Test
+    void readersCannotExport() throws Exception {
+        mockMvc.perform(as(readers.get(0), get("/api/books/export")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(as(readers.get(0), get("/api/borrow-records/overdue/stream")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void csvWriterQuotesOnlyWhenNeeded() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<ExportColumn<String[]>> columns = List.of(
+                new ExportColumn<>("a", row -> row[0]),
+                new ExportColumn<>("b", row -> row[1]));
+        try (RowStreamWriter<String[]> writer = RowStreamWriter.open(ExportFormat.CSV, out, objectMapper, columns)) {
+            writer.write(new String[]{"plain", null});
+            writer.write(new String[]{"line\nbreak", "say \"hi\""});
+        }
+
+        assertEquals("a,b\r\nplain,\r\n\"line\nbreak\",\"say \"\"hi\"\"\"\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void csvWriterNeutralizesFormulaCells() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<ExportColumn<Object[]>> columns = List.of(
+                new ExportColumn<>("text", row -> row[0]),
+                new ExportColumn<>("number", row -> row[1]));
+        try (RowStreamWriter<Object[]> writer = RowStreamWriter.open(ExportFormat.CSV, out, objectMapper, columns)) {
+            writer.write(new Object[]{"=HYPERLINK(\"http://x\")", -1});
+            writer.write(new Object[]{"@SUM(A1)", 2});
+            writer.write(new Object[]{"+1", null});
+        }
+
+        assertEquals("text,number\r\n\"'=HYPERLINK(\"\"http://x\"\")\",-1\r\n'@SUM(A1),2\r\n'+1,\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void rejectsExportsBeyondTheConcurrencyLimit() throws Exception {
+        StreamingExporter exporter = new StreamingExporter(objectMapper, 1);
+        StreamingExporter.RowSource<String[]> empty = action -> 0;
+        List<ExportColumn<String[]>> columns = List.of(new ExportColumn<>("a", row -> row[0]));
+
+        StreamingResponseBody running = exporter.export(ExportFormat.CSV, "a", columns, empty).getBody();
+        assertThrows(TooManyRequestsException.class, () -> exporter.export(ExportFormat.CSV, "b", columns, empty));
+
+        running.writeTo(new ByteArrayOutputStream());
+        assertNotNull(exporter.export(ExportFormat.CSV, "c", columns, empty).getBody());
+    }
+
+    private String stream(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult started = mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+}
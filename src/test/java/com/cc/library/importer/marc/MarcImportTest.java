@@ -0,0 +1,118 @@
+package com.cc.library.importer.marc;
+
+import com.cc.library.dto.MarcImportProgress;
+import com.cc.library.entity.Book;
+import com.cc.library.service.MarcImportService;
+import com.cc.library.support.StatementCountTestSupport;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * MARC 导入任务：解析与写入流水线跑完整个文件，失败记录逐条报告。
+ */
+class MarcImportTest extends StatementCountTestSupport {
+
+    @Autowired
+    private MarcImportService marcImportService;
+
+    @Value("${app.marc-import.directory}")
+    private Path directory;
+
+    @Test
+    void importsIso2709FileInTheBackground() throws Exception {
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        // 超过一批（1000 条），经过多次入队
+        for (int i = 0; i < 1500; i++) {
+            file.writeBytes(MarcReaderTest.iso2709('a', "001", "bulk-" + i,
+                    "020", "  \u001Fa979%010d".formatted(i),
+                    "100", "1 \u001FaAuthor " + i + ",",
+                    "245", "10\u001FaBulk title " + i + " /",
+                    "650", " 0\u001Fa" + (i % 2 == 0 ? "category0" : "MARC subject") + "."));
+        }
+        file.writeBytes(MarcReaderTest.iso2709('a', "001", "no-isbn", "245", "10\u001FaMissing ISBN"));
+        file.writeBytes(MarcReaderTest.iso2709('a', "020", "  \u001Fa9790000000000", "100", "1 \u001FaSomeone", "245", "10\u001FaDuplicate"));
+        String name = write(file.toByteArray(), ".mrc");
+
+        MarcImportProgress progress = await(marcImportService.startImport(name, null).getId());
+
+        assertEquals(MarcImportProgress.State.COMPLETED, progress.getState());
+        assertEquals("ISO2709", progress.getFormat());
+        assertEquals(progress.getTotalBytes(), progress.getBytesRead());
+        assertEquals(1502, progress.getReport().getTotal());
+        assertEquals(1500, progress.getReport().getImported());
+        assertEquals(2, progress.getReport().getFailed());
+        assertEquals(1501, progress.getReport().getErrors().get(0).getRow());
+        assertEquals("ISBN不能为空（001: no-isbn）", progress.getReport().getErrors().get(0).getMessage());
+        // 与第一批中的记录重复，由写入时的查重发现
+        assertEquals("ISBN已存在", progress.getReport().getErrors().get(1).getMessage());
+
+        Book first = bookRepository.findByIsbnIn(List.of("9790000000000")).get(0);
+        assertEquals("Bulk title 0", first.getTitle());
+        assertEquals("Author 0", first.getAuthor());
+        assertEquals(categories.get(0).getId(), first.getCategory().getId());
+        assertTrue(categoryRepository.findByName("MARC subject").isPresent());
+    }
+
+    @Test
+    void importsMarcXmlThroughTheEndpoint() throws Exception {
+        String name = write("""
+                <collection xmlns="http://www.loc.gov/MARC21/slim">
+                  <record>
+                    <datafield tag="020" ind1=" " ind2=" "><subfield code="a">9787111111111</subfield></datafield>
+                    <datafield tag="100" ind1="1" ind2=" "><subfield code="a">王小波,</subfield></datafield>
+                    <datafield tag="245" ind1="1" ind2="0"><subfield code="a">黄金时代 /</subfield></datafield>
+                  </record>
+                </collection>
+                """.getBytes(StandardCharsets.UTF_8), ".xml");
+
+        String response = mockMvc.perform(as(admin, post("/api/books/import/marc").param("file", name)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.format").value("MARCXML"))
+                .andReturn().getResponse().getContentAsString();
+        String id = JsonPath.read(response, "$.data.id");
+
+        assertEquals(MarcImportProgress.State.COMPLETED, await(id).getState());
+        Book book = bookRepository.findByIsbnIn(List.of("9787111111111")).get(0);
+        assertEquals("黄金时代", book.getTitle());
+        assertEquals("未分类", book.getCategory().getName());
+    }
+
+    @Test
+    void rejectsFilesOutsideTheImportDirectory() throws Exception {
+        mockMvc.perform(as(admin, post("/api/books/import/marc").param("file", "../outside.mrc")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(as(readers.get(0), post("/api/books/import/marc").param("file", "any.mrc")))
+                .andExpect(result -> assertTrue(result.getResponse().getStatus() >= 400));
+    }
+
+    private String write(byte[] content, String extension) throws Exception {
+        Files.createDirectories(directory);
+        String name = UUID.randomUUID() + extension;
+        Files.write(directory.resolve(name), content);
+        return name;
+    }
+
+    private MarcImportProgress await(String id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        MarcImportProgress progress = marcImportService.getProgress(id);
+        while (progress.getState() == MarcImportProgress.State.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            progress = marcImportService.getProgress(id);
+        }
+        return progress;
+    }
+}
@@ -0,0 +1,179 @@
+package com.cc.library.importer.marc;
+
+import com.cc.library.dto.BookImportRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarcReaderTest {
+
+    private final MarcBookMapper mapper = new MarcBookMapper("未分类");
+
+    @Test
+    void readsIso2709RecordsAcrossSmallChannelReads() throws Exception {
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        file.write(iso2709('a', "001", "rec-1",
+                "020", "  \u001Fa978-0-306-40615-7 (pbk.)",
+                "100", "1 \u001FaKnuth, Donald E.,",
+                "245", "10\u001FaThe art of computer programming :\u001Fbfundamental algorithms /\u001FcDonald Knuth.",
+                "520", "  \u001Fa计算机程序设计艺术。",
+                "650", " 0\u001FaComputer programming."));
+        file.write('\n');
+        file.write(iso2709(' ', "001", "rec-2",
+                "245", "00\u001FaNo ISBN."));
+
+        List<MarcRecord> records = new ArrayList<>();
+        // 每次最多读 7 字节，记录跨越多次读取
+        try (MarcReader reader = MarcReader.open(trickle(file.toByteArray(), 7), MarcFormat.ISO2709)) {
+            reader.forEachRemaining(records::add);
+        }
+
+        assertEquals(2, records.size());
+        BookImportRow book = mapper.map(records.get(0));
+        assertEquals("9780306406157", book.getIsbn());
+        assertEquals("Knuth, Donald E", book.getAuthor());
+        assertEquals("The art of computer programming: fundamental algorithms", book.getTitle());
+        assertEquals("计算机程序设计艺术。", book.getDescription());
+        assertEquals("Computer programming", book.getCategory());
+
+        BookImportRow untitled = mapper.map(records.get(1));
+        assertEquals("rec-2", records.get(1).controlNumber());
+        assertNull(untitled.getIsbn());
+        assertEquals("No ISBN", untitled.getTitle());
+        assertEquals("未分类", untitled.getCategory());
+    }
+
+    @Test
+    void skipsCorruptRecordAndStopsAtUnreadableLength() throws Exception {
+        byte[] corrupt = iso2709('a', "245", "00\u001FaBroken");
+        // 破坏目录区的字段长度
+        corrupt[27] = 'x';
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        file.write(corrupt);
+        file.write(iso2709('a', "245", "00\u001FaFine"));
+        file.write("garbage".getBytes(StandardCharsets.US_ASCII));
+
+        try (MarcReader reader = MarcReader.open(trickle(file.toByteArray(), 4096), MarcFormat.ISO2709)) {
+            MarcRecordException broken = assertThrows(MarcRecordException.class, reader::next);
+            assertEquals(1, broken.getRecord());
+            assertEquals("Fine", reader.next().value("245", 'a'));
+            assertTrue(reader.hasNext());
+            assertThrows(UncheckedIOException.class, reader::next);
+        }
+    }
+
+    @Test
+    void decodesMarc8AnselAndSkipsOtherCharacterSets() throws Exception {
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        // 0xE2 为锐音符、0xE8 为分音符，写在基字符之前；0xB2 为 ø
+        file.write(iso2709(' ', "100", "1 \u001FaBront\u00E8e, Charlotte,",
+                "245", "10\u001FaCaf\u00E2e r\u00B2d."));
+        // ESC $ 1 切换到东亚字符集（EACC）
+        file.write(iso2709(' ', "245", "10\u001Fa\u001B$1!0!\u001B(B"));
+        file.write(iso2709(' ', "245", "10\u001FaPlain."));
+
+        try (MarcReader reader = MarcReader.open(trickle(file.toByteArray(), 4096), MarcFormat.ISO2709)) {
+            MarcRecord first = reader.next();
+            assertEquals("Brontë, Charlotte,", first.value("100", 'a'));
+            assertEquals("Café rød.", first.value("245", 'a'));
+            MarcRecordException unsupported = assertThrows(MarcRecordException.class, reader::next);
+            assertEquals(2, unsupported.getRecord());
+            assertEquals("Plain.", reader.next().value("245", 'a'));
+        }
+    }
+
+    @Test
+    void readsMarcXml() throws Exception {
+        String xml = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <collection xmlns="http://www.loc.gov/MARC21/slim">
+                  <record>
+                    <leader>00000nam a2200000 a 4500</leader>
+                    <controlfield tag="001">x-1</controlfield>
+                    <datafield tag="020" ind1=" " ind2=" "><subfield code="a">invalid</subfield></datafield>
+                    <datafield tag="020" ind1=" " ind2=" "><subfield code="a">020161622X</subfield></datafield>
+                    <datafield tag="110" ind1="2" ind2=" "><subfield code="a">Library of Congress.</subfield></datafield>
+                    <datafield tag="245" ind1="1" ind2="0"><subfield code="a">Pragmatic &amp; practical /</subfield></datafield>
+                    <datafield tag="651" ind1=" " ind2="0"><subfield code="a">China</subfield></datafield>
+                  </record>
+                  <record>
+                    <datafield ind1=" " ind2=" "><subfield code="a">no tag</subfield></datafield>
+                  </record>
+                  <record>
+                    <datafield tag="245" ind1="0" ind2="0"><subfield code="a">Last</subfield></datafield>
+                  </record>
+                </collection>
+                """;
+
+        try (MarcReader reader = MarcReader.open(trickle(xml.getBytes(StandardCharsets.UTF_8), 16), MarcFormat.MARCXML)) {
+            BookImportRow first = mapper.map(reader.next());
+            assertEquals("020161622X", first.getIsbn());
+            assertEquals("Library of Congress", first.getAuthor());
+            assertEquals("Pragmatic & practical", first.getTitle());
+            assertEquals("China", first.getCategory());
+            assertThrows(MarcRecordException.class, reader::next);
+            assertEquals("Last", reader.next().value("245", 'a'));
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    // 按 ISO 2709 组装一条记录：参数为交替的字段标识与字段内容（数据字段含指示符和子字段分隔符）。
+    // MARC-8 记录（coding 为空格）的内容按单字节写入，用 \u0080-\u00FF 表示 ANSEL 字节
+    static byte[] iso2709(char coding, String... tagsAndData) {
+        Charset charset = coding == 'a' ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1;
+        ByteArrayOutputStream directory = new ByteArrayOutputStream();
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        for (int i = 0; i < tagsAndData.length; i += 2) {
+            byte[] field = (tagsAndData[i + 1] + "\u001E").getBytes(charset);
+            directory.writeBytes("%s%04d%05d".formatted(tagsAndData[i], field.length, data.size()).getBytes(StandardCharsets.US_ASCII));
+            data.writeBytes(field);
+        }
+        int base = 24 + directory.size() + 1;
+        int length = base + data.size() + 1;
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        record.writeBytes("%05dnam %c22%05d   4500".formatted(length, coding, base).getBytes(StandardCharsets.US_ASCII));
+        record.writeBytes(directory.toByteArray());
+        record.write(0x1E);
+        record.writeBytes(data.toByteArray());
+        record.write(0x1D);
+        return record.toByteArray();
+    }
+
+    // 每次 read 最多返回 chunk 字节的通道
+    private static ReadableByteChannel trickle(byte[] bytes, int chunk) {
+        ReadableByteChannel source = Channels.newChannel(new ByteArrayInputStream(bytes));
+        return new ReadableByteChannel() {
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                ByteBuffer limited = dst.slice(dst.position(), Math.min(chunk, dst.remaining()));
+                int n = source.read(limited);
+                if (n > 0) {
+                    dst.position(dst.position() + n);
+                }
+                return n;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return source.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                source.close();
+            }
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.cc.library.monitoring;
+
+import com.cc.library.controller.BookController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestOriginTest {
+
+    private final RequestOrigin interceptor = new RequestOrigin();
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @AfterEach
+    void tearDown() {
+        interceptor.afterCompletion(request, response, null, null);
+    }
+
+    @Test
+    void clearsOriginWhenHandlerGoesAsync() throws Exception {
+        interceptor.preHandle(request, response, handler());
+        assertEquals("BookController#exportCatalog", RequestOrigin.current());
+
+        interceptor.afterConcurrentHandlingStarted(request, response, handler());
+
+        assertEquals(Thread.currentThread().getName(), RequestOrigin.current());
+    }
+
+    private static HandlerMethod handler() {
+        Method method = Arrays.stream(BookController.class.getMethods())
+                .filter(m -> m.getName().equals("exportCatalog"))
+                .findFirst().orElseThrow();
+        return new HandlerMethod(new Object(), method) {
+            @Override
+            public Class<?> getBeanType() {
+                return BookController.class;
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.cc.library.monitoring;
+
+import com.cc.library.support.StatementCountTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ServerTimingTest extends StatementCountTestSupport {
+
+    private static final Pattern DB_STATEMENTS = Pattern.compile("db;dur=[0-9.]+;desc=\"(\\d+) queries\"");
+
+    @Test
+    void jsonResponsesCarryAllPhases() throws Exception {
+        MvcResult result = mockMvc.perform(as(admin, get("/api/admin/reservations")))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String header = result.getResponse().getHeader("Server-Timing");
+        assertNotNull(header);
+        assertTrue(header.matches("auth;dur=[0-9.]+, db;dur=[0-9.]+;desc=\"\\d+ queries\", ser;dur=[0-9.]+, total;dur=[0-9.]+"),
+                header);
+        Matcher statements = DB_STATEMENTS.matcher(header);
+        assertTrue(statements.find());
+        assertTrue(Integer.parseInt(statements.group(1)) > 0);
+        assertTrue(result.getResponse().getContentAsString().contains("\"content\""));
+    }
+
+    @Test
+    void bodilessResponsesStillCarryTheHeader() throws Exception {
+        MvcResult result = mockMvc.perform(as(readers.get(0), delete("/api/reservations/{id}", reservations.get(0).getId())))
+                .andExpect(status().isNoContent())
+                .andReturn();
+
+        String header = result.getResponse().getHeader("Server-Timing");
+        assertNotNull(header);
+        assertTrue(header.contains("ser;dur=0.00"), header);
+    }
+}
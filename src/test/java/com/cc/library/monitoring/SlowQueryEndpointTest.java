@@ -0,0 +1,63 @@
+package com.cc.library.monitoring;
+
+import com.cc.library.support.StatementCountTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * it 配置的阈值为 0，所有语句都会记录，用于验证来源标注和管理接口。
+ */
+class SlowQueryEndpointTest extends StatementCountTestSupport {
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @Test
+    void recordsStatementsWithTheirControllerMethod() throws Exception {
+        slowQueryLog.clear();
+
+        mockMvc.perform(as(admin, get("/api/admin/reservations"))).andExpect(status().isOk());
+
+        // 未加载的预约队列在请求结束后由后台线程加载，这些语句以线程名为来源
+        SlowQuery latest = slowQueryLog.recent().stream()
+                .filter(query -> !query.origin().equals("reservation-queue-load"))
+                .findFirst().orElseThrow();
+        assertEquals("ReservationController#getAllReservations", latest.origin());
+        assertTrue(latest.sql().toLowerCase().contains("reservations"));
+        assertTrue(latest.success());
+
+        mockMvc.perform(as(admin, get("/api/admin/slow-queries")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].origin").value(hasItem("ReservationController#getAllReservations")));
+    }
+
+    @Test
+    void attributesStreamedExportStatementsToTheExportEndpoint() throws Exception {
+        // 导出在异步线程上立即开始，清空要放在请求之前，否则可能清掉已经记录的导出语句
+        slowQueryLog.clear();
+        MvcResult started = mockMvc.perform(as(admin, get("/api/books/export")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        SlowQuery export = slowQueryLog.recent().stream()
+                .filter(query -> query.sql().toLowerCase().contains("from books"))
+                .findFirst().orElseThrow();
+        assertEquals("BookController#exportCatalog", export.origin());
+    }
+
+    @Test
+    void readersCannotViewSlowQueries() throws Exception {
+        mockMvc.perform(as(readers.get(0), get("/api/admin/slow-queries")))
+                .andExpect(result -> assertTrue(result.getResponse().getStatus() >= 400));
+    }
+}
@@ -0,0 +1,44 @@
+package com.cc.library.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryLogTest {
+
+    @Test
+    void keepsNewestEntriesWhenFull() {
+        SlowQueryLog log = new SlowQueryLog(3);
+        for (int i = 1; i <= 5; i++) {
+            log.record(query("select " + i));
+        }
+
+        List<SlowQuery> recent = log.recent();
+
+        assertEquals(List.of("select 5", "select 4", "select 3"), recent.stream().map(SlowQuery::sql).toList());
+        assertEquals(5, log.total());
+    }
+
+    @Test
+    void clearEmptiesTheBuffer() {
+        SlowQueryLog log = new SlowQueryLog(3);
+        log.record(query("select 1"));
+
+        log.clear();
+
+        assertTrue(log.recent().isEmpty());
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new SlowQueryLog(0));
+        assertThrows(IllegalArgumentException.class, () -> new SlowQueryLog(-1));
+    }
+
+    private static SlowQuery query(String sql) {
+        return new SlowQuery(LocalDateTime.now(), 250, sql, 0, 1, "test", true);
+    }
+}
@@ -0,0 +1,156 @@
+package com.cc.library.reservation;
+
+import com.cc.library.model.ReservationStatus;
+import com.cc.library.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ReservationQueueTest {
+
+    private ReservationRepository reservationRepository;
+    private ReservationQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository = mock(ReservationRepository.class);
+        queue = new ReservationQueue(reservationRepository, mock(PlatformTransactionManager.class));
+        when(reservationRepository.findQueueEntries(any(), eq(ReservationStatus.PENDING)))
+                .thenReturn(List.of(entry(1L, 10L), entry(1L, 11L), entry(1L, 12L), entry(2L, 20L)));
+    }
+
+    @Test
+    void loadsLazilyOnceAndAnswersFromMemory() {
+        assertEquals(Optional.of(10L), queue.peek(1L));
+        assertEquals(2, queue.position(1L, 11L));
+        assertEquals(3, queue.size(1L));
+        verify(reservationRepository, times(1)).findQueueEntries(any(), any());
+    }
+
+    @Test
+    void keepsPositionsInSyncWithChanges() {
+        queue.size(1L);
+        queue.enqueue(1L, 13L);
+        queue.remove(10L);
+        queue.removeAll(List.of(12L));
+
+        assertEquals(Optional.of(11L), queue.peek(1L));
+        assertEquals(Optional.of(13L), queue.peek(1L, 2));
+        assertEquals(Optional.empty(), queue.peek(1L, 3));
+        assertEquals(Map.of(11L, 1, 13L, 2), queue.positions(Map.of(11L, 1L, 12L, 1L, 13L, 1L)));
+    }
+
+    @Test
+    void ignoresChangesForBooksNotLoaded() {
+        queue.enqueue(3L, 30L);
+        queue.remove(10L);
+        // 加载时以数据库为准
+        assertEquals(1, queue.position(1L, 10L));
+        assertEquals(0, queue.size(3L));
+    }
+
+    @Test
+    void dropsQueuesOnceTheLastReservationLeaves() {
+        queue.size(2L);
+        queue.remove(20L);
+        queue.enqueue(2L, 21L);
+
+        // 空队列已移除，新预约不在内存中登记，下次查询从数据库重新加载
+        when(reservationRepository.findQueueEntries(any(), eq(ReservationStatus.PENDING)))
+                .thenReturn(List.of(entry(2L, 21L)));
+        assertEquals(Optional.of(21L), queue.peek(2L));
+        verify(reservationRepository, times(2)).findQueueEntries(any(), any());
+
+        queue.remove(21L);
+        assertEquals(0, queue.size(4L));
+        assertTrue(queue.loadedBooks().isEmpty());
+    }
+
+    @Test
+    void readsThroughTheCallersTransactionAndLoadsAfterItCompletes() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        List<Runnable> background = new ArrayList<>();
+        queue = new ReservationQueue(reservationRepository, transactionManager, background::add);
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertEquals(3, queue.size(1L));
+            assertEquals(Optional.of(11L), queue.peek(1L, 2));
+            // 同一事务内复用快照，不另开事务（不占第二个连接），也不放入共享队列
+            verify(reservationRepository, times(1)).findQueueEntries(any(), any());
+            verify(transactionManager, never()).getTransaction(any());
+            assertTrue(queue.loadedBooks().isEmpty());
+            assertTrue(background.isEmpty());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertNull(TransactionSynchronizationManager.getResource(queue));
+
+        // 事务结束后在后台线程加载共享队列
+        assertEquals(1, background.size());
+        background.get(0).run();
+        assertEquals(Set.of(1L), queue.loadedBooks());
+        assertEquals(2, queue.position(1L, 11L));
+        verify(reservationRepository, times(2)).findQueueEntries(any(), any());
+    }
+
+    @Test
+    void keepsOrderAcrossGrowthAndCompaction() {
+        ReservationQueue.BookQueue bookQueue = new ReservationQueue.BookQueue();
+        List<Long> expected = new ArrayList<>();
+        LongStream.rangeClosed(1, 1000).forEach(id -> {
+            bookQueue.append(id);
+            expected.add(id);
+        });
+        for (long id = 1; id <= 1000; id += 3) {
+            bookQueue.remove(id);
+            expected.remove(Long.valueOf(id));
+        }
+        LongStream.rangeClosed(1001, 1100).forEach(id -> {
+            bookQueue.append(id);
+            expected.add(id);
+        });
+
+        assertEquals(expected.size(), bookQueue.size());
+        assertEquals(expected.get(0), bookQueue.head());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i + 1, bookQueue.position(expected.get(i)));
+            assertEquals(expected.get(i), bookQueue.at(i + 1));
+        }
+        expected.forEach(bookQueue::remove);
+        assertNull(bookQueue.head());
+    }
+
+    private static ReservationRepository.QueueEntry entry(Long bookId, Long id) {
+        return new ReservationRepository.QueueEntry() {
+            @Override
+            public Long getBookId() {
+                return bookId;
+            }
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+        };
+    }
+}
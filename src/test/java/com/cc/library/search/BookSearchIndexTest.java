@@ -0,0 +1,119 @@
+package com.cc.library.search;
+
+import com.cc.library.entity.Book;
+import com.cc.library.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookSearchIndexTest {
+
+    @TempDir
+    Path indexDir;
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        index = new BookSearchIndex(bookRepository, indexDir.toString(), 100, 10);
+        index.open();
+        index.indexAll(List.of(
+                book(1L, "Thinking in Java", "Bruce Eckel", "9787111213826", "Java 编程经典著作"),
+                book(2L, "Introduction to Algorithms", "Thomas H. Cormen", "9787111187776", "Covers Java examples"),
+                book(3L, "红楼梦", "曹雪芹", "9787020002207", "中国古典四大名著之一")
+        ));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        index.close();
+    }
+
+    @Test
+    void ranksTitleMatchesAboveDescriptionMatches() {
+        BookSearchIndex.Hits hits = index.search("java", 0, 10);
+        assertEquals(2, hits.totalHits());
+        assertEquals(List.of(1L, 2L), hits.ids());
+    }
+
+    @Test
+    void matchesPrefixOfLastTermAndIsbn() {
+        assertEquals(List.of(2L), index.search("algor", 0, 10).ids());
+        assertEquals(List.of(3L), index.search("97870200", 0, 10).ids());
+        assertEquals(List.of(3L), index.search("红楼", 0, 10).ids());
+    }
+
+    @Test
+    void pagesThroughHits() {
+        BookSearchIndex.Hits secondPage = index.search("java", 1, 1);
+        assertEquals(2, secondPage.totalHits());
+        assertEquals(List.of(2L), secondPage.ids());
+    }
+
+    @Test
+    void reflectsUpdatesAndDeletes() {
+        index.index(book(1L, "Effective Java", "Joshua Bloch", "9787111213826", null));
+        assertEquals(List.of(1L), index.search("bloch", 0, 10).ids());
+        assertTrue(index.search("eckel", 0, 10).ids().isEmpty());
+
+        index.delete(1L);
+        assertTrue(index.search("bloch", 0, 10).ids().isEmpty());
+    }
+
+    @Test
+    void failedRebuildKeepsThePreviousIndex() {
+        when(bookRepository.findByIdGreaterThan(anyLong(), any()))
+                .thenReturn(new SliceImpl<>(List.of(book(4L, "Refactoring", "Martin Fowler", "9787115508652", null)),
+                        PageRequest.of(0, 1), true))
+                .thenThrow(new IllegalStateException("connection lost"));
+
+        assertThrows(IllegalStateException.class, () -> index.rebuild());
+
+        // 回滚后的增量提交不能把清空了一半的索引落盘
+        index.index(book(5L, "Clean Code", "Robert C. Martin", "9787115216878", null));
+        assertEquals(List.of(1L, 2L), index.search("java", 0, 10).ids());
+        assertEquals(List.of(5L), index.search("clean", 0, 10).ids());
+        assertTrue(index.search("refactoring", 0, 10).ids().isEmpty());
+    }
+
+    @Test
+    void retriesFailedRebuildToRestoreDiscardedUpdates() throws Exception {
+        when(bookRepository.findByIdGreaterThan(anyLong(), any()))
+                .thenThrow(new IllegalStateException("connection lost"))
+                .thenReturn(new SliceImpl<>(List.of(book(4L, "Refactoring", "Martin Fowler", "9787115508652", null)),
+                        PageRequest.of(0, 1), false));
+
+        assertTrue(index.rebuildAsync());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (index.search("refactoring", 0, 10).ids().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(List.of(4L), index.search("refactoring", 0, 10).ids());
+        assertTrue(index.search("java", 0, 10).ids().isEmpty());
+    }
+
+    private static Book book(Long id, String title, String author, String isbn, String description) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setIsbn(isbn);
+        book.setDescription(description);
+        return book;
+    }
+}
@@ -0,0 +1,64 @@
+package com.cc.library.security;
+
+import com.cc.library.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrentUserArgumentResolverTest {
+
+    private final CurrentUserArgumentResolver resolver = new CurrentUserArgumentResolver();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void supportsOnlyAnnotatedPrincipalOrIdParameters() throws Exception {
+        assertTrue(resolver.supportsParameter(parameter(0)));
+        assertTrue(resolver.supportsParameter(parameter(1)));
+        assertFalse(resolver.supportsParameter(parameter(2)));
+        assertFalse(resolver.supportsParameter(parameter(3)));
+    }
+
+    @Test
+    void resolvesIdAndPrincipalFromSecurityContext() throws Exception {
+        UserPrincipal principal = new UserPrincipal(7L, "reader", User.UserRole.READER, 0);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        assertEquals(7L, resolver.resolveArgument(parameter(0), null, null, null));
+        assertSame(principal, resolver.resolveArgument(parameter(1), null, null, null));
+    }
+
+    @Test
+    void rejectsMissingOrForeignPrincipal() throws Exception {
+        assertThrows(AuthenticationCredentialsNotFoundException.class,
+                () -> resolver.resolveArgument(parameter(0), null, null, null));
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("anonymousUser", null));
+        assertThrows(AuthenticationCredentialsNotFoundException.class,
+                () -> resolver.resolveArgument(parameter(0), null, null, null));
+    }
+
+    private static MethodParameter parameter(int index) throws NoSuchMethodException {
+        Method method = Handler.class.getDeclaredMethod("handle", Long.class, UserPrincipal.class, String.class, Long.class);
+        return new MethodParameter(method, index);
+    }
+
+    @SuppressWarnings("unused")
+    private static class Handler {
+        void handle(@CurrentUser Long userId, @CurrentUser UserPrincipal principal,
+                    @CurrentUser String username, Long plainId) {
+        }
+    }
+}
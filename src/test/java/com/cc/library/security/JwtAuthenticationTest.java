@@ -0,0 +1,119 @@
+package com.cc.library.security;
+
+import com.cc.library.entity.User;
+import com.cc.library.service.UserService;
+import com.cc.library.support.StatementCountTestSupport;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * 无状态认证：令牌声明直接还原用户；改角色/停用/删除后旧令牌立即失效，新签发的令牌可用。
+ */
+class JwtAuthenticationTest extends StatementCountTestSupport {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.security.jwt.secret}")
+    private String secret;
+
+    @Test
+    void tokenIsRevokedWhenUserIsDeactivated() throws Exception {
+        User reader = readers.get(0);
+        String oldToken = jwtUtil.generateToken(reader);
+        assertEquals(200, status(oldToken));
+
+        User changes = userService.getUserById(reader.getId());
+        changes.setStatus(User.UserStatus.INACTIVE);
+        changes.setPassword(null);
+        userService.updateUser(reader.getId(), changes);
+
+        assertNotEquals(200, status(oldToken));
+    }
+
+    @Test
+    void concurrentFirstRevocationsBothCount() throws Exception {
+        Long userId = readers.get(3).getId();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch start = new CountDownLatch(1);
+        Runnable revoke = () -> {
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            transaction.executeWithoutResult(status -> tokenVersionRegistry.revoke(userId));
+        };
+        CompletableFuture<Void> first = CompletableFuture.runAsync(revoke);
+        CompletableFuture<Void> second = CompletableFuture.runAsync(revoke);
+
+        start.countDown();
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, tokenVersionRepository.findById(userId).orElseThrow().getVersion());
+        assertEquals(2, tokenVersionRegistry.currentVersion(userId));
+    }
+
+    @Test
+    void profileChangesKeepTokensValid() throws Exception {
+        User reader = readers.get(1);
+        String token = jwtUtil.generateToken(reader);
+
+        User changes = userService.getUserById(reader.getId());
+        changes.setPhone("13800000000");
+        changes.setPassword(null);
+        userService.updateUser(reader.getId(), changes);
+
+        assertEquals(200, status(token));
+    }
+
+    @Test
+    void newTokenIsAcceptedAfterRevocation() throws Exception {
+        User reader = readers.get(2);
+        User changes = userService.getUserById(reader.getId());
+        changes.setRole(User.UserRole.ADMIN);
+        changes.setPassword(null);
+        userService.updateUser(reader.getId(), changes);
+
+        assertEquals(200, status(jwtUtil.generateToken(userService.getUserById(reader.getId()))));
+    }
+
+    @Test
+    void tokenWithoutUserClaimsIsRejected() throws Exception {
+        // 升级前签发的令牌只有 subject
+        String legacyToken = Jwts.builder()
+                .setSubject(readers.get(3).getUsername())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertNotEquals(200, status(legacyToken));
+    }
+
+    private int status(String token) throws Exception {
+        return mockMvc.perform(get("/api/users/profile").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andReturn().getResponse().getStatus();
+    }
+}
@@ -0,0 +1,104 @@
+package com.cc.library.service;
+
+import com.cc.library.entity.Book;
+import com.cc.library.entity.Category;
+import com.cc.library.search.BookSearchIndex;
+import com.cc.library.support.StatementCountTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 批量导入图书：逐行报告失败原因，ISBN 按批集合查重，缺少的分类自动创建。
+ */
+class BookImportTest extends StatementCountTestSupport {
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Test
+    void importsCsvAndReportsEveryRejectedRow() throws Exception {
+        String csv = """
+                ISBN,Title,Author,Category,Description,TotalCopies
+                9787000000001,"Algorithms, 4th Edition",Sedgewick,category0,,3
+                isbn-Book-0,Duplicate Of Seeded,Someone,category0,,1
+                9787000000002,No Copies,Someone,New Shelf,"Has ""quotes""\",0
+                9787000000003,,Someone,category1,,1
+                9787000000004,Bad Copies,Someone,category1,,two
+                9787000000001,Again,Someone,category0,,1
+                9787000000005,Default Copies,Someone,New Shelf,,
+                """;
+
+        mockMvc.perform(as(admin, post("/api/books/import").contentType("text/csv").content(csv)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.total").value(7))
+                .andExpect(jsonPath("$.data.imported").value(3))
+                .andExpect(jsonPath("$.data.failed").value(4))
+                .andExpect(jsonPath("$.data.errors[0].row").value(2))
+                .andExpect(jsonPath("$.data.errors[0].message").value("ISBN已存在"))
+                .andExpect(jsonPath("$.data.errors[1].message").value("书名不能为空"))
+                .andExpect(jsonPath("$.data.errors[2].message").value("册数必须是非负整数"))
+                .andExpect(jsonPath("$.data.errors[3].message").value("ISBN在导入文件中重复"));
+
+        Book imported = bookRepository.findByIsbnIn(List.of("9787000000001")).get(0);
+        assertEquals("Algorithms, 4th Edition", imported.getTitle());
+        assertEquals(categories.get(0).getId(), imported.getCategory().getId());
+        assertEquals(3, imported.getAvailableCopies());
+        assertEquals(Book.BookStatus.AVAILABLE, imported.getStatus());
+
+        Category created = categoryRepository.findByName("New Shelf").orElseThrow();
+        Book noCopies = bookRepository.findByIsbnIn(List.of("9787000000002")).get(0);
+        assertEquals(created.getId(), noCopies.getCategory().getId());
+        assertEquals("Has \"quotes\"", noCopies.getDescription());
+        assertEquals(Book.BookStatus.UNAVAILABLE, noCopies.getStatus());
+        assertEquals(1, bookRepository.findByIsbnIn(List.of("9787000000005")).get(0).getTotalCopies());
+    }
+
+    @Test
+    void importsNdjsonAcrossSeveralBatches() throws Exception {
+        // 默认每批 1000 行，2500 行分三批写入
+        String ndjson = IntStream.range(0, 2500)
+                .mapToObj(i -> "{\"isbn\": \"97980000%05d\", \"title\": \"Bulk %d\", \"author\": \"Author\", \"category\": \"category2\", \"totalCopies\": \"2\"}"
+                        .formatted(i, i))
+                .collect(Collectors.joining("\n"));
+        long before = bookRepository.count();
+
+        mockMvc.perform(as(admin, post("/api/books/import").contentType("application/x-ndjson").content(ndjson)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.imported").value(2500))
+                .andExpect(jsonPath("$.data.failed").value(0));
+
+        assertEquals(before + 2500, bookRepository.count());
+        // 各批只写入索引，导入结束时一次提交
+        assertEquals(2500, bookSearchIndex.search("Bulk", 0, 1).totalHits());
+    }
+
+    @Test
+    void importsJsonArray() throws Exception {
+        String json = """
+                [{"isbn": "9787000000010", "title": "One", "author": "A", "category": "category1", "totalCopies": 4},
+                 {"isbn": "9787000000011", "title": "Two", "author": "A"}]
+                """;
+
+        mockMvc.perform(as(admin, post("/api/books/import").contentType(MediaType.APPLICATION_JSON).content(json)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.imported").value(1))
+                .andExpect(jsonPath("$.data.errors[0].row").value(2))
+                .andExpect(jsonPath("$.data.errors[0].isbn").value("9787000000011"))
+                .andExpect(jsonPath("$.data.errors[0].message").value("分类不能为空"));
+    }
+
+    @Test
+    void readersCannotImport() throws Exception {
+        assertReaderForbidden(post("/api/books/import").contentType("text/csv").content("isbn\n"));
+    }
+}
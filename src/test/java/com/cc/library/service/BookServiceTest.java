@@ -1,8 +1,10 @@
 package com.cc.library.service;
 
+import com.cc.library.dto.BookCard;
 import com.cc.library.entity.Book;
 import com.cc.library.entity.Category;
 import com.cc.library.repository.BookRepository;
+import com.cc.library.search.BookSearchIndex;
 import com.cc.library.service.impl.BookServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,7 +16,10 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,6 +31,9 @@ class BookServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
     @InjectMocks
     private BookServiceImpl bookService;
 
@@ -72,6 +80,15 @@ class BookServiceTest {
         verify(bookRepository, times(1)).deleteById(anyLong());
     }
 
+    @Test
+    void indexFailureAfterCommitSchedulesRebuild() {
+        when(bookRepository.existsById(anyLong())).thenReturn(true);
+        doThrow(new UncheckedIOException(new IOException("disk full"))).when(bookSearchIndex).delete(1L);
+
+        assertDoesNotThrow(() -> bookService.deleteBook(1L));
+        verify(bookSearchIndex).rebuildAsync();
+    }
+
     @Test
     void getBookById() {
         Book book = new Book();
@@ -85,12 +102,10 @@ class BookServiceTest {
 
     @Test
     void getAllBooks() {
-        Book book1 = new Book();
-        Book book2 = new Book();
-        Page<Book> bookPage = new PageImpl<>(Arrays.asList(book1, book2));
-        when(bookRepository.findAll(any(Pageable.class))).thenReturn(bookPage);
+        Page<BookCard> bookPage = new PageImpl<>(Arrays.asList(card(1L), card(2L)));
+        when(bookRepository.findAllCards(any(Pageable.class))).thenReturn(bookPage);
 
-        Page<Book> books = bookService.getAllBooks(PageRequest.of(0, 10));
+        Page<BookCard> books = bookService.getAllBooks(PageRequest.of(0, 10));
         assertNotNull(books);
         assertEquals(2, books.getTotalElements());
     }
@@ -99,25 +114,41 @@ class BookServiceTest {
     void getBooksByCategory() {
         Category category = new Category();
         category.setId(1L);
-        Book book1 = new Book();
-        Book book2 = new Book();
-        Page<Book> bookPage = new PageImpl<>(Arrays.asList(book1, book2));
-        when(bookRepository.findByCategory(any(Category.class), any(Pageable.class))).thenReturn(bookPage);
+        Page<BookCard> bookPage = new PageImpl<>(Arrays.asList(card(1L), card(2L)));
+        when(bookRepository.findCardsByCategory(any(Category.class), any(Pageable.class))).thenReturn(bookPage);
 
-        Page<Book> books = bookService.getBooksByCategory(category, PageRequest.of(0, 10));
+        Page<BookCard> books = bookService.getBooksByCategory(category, PageRequest.of(0, 10));
         assertNotNull(books);
         assertEquals(2, books.getTotalElements());
     }
 
     @Test
     void searchBooks() {
-        Book book1 = new Book();
-        Book book2 = new Book();
-        Page<Book> bookPage = new PageImpl<>(Arrays.asList(book1, book2));
-        when(bookRepository.findByTitleContainingOrAuthorContaining(anyString(), anyString(), any(Pageable.class))).thenReturn(bookPage);
+        BookCard book1 = card(1L);
+        BookCard book2 = card(2L);
+        when(bookSearchIndex.isReady()).thenReturn(true);
+        when(bookSearchIndex.search("test", 0, 10)).thenReturn(new BookSearchIndex.Hits(List.of(2L, 1L), 2));
+        when(bookRepository.findCardsByIdIn(List.of(2L, 1L))).thenReturn(Arrays.asList(book1, book2));
 
-        Page<Book> books = bookService.searchBooks("test", PageRequest.of(0, 10));
+        Page<BookCard> books = bookService.searchBooks("test", PageRequest.of(0, 10));
         assertNotNull(books);
         assertEquals(2, books.getTotalElements());
+        // 保持索引给出的相关度顺序
+        assertEquals(List.of(book2, book1), books.getContent());
+    }
+
+    @Test
+    void searchBooksFallsBackToDatabaseWhenIndexNotReady() {
+        Page<BookCard> bookPage = new PageImpl<>(Arrays.asList(card(1L), card(2L)));
+        when(bookSearchIndex.isReady()).thenReturn(false);
+        when(bookRepository.searchCards(anyString(), any(Pageable.class))).thenReturn(bookPage);
+
+        Page<BookCard> books = bookService.searchBooks("test", PageRequest.of(0, 10));
+        assertEquals(2, books.getTotalElements());
+        verify(bookSearchIndex, never()).search(anyString(), anyInt(), anyInt());
+    }
+
+    private static BookCard card(Long id) {
+        return new BookCard(id, "Book " + id, "Author", "isbn-" + id, 1L, "category", Book.BookStatus.AVAILABLE, 1, 1);
     }
-} 
\ No newline at end of file
+}
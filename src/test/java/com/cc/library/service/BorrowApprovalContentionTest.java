@@ -0,0 +1,175 @@
+package com.cc.library.service;
+
+import com.cc.library.entity.Book;
+import com.cc.library.entity.BorrowRecord;
+import com.cc.library.entity.Category;
+import com.cc.library.entity.User;
+import com.cc.library.repository.BookRepository;
+import com.cc.library.repository.BorrowRecordRepository;
+import com.cc.library.repository.CategoryRepository;
+import com.cc.library.repository.UserRepository;
+import com.cc.library.support.StatementCountingConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 审批并发：64 个调用方同时审批同一本热门书的借阅申请，或同时审批同一条申请。
+ * <p>
+ * 校验没有丢失更新和超借（成功审批数恰好等于副本数、库存最终为 0；同一申请只能审批成功一次）。
+ * 与语句数回归测试共用同一套集成测试上下文（H2，MySQL 兼容模式）。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("it")
+@Import(StatementCountingConfiguration.class)
+class BorrowApprovalContentionTest {
+
+    private static final int CALLERS = 64;
+    private static final int REQUESTS = 512;
+    private static final int COPIES = 256;
+
+    @Autowired
+    private BorrowRecordService borrowRecordService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private BorrowRecordRepository borrowRecordRepository;
+
+    @AfterEach
+    void cleanUp() {
+        borrowRecordRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentApprovalsOnOneHotBookNeverOversell() throws Exception {
+        Book hotBook = seedHotBook();
+        List<Long> pending = seedPendingRequests(hotBook);
+
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger rejectedForStock = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long recordId : pending) {
+            futures.add(callers.submit(() -> {
+                start.await();
+                try {
+                    borrowRecordService.approveBorrowRequest(recordId);
+                    approved.incrementAndGet();
+                } catch (RuntimeException e) {
+                    assertEquals("No available copies", e.getMessage());
+                    rejectedForStock.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        callers.shutdown();
+
+        assertEquals(COPIES, approved.get());
+        assertEquals(REQUESTS - COPIES, rejectedForStock.get());
+        assertEquals(0, bookRepository.findById(hotBook.getId()).orElseThrow().getAvailableCopies());
+        assertEquals(COPIES, borrowRecordRepository.findByStatus(BorrowRecord.BorrowStatus.BORROWED).size());
+    }
+
+    @Test
+    void concurrentApprovalsOfOneRequestSucceedOnce() throws Exception {
+        Book hotBook = seedHotBook();
+        Long recordId = seedPendingRequests(hotBook).get(0);
+
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger approved = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(callers.submit(() -> {
+                start.await();
+                try {
+                    borrowRecordService.approveBorrowRequest(recordId);
+                    approved.incrementAndGet();
+                } catch (RuntimeException e) {
+                    assertEquals("Record is not pending", e.getMessage());
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        callers.shutdown();
+
+        assertEquals(1, approved.get());
+        assertEquals(COPIES - 1, bookRepository.findById(hotBook.getId()).orElseThrow().getAvailableCopies());
+        assertEquals(BorrowRecord.BorrowStatus.BORROWED,
+                borrowRecordRepository.findById(recordId).orElseThrow().getStatus());
+    }
+
+    private Book seedHotBook() {
+        Category category = new Category();
+        category.setName("hot");
+        category = categoryRepository.save(category);
+
+        Book book = new Book();
+        book.setTitle("Hot Book");
+        book.setAuthor("Popular Author");
+        book.setIsbn("hot-isbn");
+        book.setCategory(category);
+        book.setTotalCopies(COPIES);
+        book.setAvailableCopies(COPIES);
+        book.setStatus(Book.BookStatus.AVAILABLE);
+        return bookRepository.save(book);
+    }
+
+    private List<Long> seedPendingRequests(Book hotBook) {
+        User reader = new User();
+        reader.setUsername("hot-reader");
+        reader.setPassword("not-used");
+        reader.setName("Hot Reader");
+        reader.setEmail("hot-reader@example.com");
+        reader.setRole(User.UserRole.READER);
+        reader.setStatus(User.UserStatus.ACTIVE);
+        reader = userRepository.save(reader);
+
+        List<BorrowRecord> records = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            BorrowRecord record = new BorrowRecord();
+            record.setUser(reader);
+            record.setBook(hotBook);
+            record.setBorrowDate(LocalDateTime.now());
+            record.setDueDate(LocalDateTime.now().plusDays(14));
+            record.setStatus(BorrowRecord.BorrowStatus.PENDING);
+            records.add(record);
+        }
+        return borrowRecordRepository.saveAll(records).stream().map(BorrowRecord::getId).toList();
+    }
+}
@@ -0,0 +1,166 @@
+package com.cc.library.service;
+
+import com.cc.library.dto.CacheRegionStats;
+import com.cc.library.entity.Book;
+import com.cc.library.entity.Category;
+import com.cc.library.entity.User;
+import com.cc.library.repository.BookRepository;
+import com.cc.library.repository.CategoryRepository;
+import com.cc.library.repository.UserRepository;
+import com.cc.library.support.StatementCounter;
+import com.cc.library.support.StatementCountingConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 二级缓存：重复按 ID 读取不再访问数据库，写路径（含条件批量更新）提交后读到的是新值。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("it")
+@Import(StatementCountingConfiguration.class)
+class EntityCacheTest {
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private CacheService cacheService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Category category;
+    private Book book;
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        category = new Category();
+        category.setName("cache");
+        category = categoryRepository.save(category);
+        book = new Book();
+        book.setTitle("Cached Book");
+        book.setAuthor("Author");
+        book.setIsbn("cache-isbn");
+        book.setCategory(category);
+        book.setTotalCopies(3);
+        book.setAvailableCopies(3);
+        book.setStatus(Book.BookStatus.AVAILABLE);
+        book = bookRepository.save(book);
+        user = new User();
+        user.setUsername("cache-reader");
+        user.setPassword("not-used");
+        user.setName("Cache Reader");
+        user.setEmail("cache-reader@example.com");
+        user.setRole(User.UserRole.READER);
+        user.setStatus(User.UserStatus.ACTIVE);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void repeatedLookupsByIdAreServedFromCache() {
+        bookService.getBookById(book.getId());
+        categoryService.getCategoryById(category.getId());
+        userService.getUserById(user.getId());
+        long hitsBefore = hits("books");
+
+        StatementCounter.reset();
+        assertEquals("Cached Book", bookService.getBookById(book.getId()).getTitle());
+        assertEquals("cache", categoryService.getCategoryById(category.getId()).getName());
+        assertEquals("Cache Reader", userService.getUserById(user.getId()).getName());
+        assertEquals(0, StatementCounter.get());
+        assertTrue(hits("books") > hitsBefore);
+    }
+
+    @Test
+    void writesAreVisibleToLaterCachedReads() {
+        bookService.getBookById(book.getId());
+        userService.getUserById(user.getId());
+
+        Book changes = bookService.getBookById(book.getId());
+        changes.setTitle("Renamed Book");
+        bookService.updateBook(book.getId(), changes);
+        assertEquals("Renamed Book", bookService.getBookById(book.getId()).getTitle());
+
+        // 库存条件更新绕过实体，提交后清掉这本书的缓存条目
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                bookRepository.decrementAvailableCopies(book.getId(), LocalDateTime.now()));
+        assertEquals(2, bookService.getBookById(book.getId()).getAvailableCopies());
+
+        User userChanges = userService.getUserById(user.getId());
+        userChanges.setName("Renamed Reader");
+        userChanges.setPassword(null);
+        userService.updateUser(user.getId(), userChanges);
+        assertEquals("Renamed Reader", userService.getUserById(user.getId()).getName());
+    }
+
+    @Test
+    void stockUpdatesEvictOnlyTheChangedBook() {
+        Book other = new Book();
+        other.setTitle("Other Book");
+        other.setAuthor("Author");
+        other.setIsbn("cache-isbn-2");
+        other.setCategory(category);
+        other.setTotalCopies(1);
+        other.setAvailableCopies(1);
+        other.setStatus(Book.BookStatus.AVAILABLE);
+        Long otherId = bookRepository.save(other).getId();
+        bookService.getBookById(book.getId());
+        bookService.getBookById(otherId);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                bookRepository.decrementAvailableCopies(book.getId(), LocalDateTime.now()));
+
+        StatementCounter.reset();
+        assertEquals("Other Book", bookService.getBookById(otherId).getTitle());
+        assertEquals(0, StatementCounter.get());
+        assertEquals(2, bookService.getBookById(book.getId()).getAvailableCopies());
+        assertEquals(1, StatementCounter.get());
+    }
+
+    @Test
+    void evictingRegionForcesReload() {
+        bookService.getBookById(book.getId());
+        cacheService.evictRegion("books");
+
+        StatementCounter.reset();
+        bookService.getBookById(book.getId());
+        assertTrue(StatementCounter.get() > 0);
+    }
+
+    private long hits(String region) {
+        return cacheService.getRegionStats().stream()
+                .filter(stats -> stats.getRegion().equals(region))
+                .mapToLong(CacheRegionStats::getHitCount)
+                .findFirst()
+                .orElseThrow();
+    }
+}
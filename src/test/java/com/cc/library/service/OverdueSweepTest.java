@@ -0,0 +1,139 @@
+package com.cc.library.service;
+
+import com.cc.library.common.JobReport;
+import com.cc.library.entity.Book;
+import com.cc.library.entity.BorrowRecord;
+import com.cc.library.entity.Category;
+import com.cc.library.entity.User;
+import com.cc.library.repository.BookRepository;
+import com.cc.library.repository.BorrowRecordRepository;
+import com.cc.library.repository.CategoryRepository;
+import com.cc.library.repository.JobCheckpointRepository;
+import com.cc.library.repository.UserRepository;
+import com.cc.library.support.StatementCountingConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 增量逾期扫描：在 H2 上验证分批（it 配置下每批 100 行）标记逾期，并且高水位之后只处理新到期的借阅。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("it")
+@Import(StatementCountingConfiguration.class)
+class OverdueSweepTest {
+
+    @Autowired
+    private BorrowRecordService borrowRecordService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private BorrowRecordRepository borrowRecordRepository;
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    private User user;
+    private Book book;
+
+    @BeforeEach
+    void seed() {
+        user = new User();
+        user.setUsername("sweep-reader");
+        user.setPassword("not-used");
+        user.setName("Sweep Reader");
+        user.setEmail("sweep-reader@example.com");
+        user.setRole(User.UserRole.READER);
+        user.setStatus(User.UserStatus.ACTIVE);
+        user = userRepository.save(user);
+
+        Category category = new Category();
+        category.setName("sweep");
+        book = new Book();
+        book.setTitle("Borrowed Book");
+        book.setAuthor("Author");
+        book.setIsbn("sweep-isbn");
+        book.setCategory(categoryRepository.save(category));
+        book.setTotalCopies(1000);
+        book.setAvailableCopies(1000);
+        book.setStatus(Book.BookStatus.AVAILABLE);
+        book = bookRepository.save(book);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jobCheckpointRepository.deleteAllInBatch();
+        borrowRecordRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void marksDueLoansOverdueAndOnlyTouchesNewlyDueLoansAfterwards() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<BorrowRecord> records = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            records.add(loan(BorrowRecord.BorrowStatus.BORROWED, now.minusHours(i + 1)));
+        }
+        for (int i = 0; i < 10; i++) {
+            records.add(loan(BorrowRecord.BorrowStatus.BORROWED, now.plusDays(3)));
+            records.add(loan(BorrowRecord.BorrowStatus.RETURNED, now.minusDays(3)));
+        }
+        borrowRecordRepository.saveAll(records);
+
+        JobReport first = borrowRecordService.markOverdueLoans(now);
+        assertEquals(150, first.rowsProcessed());
+        assertEquals(2, first.chunks());
+        assertEquals(150, borrowRecordService.getOverdueRecords(PageRequest.of(0, 10)).getTotalElements());
+        // 高水位停在截止时间之前的重扫窗口起点（默认 10 分钟）
+        assertEquals(now.minusMinutes(10), jobCheckpointRepository.findById("overdue-sweep").orElseThrow().getHighWaterMark());
+
+        // 下一轮只看高水位之后到期的借阅
+        JobReport second = borrowRecordService.markOverdueLoans(now.plusDays(4));
+        assertEquals(10, second.rowsProcessed());
+        assertEquals(0, borrowRecordService.markOverdueLoans(now.plusDays(4)).rowsProcessed());
+        assertEquals(10, borrowRecordRepository.findByStatus(BorrowRecord.BorrowStatus.RETURNED).size());
+    }
+
+    @Test
+    void loansCommittedAfterTheSweepQueryAreMarkedNextRun() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        borrowRecordRepository.save(loan(BorrowRecord.BorrowStatus.BORROWED, now.minusHours(1)));
+        assertEquals(1, borrowRecordService.markOverdueLoans(now).rowsProcessed());
+
+        // 上一轮查询之后才提交、到期时间已落在上一轮区间内的借阅
+        BorrowRecord late = borrowRecordRepository.save(loan(BorrowRecord.BorrowStatus.BORROWED, now.minusMinutes(1)));
+
+        assertEquals(1, borrowRecordService.markOverdueLoans(now.plusMinutes(5)).rowsProcessed());
+        assertEquals(BorrowRecord.BorrowStatus.OVERDUE,
+                borrowRecordRepository.findById(late.getId()).orElseThrow().getStatus());
+    }
+
+    private BorrowRecord loan(BorrowRecord.BorrowStatus status, LocalDateTime dueDate) {
+        BorrowRecord record = new BorrowRecord();
+        record.setUser(user);
+        record.setBook(book);
+        record.setBorrowDate(dueDate.minusDays(14));
+        record.setDueDate(dueDate);
+        record.setStatus(status);
+        return record;
+    }
+}
@@ -0,0 +1,49 @@
+package com.cc.library.service;
+
+import com.cc.library.entity.Book;
+import com.cc.library.entity.BorrowRecord;
+import com.cc.library.support.StatementCountTestSupport;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 查询方法在只读事务中执行：提交时不做 flush，也就没有逐个实体的脏检查。
+ */
+class ReadOnlyQueryTest extends StatementCountTestSupport {
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private BorrowRecordService borrowRecordService;
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void queryMethodsNeverFlush() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        bookService.getBooksByStatus(Book.BookStatus.AVAILABLE);
+        bookService.searchBooks("Book", PageRequest.of(0, 10));
+        borrowRecordService.getRecordsByStatus(BorrowRecord.BorrowStatus.BORROWED);
+        borrowRecordService.getAllBorrowRecords(PageRequest.of(0, 10));
+        reservationService.getAllReservations(PageRequest.of(0, 10));
+        reviewService.getAllReviews(PageRequest.of(0, 10));
+        userService.getAllUsers(PageRequest.of(0, 10));
+
+        assertTrue(statistics.getTransactionCount() >= 7);
+        assertEquals(0, statistics.getFlushCount());
+    }
+}
@@ -0,0 +1,116 @@
+package com.cc.library.service;
+
+import com.cc.library.common.JobReport;
+import com.cc.library.entity.Book;
+import com.cc.library.entity.Category;
+import com.cc.library.entity.User;
+import com.cc.library.model.Reservation;
+import com.cc.library.model.ReservationStatus;
+import com.cc.library.repository.BookRepository;
+import com.cc.library.repository.CategoryRepository;
+import com.cc.library.repository.ReservationRepository;
+import com.cc.library.repository.UserRepository;
+import com.cc.library.support.StatementCountingConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 预约过期任务：在 H2 上验证按批（it 配置下每批 100 行）过期、只处理已过期的待处理预约。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("it")
+@Import(StatementCountingConfiguration.class)
+class ReservationExpiryTest {
+
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @AfterEach
+    void cleanUp() {
+        reservationRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void expiresOnlyPendingReservationsPastTheirExpirationInChunks() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Reservation> reservations = new ArrayList<>();
+        User user = seedUser();
+        Book book = seedBook();
+        for (int i = 0; i < 250; i++) {
+            reservations.add(reservation(user, book, ReservationStatus.PENDING, now.minusHours(i + 1)));
+        }
+        for (int i = 0; i < 20; i++) {
+            reservations.add(reservation(user, book, ReservationStatus.PENDING, now.plusDays(1)));
+            reservations.add(reservation(user, book, ReservationStatus.FULFILLED, now.minusDays(1)));
+        }
+        reservationRepository.saveAll(reservations);
+
+        JobReport report = reservationService.expireReservations(now);
+
+        assertEquals(250, report.rowsProcessed());
+        assertEquals(3, report.chunks());
+        assertEquals(20, reservationRepository.countByBookIdAndStatus(book.getId(), ReservationStatus.PENDING));
+        assertEquals(250, reservationRepository.countByBookIdAndStatus(book.getId(), ReservationStatus.CANCELLED));
+        assertEquals(20, reservationRepository.countByBookIdAndStatus(book.getId(), ReservationStatus.FULFILLED));
+
+        // 再次执行没有可处理的行
+        assertEquals(0, reservationService.expireReservations(now).rowsProcessed());
+    }
+
+    private User seedUser() {
+        User user = new User();
+        user.setUsername("expiry-reader");
+        user.setPassword("not-used");
+        user.setName("Expiry Reader");
+        user.setEmail("expiry-reader@example.com");
+        user.setRole(User.UserRole.READER);
+        user.setStatus(User.UserStatus.ACTIVE);
+        return userRepository.save(user);
+    }
+
+    private Book seedBook() {
+        Category category = new Category();
+        category.setName("expiry");
+        Book book = new Book();
+        book.setTitle("Reserved Book");
+        book.setAuthor("Author");
+        book.setIsbn("expiry-isbn");
+        book.setCategory(categoryRepository.save(category));
+        book.setTotalCopies(1);
+        book.setAvailableCopies(0);
+        book.setStatus(Book.BookStatus.UNAVAILABLE);
+        return bookRepository.save(book);
+    }
+
+    private static Reservation reservation(User user, Book book, ReservationStatus status, LocalDateTime expiration) {
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setBook(book);
+        reservation.setStatus(status);
+        reservation.setExpirationDate(expiration);
+        return reservation;
+    }
+}
@@ -0,0 +1,172 @@
+package com.cc.library.service;
+
+import com.cc.library.entity.Book;
+import com.cc.library.entity.BorrowRecord;
+import com.cc.library.entity.Category;
+import com.cc.library.entity.User;
+import com.cc.library.model.Reservation;
+import com.cc.library.outbox.OutboxDispatcher;
+import com.cc.library.repository.BookRepository;
+import com.cc.library.repository.BorrowRecordRepository;
+import com.cc.library.repository.CategoryRepository;
+import com.cc.library.repository.OutboxEventRepository;
+import com.cc.library.repository.ReservationRepository;
+import com.cc.library.repository.UserRepository;
+import com.cc.library.support.StatementCountingConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 归还 → 发件箱 → 预约队列队首：验证归还只写事件，投递时为队首保留副本，取消保留后顺延给下一位，
+ * 兑现预约时保留的副本直接转为借阅。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("it")
+@Import(StatementCountingConfiguration.class)
+class ReservationHandoffTest {
+
+    @Autowired
+    private BorrowRecordService borrowRecordService;
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private BorrowRecordRepository borrowRecordRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private Book book;
+    private User borrower;
+    private User first;
+    private User second;
+
+    @BeforeEach
+    void seed() {
+        borrower = seedUser("handoff-borrower");
+        first = seedUser("handoff-first");
+        second = seedUser("handoff-second");
+        Category category = new Category();
+        category.setName("handoff");
+        book = new Book();
+        book.setTitle("Popular Book");
+        book.setAuthor("Author");
+        book.setIsbn("handoff-isbn");
+        book.setCategory(categoryRepository.save(category));
+        book.setTotalCopies(1);
+        book.setAvailableCopies(0);
+        book.setStatus(Book.BookStatus.UNAVAILABLE);
+        book = bookRepository.save(book);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        outboxEventRepository.deleteAllInBatch();
+        reservationRepository.deleteAllInBatch();
+        borrowRecordRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void returnedCopyIsOfferedToHeadOfQueueAndPassedOnWhenCancelled() {
+        Reservation firstReservation = reservationService.createReservation(book.getId(), first.getId());
+        Reservation secondReservation = reservationService.createReservation(book.getId(), second.getId());
+        assertEquals(2, secondReservation.getQueuePosition());
+
+        borrowRecordService.returnBook(loan().getId());
+        // 归还只写发件箱，尚未分配
+        assertEquals(1, outboxEventRepository.count());
+        assertNull(reservationRepository.findById(firstReservation.getId()).orElseThrow().getOfferedAt());
+
+        assertEquals(1, outboxDispatcher.dispatchPending().rowsProcessed());
+        Reservation offered = reservationRepository.findById(firstReservation.getId()).orElseThrow();
+        assertNotNull(offered.getOfferedAt());
+        assertTrue(offered.getExpirationDate().isBefore(LocalDateTime.now().plusDays(4)));
+        assertEquals(0, availableCopies());
+        assertEquals(1, reservationService.getReservationById(secondReservation.getId()).orElseThrow().getQueuePosition());
+
+        // 队首放弃保留的副本，顺延给下一位
+        reservationService.cancelReservation(firstReservation.getId(), first.getId());
+        assertEquals(1, availableCopies());
+        assertEquals(1, outboxDispatcher.dispatchPending().rowsProcessed());
+        assertNotNull(reservationRepository.findById(secondReservation.getId()).orElseThrow().getOfferedAt());
+        assertEquals(0, availableCopies());
+
+        assertEquals(0, outboxDispatcher.dispatchPending().rowsProcessed());
+    }
+
+    @Test
+    void fulfillingAnOfferLendsTheHeldCopyWithoutTakingStockAgain() {
+        Reservation reservation = reservationService.createReservation(book.getId(), first.getId());
+        borrowRecordService.returnBook(loan().getId());
+        outboxDispatcher.dispatchPending();
+        assertEquals(0, availableCopies());
+
+        reservationService.fulfillReservation(reservation.getId());
+
+        assertEquals(0, availableCopies());
+        BorrowRecord handedOver = borrowRecordRepository.findByStatus(BorrowRecord.BorrowStatus.BORROWED).stream()
+                .filter(record -> record.getUser().getId().equals(first.getId()))
+                .findFirst().orElseThrow();
+        assertEquals(book.getId(), handedOver.getBook().getId());
+        assertThrows(RuntimeException.class, () -> reservationService.fulfillReservation(reservation.getId()));
+
+        // 归还这笔借阅后库存回到 1，保留的副本没有被重复扣减
+        borrowRecordService.returnBook(handedOver.getId());
+        outboxDispatcher.dispatchPending();
+        assertEquals(1, availableCopies());
+    }
+
+    @Test
+    void returnedCopyStaysOnShelfWhenNobodyIsWaiting() {
+        borrowRecordService.returnBook(loan().getId());
+        assertEquals(1, outboxDispatcher.dispatchPending().rowsProcessed());
+        assertEquals(1, availableCopies());
+    }
+
+    private BorrowRecord loan() {
+        BorrowRecord record = new BorrowRecord();
+        record.setUser(borrower);
+        record.setBook(book);
+        record.setBorrowDate(LocalDateTime.now().minusDays(7));
+        record.setDueDate(LocalDateTime.now().plusDays(7));
+        record.setStatus(BorrowRecord.BorrowStatus.BORROWED);
+        return borrowRecordRepository.save(record);
+    }
+
+    private int availableCopies() {
+        return bookRepository.findById(book.getId()).orElseThrow().getAvailableCopies();
+    }
+
+    private User seedUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("not-used");
+        user.setName(username);
+        user.setEmail(username + "@example.com");
+        user.setRole(User.UserRole.READER);
+        user.setStatus(User.UserStatus.ACTIVE);
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,75 @@
+package com.cc.library.service;
+
+import com.cc.library.entity.User;
+import com.cc.library.support.StatementCountTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 批量导入读者：逐行报告失败原因，通过的行以 READER 身份写入并可用原密码登录。
+ */
+class UserImportTest extends StatementCountTestSupport {
+
+    @Test
+    void importsCsvAndReportsEveryRejectedRow() throws Exception {
+        String csv = """
+                username,password,name,email,phone
+                student1,secret1,"Lee, Ann",student1@example.com,13800000001
+                reader0,secret1,Taken,taken@example.com,
+                student2,secret2,Student Two,reader1@example.com,
+                student3,secret3,Student Three,not-an-email,
+                student1,secret4,Again,again@example.com,
+
+                student4,secret4,Student Four,student4@example.com,
+                """;
+
+        mockMvc.perform(as(admin, post("/api/users/import").contentType("text/csv").content(csv)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.total").value(6))
+                .andExpect(jsonPath("$.data.imported").value(2))
+                .andExpect(jsonPath("$.data.failed").value(4))
+                .andExpect(jsonPath("$.data.errors[0].row").value(2))
+                .andExpect(jsonPath("$.data.errors[0].message").value("用户名已存在"))
+                .andExpect(jsonPath("$.data.errors[1].message").value("邮箱已被注册"))
+                .andExpect(jsonPath("$.data.errors[2].message").value("邮箱格式不正确"))
+                .andExpect(jsonPath("$.data.errors[3].message").value("用户名在导入文件中重复"));
+
+        User imported = userRepository.findByUsername("student1").orElseThrow();
+        assertEquals("Lee, Ann", imported.getName());
+        assertEquals(User.UserRole.READER, imported.getRole());
+        assertEquals(User.UserStatus.ACTIVE, imported.getStatus());
+        assertTrue(passwordEncoder.matches("secret1", imported.getPassword()));
+        assertTrue(userRepository.findByUsername("student4").isPresent());
+    }
+
+    @Test
+    void importsJsonArray() throws Exception {
+        String json = """
+                [{"username": "student5", "password": "secret5", "name": "Five", "email": "five@example.com"},
+                 {"username": "student6", "password": "short", "name": "Six", "email": "six@example.com"},
+                 null,
+                 {"username": "student7", "password": "secret7", "name": "Seven", "email": "seven@example.com"}]
+                """;
+
+        mockMvc.perform(as(admin, post("/api/users/import").contentType(MediaType.APPLICATION_JSON).content(json)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.imported").value(2))
+                .andExpect(jsonPath("$.data.errors[0].row").value(2))
+                .andExpect(jsonPath("$.data.errors[0].username").value("student6"))
+                .andExpect(jsonPath("$.data.errors[1].row").value(3))
+                .andExpect(jsonPath("$.data.errors[1].message").value("用户名不能为空"));
+
+        assertTrue(userRepository.findByUsername("student5").isPresent());
+        assertFalse(userRepository.findByUsername("student6").isPresent());
+    }
+
+    @Test
+    void readersCannotImport() throws Exception {
+        assertReaderForbidden(post("/api/users/import").contentType("text/csv").content("username\n"));
+    }
+}
@@ -2,6 +2,7 @@ package com.cc.library.service;
 
 import com.cc.library.entity.User;
 import com.cc.library.repository.UserRepository;
+import com.cc.library.security.TokenVersionRegistry;
 import com.cc.library.service.impl.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -29,6 +30,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -76,6 +80,7 @@ class UserServiceTest {
 
         userService.deleteUser(1L);
         verify(userRepository, times(1)).deleteById(anyLong());
+        verify(tokenVersionRegistry).revoke(1L);
     }
 
     @Test
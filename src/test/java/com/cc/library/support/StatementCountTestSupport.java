@@ -0,0 +1,244 @@
+package com.cc.library.support;
+
+import com.cc.library.entity.Book;
+import com.cc.library.entity.BorrowRecord;
+import com.cc.library.entity.Category;
+import com.cc.library.entity.User;
+import com.cc.library.model.Reservation;
+import com.cc.library.model.ReservationStatus;
+import com.cc.library.model.Review;
+import com.cc.library.model.ReviewStatus;
+import com.cc.library.repository.BookRepository;
+import com.cc.library.repository.BorrowRecordRepository;
+import com.cc.library.repository.CategoryRepository;
+import com.cc.library.repository.OutboxEventRepository;
+import com.cc.library.repository.ReservationRepository;
+import com.cc.library.repository.ReviewRepository;
+import com.cc.library.repository.TokenVersionRepository;
+import com.cc.library.repository.UserRepository;
+import com.cc.library.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SQL 语句数回归测试基类。
+ * <p>
+ * 在 H2（MySQL 兼容模式）上启动完整应用，每个用例前灌入一份固定数据：
+ * 多个读者、分类、图书，以及分散在不同图书和读者上的借阅、预约、评论，
+ * 使任何逐行补查（N+1）都会体现在语句数上。用例通过 {@link #assertStatements}
+ * 断言一次请求执行的 SQL 不超过预算，超出即构建失败。
+ * <p>
+ * 注意不要在用例上加 {@code @Transactional}：请求会共享测试事务的一级缓存，从而掩盖真实的查询次数。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("it")
+@Import(StatementCountingConfiguration.class)
+public abstract class StatementCountTestSupport {
+
+    protected static final int READER_COUNT = 5;
+
+    @Autowired
+    protected MockMvc mockMvc;
+    @Autowired
+    protected JwtUtil jwtUtil;
+    @Autowired
+    protected PasswordEncoder passwordEncoder;
+    @Autowired
+    protected UserRepository userRepository;
+    @Autowired
+    protected CategoryRepository categoryRepository;
+    @Autowired
+    protected BookRepository bookRepository;
+    @Autowired
+    protected BorrowRecordRepository borrowRecordRepository;
+    @Autowired
+    protected ReservationRepository reservationRepository;
+    @Autowired
+    protected ReviewRepository reviewRepository;
+    @Autowired
+    protected OutboxEventRepository outboxEventRepository;
+    @Autowired
+    protected TokenVersionRepository tokenVersionRepository;
+
+    protected User admin;
+    protected List<User> readers;
+    protected User spareUser;
+    protected List<Category> categories;
+    protected List<Book> books;
+    protected Book unavailableBook;
+    protected Book spareBook;
+    protected List<BorrowRecord> pendingRecords;
+    protected List<BorrowRecord> borrowedRecords;
+    protected List<Reservation> reservations;
+    protected List<Review> reviews;
+
+    private String encodedPassword;
+
+    @BeforeEach
+    void seedLibrary() {
+        if (encodedPassword == null) {
+            encodedPassword = passwordEncoder.encode("password");
+        }
+        admin = userRepository.save(user("admin", User.UserRole.ADMIN));
+        readers = new ArrayList<>();
+        for (int i = 0; i < READER_COUNT; i++) {
+            readers.add(userRepository.save(user("reader" + i, User.UserRole.READER)));
+        }
+        spareUser = userRepository.save(user("spare", User.UserRole.READER));
+
+        categories = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Category category = new Category();
+            category.setName("category" + i);
+            categories.add(categoryRepository.save(category));
+        }
+
+        books = new ArrayList<>();
+        for (int i = 0; i < READER_COUNT; i++) {
+            books.add(bookRepository.save(book("Book " + i, categories.get(i % categories.size()), Book.BookStatus.AVAILABLE)));
+        }
+        unavailableBook = bookRepository.save(book("Unavailable", categories.get(0), Book.BookStatus.UNAVAILABLE));
+        spareBook = bookRepository.save(book("Spare", categories.get(1), Book.BookStatus.AVAILABLE));
+
+        pendingRecords = new ArrayList<>();
+        borrowedRecords = new ArrayList<>();
+        reservations = new ArrayList<>();
+        reviews = new ArrayList<>();
+        for (int i = 0; i < READER_COUNT; i++) {
+            User reader = readers.get(i);
+            Book book = books.get(i);
+            pendingRecords.add(borrowRecordRepository.save(borrowRecord(reader, book, BorrowRecord.BorrowStatus.PENDING, 7)));
+            boolean overdue = i % 2 == 0;
+            borrowedRecords.add(borrowRecordRepository.save(borrowRecord(reader, books.get((i + 1) % READER_COUNT),
+                    overdue ? BorrowRecord.BorrowStatus.OVERDUE : BorrowRecord.BorrowStatus.BORROWED, overdue ? -3 : 7)));
+            reservations.add(reservationRepository.save(reservation(reader, i % 2 == 0 ? unavailableBook : book)));
+            reviews.add(reviewRepository.save(review(reader, book, i % 2 == 0 ? ReviewStatus.APPROVED : ReviewStatus.PENDING)));
+            reviews.add(reviewRepository.save(review(reader, unavailableBook, ReviewStatus.APPROVED)));
+        }
+    }
+
+    @AfterEach
+    void cleanLibrary() {
+        outboxEventRepository.deleteAllInBatch();
+        tokenVersionRepository.deleteAllInBatch();
+        reviewRepository.deleteAllInBatch();
+        reservationRepository.deleteAllInBatch();
+        borrowRecordRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    /**
+     * 执行请求并断言成功、且执行的 SQL 语句数不超过预算。
+     * @param budget 允许的最大语句数（认证过滤器只验签，不查库）
+     * @param request 请求
+     * @return 请求结果
+     */
+    protected MvcResult assertStatements(long budget, MockHttpServletRequestBuilder request) throws Exception {
+        StatementCounter.reset();
+        MvcResult result = mockMvc.perform(request).andReturn();
+        long executed = StatementCounter.get();
+
+        int status = result.getResponse().getStatus();
+        String description = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+        assertTrue(status < 400, () -> description + " failed with " + status + ": "
+                + contentOf(result));
+        assertTrue(executed <= budget, () -> description + " executed " + executed
+                + " SQL statements, budget is " + budget);
+        return result;
+    }
+
+    /**
+     * 断言普通读者调用管理员接口被拒绝（403）。
+     * @param request 请求（未带令牌，这里以第一个读者身份发送）
+     */
+    protected void assertReaderForbidden(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(as(readers.get(0), request)).andReturn();
+        assertEquals(403, result.getResponse().getStatus(), () -> result.getRequest().getMethod() + " "
+                + result.getRequest().getRequestURI() + ": " + contentOf(result));
+    }
+
+    protected MockHttpServletRequestBuilder as(User user, MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(user));
+    }
+
+    private static String contentOf(MvcResult result) {
+        try {
+            return result.getResponse().getContentAsString();
+        } catch (Exception e) {
+            return "<unreadable>";
+        }
+    }
+
+    private User user(String username, User.UserRole role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword(encodedPassword);
+        user.setName(username);
+        user.setEmail(username + "@example.com");
+        user.setRole(role);
+        user.setStatus(User.UserStatus.ACTIVE);
+        return user;
+    }
+
+    private static Book book(String title, Category category, Book.BookStatus status) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Author of " + title);
+        book.setIsbn("isbn-" + title.replace(' ', '-'));
+        book.setCategory(category);
+        book.setDescription("Description of " + title);
+        book.setTotalCopies(3);
+        book.setAvailableCopies(status == Book.BookStatus.AVAILABLE ? 3 : 0);
+        book.setStatus(status);
+        return book;
+    }
+
+    private static BorrowRecord borrowRecord(User user, Book book, BorrowRecord.BorrowStatus status, int dueInDays) {
+        BorrowRecord record = new BorrowRecord();
+        record.setUser(user);
+        record.setBook(book);
+        record.setBorrowDate(LocalDateTime.now().minusDays(10));
+        record.setDueDate(LocalDateTime.now().plusDays(dueInDays));
+        record.setStatus(status);
+        return record;
+    }
+
+    private static Reservation reservation(User user, Book book) {
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setBook(book);
+        reservation.setStatus(ReservationStatus.PENDING);
+        reservation.setExpirationDate(LocalDateTime.now().plusDays(7));
+        return reservation;
+    }
+
+    private static Review review(User user, Book book, ReviewStatus status) {
+        Review review = new Review();
+        review.setUser(user);
+        review.setBook(book);
+        review.setRating(4.5);
+        review.setComment("Comment by " + user.getUsername());
+        review.setStatus(status);
+        return review;
+    }
+}
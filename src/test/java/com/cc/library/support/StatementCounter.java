@@ -0,0 +1,26 @@
+package com.cc.library.support;
+
+/**
+ * 按线程统计执行的 SQL 语句数。
+ * <p>
+ * MockMvc 在测试线程内同步处理请求，因此只统计当前线程即可排除后台任务（如索引重建）的干扰。
+ */
+public final class StatementCounter {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private StatementCounter() {
+    }
+
+    static void add(int statements) {
+        COUNT.get()[0] += statements;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static long get() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,31 @@
+package com.cc.library.support;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * 用 datasource-proxy 包装应用的数据源，每执行一条语句计入 {@link StatementCounter}。
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class StatementCountingConfiguration {
+
+    @Bean
+    static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name("statement-counter")
+                            .afterQuery((execInfo, queries) -> StatementCounter.add(queries.size()))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
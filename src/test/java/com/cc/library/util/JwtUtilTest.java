@@ -0,0 +1,78 @@
+package com.cc.library.util;
+
+import com.cc.library.entity.User;
+import com.cc.library.security.TokenVersionRegistry;
+import com.cc.library.security.UserPrincipal;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        TokenVersionRegistry tokenVersionRegistry = mock(TokenVersionRegistry.class);
+        when(tokenVersionRegistry.currentVersion(anyLong())).thenReturn(3);
+        jwtUtil = jwtUtil(tokenVersionRegistry, 60_000);
+    }
+
+    @Test
+    void parsesClaimsIntoPrincipal() {
+        UserPrincipal principal = jwtUtil.parseToken(jwtUtil.generateToken(user()));
+
+        assertEquals(7L, principal.id());
+        assertEquals("reader", principal.username());
+        assertEquals(User.UserRole.READER, principal.role());
+        assertEquals(3, principal.tokenVersion());
+    }
+
+    @Test
+    void repeatedTokenIsServedFromVerifiedCache() {
+        String token = jwtUtil.generateToken(user());
+
+        assertSame(jwtUtil.parseToken(token), jwtUtil.parseToken(token));
+    }
+
+    @Test
+    void tamperedTokenIsRejectedEvenAfterOriginalWasCached() {
+        String token = jwtUtil.generateToken(user());
+        jwtUtil.parseToken(token);
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        assertThrows(JwtException.class, () -> jwtUtil.parseToken(tampered));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        JwtUtil expiring = jwtUtil(mock(TokenVersionRegistry.class), -1_000);
+
+        assertThrows(JwtException.class, () -> expiring.parseToken(expiring.generateToken(user())));
+    }
+
+    private static JwtUtil jwtUtil(TokenVersionRegistry tokenVersionRegistry, long expiration) {
+        JwtUtil jwtUtil = new JwtUtil(tokenVersionRegistry);
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", expiration);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", 100L);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("reader");
+        user.setRole(User.UserRole.READER);
+        return user;
+    }
+}